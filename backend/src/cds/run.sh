@@ -0,0 +1,9 @@
+#!/bin/sh
+# Starts the application with the class-data-sharing archive recorded by `mvn -Pcds package`.
+# The class path must match the training run exactly, so run it from this directory.
+cd "$(dirname "$0")" || exit 1
+exec java -XX:SharedArchiveFile=application.jsa -Xshare:auto \
+    -Dspring.aot.enabled=@startup.aot@ \
+    -cp "@project.build.finalName@-cds.jar:lib/*" \
+    com.example.taskmanagement.TaskManagementApplication \
+    --spring.profiles.active=@startup.profiles@ "$@"
@@ -4,12 +4,20 @@ import com.example.taskmanagement.entity.Task;
 import com.example.taskmanagement.entity.User;
 import com.example.taskmanagement.repository.TaskRepository;
 import com.example.taskmanagement.repository.UserRepository;
+import com.example.taskmanagement.sharding.ShardContext;
+import com.example.taskmanagement.sharding.ShardMap;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 @Component
 public class DataLoader implements CommandLineRunner {
@@ -23,41 +31,56 @@ public class DataLoader implements CommandLineRunner {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired(required = false)
+    private ShardMap shardMap;
+
+    // Disabled by the fast-startup profile: instances scaled out against an
+    // existing database have nothing to seed
+    @Value("${app.seed.enabled:true}")
+    private boolean seedEnabled;
+
     @Override
     public void run(String... args) throws Exception {
         // Check if data already exists
-        if (userRepository.count() > 0) {
+        if (!seedEnabled || userRepository.count() > 0) {
             return;
         }
 
+        // BCrypt is deliberately slow; hash the demo passwords in parallel
+        CompletableFuture<String> adminPassword = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("Admin@123"));
+        CompletableFuture<String> user1Password = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("User@123"));
+        CompletableFuture<String> user2Password = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("User@123"));
+
         // Create Admin User
         User admin = new User();
         admin.setUsername("admin");
         admin.setEmail("admin@example.com");
-        admin.setPassword(passwordEncoder.encode("Admin@123"));
+        admin.setPassword(adminPassword.join());
         admin.setRole(User.Role.ADMIN);
         admin.setActive(true);
-        userRepository.save(admin);
 
         // Create Regular User 1
         User user1 = new User();
         user1.setUsername("user1");
         user1.setEmail("user@example.com");
-        user1.setPassword(passwordEncoder.encode("User@123"));
+        user1.setPassword(user1Password.join());
         user1.setRole(User.Role.USER);
         user1.setActive(true);
-        userRepository.save(user1);
 
         // Create Regular User 2
         User user2 = new User();
         user2.setUsername("user2");
         user2.setEmail("user2@example.com");
-        user2.setPassword(passwordEncoder.encode("User@123"));
+        user2.setPassword(user2Password.join());
         user2.setRole(User.Role.USER);
         user2.setActive(true);
-        userRepository.save(user2);
+
+        // One transaction per batch instead of one per row
+        userRepository.saveAll(List.of(admin, user1, user2));
 
         // Create Sample Tasks
+        List<Task> tasks = new ArrayList<>();
+
         Task task1 = new Task();
         task1.setTitle("Setup Project Environment");
         task1.setDescription("Install and configure all necessary development tools and dependencies");
@@ -65,7 +88,7 @@ public class DataLoader implements CommandLineRunner {
         task1.setPriority(Task.Priority.HIGH);
         task1.setCreatedBy(admin);
         task1.setAssignedTo(user1);
-        taskRepository.save(task1);
+        tasks.add(task1);
 
         Task task2 = new Task();
         task2.setTitle("Implement User Authentication");
@@ -74,7 +97,7 @@ public class DataLoader implements CommandLineRunner {
         task2.setPriority(Task.Priority.HIGH);
         task2.setCreatedBy(admin);
         task2.setAssignedTo(user1);
-        taskRepository.save(task2);
+        tasks.add(task2);
 
         Task task3 = new Task();
         task3.setTitle("Design Database Schema");
@@ -83,7 +106,7 @@ public class DataLoader implements CommandLineRunner {
         task3.setPriority(Task.Priority.MEDIUM);
         task3.setCreatedBy(user1);
         task3.setAssignedTo(user2);
-        taskRepository.save(task3);
+        tasks.add(task3);
 
         Task task4 = new Task();
         task4.setTitle("Write API Documentation");
@@ -92,7 +115,7 @@ public class DataLoader implements CommandLineRunner {
         task4.setPriority(Task.Priority.MEDIUM);
         task4.setCreatedBy(user1);
         task4.setAssignedTo(user2);
-        taskRepository.save(task4);
+        tasks.add(task4);
 
         Task task5 = new Task();
         task5.setTitle("Implement Unit Tests");
@@ -100,7 +123,8 @@ public class DataLoader implements CommandLineRunner {
         task5.setStatus(Task.TaskStatus.TODO);
         task5.setPriority(Task.Priority.LOW);
         task5.setCreatedBy(user2);
-        taskRepository.save(task5);
+        tasks.add(task5);
+        saveTasks(tasks);
 
         System.out.println("=================================");
         System.out.println("Demo data loaded successfully!");
@@ -117,4 +141,15 @@ public class DataLoader implements CommandLineRunner {
         System.out.println("  Password: User@123");
         System.out.println("=================================");
     }
+
+    // With sharding enabled a task is stored on its owner's shard
+    private void saveTasks(List<Task> tasks) {
+        if (shardMap == null) {
+            taskRepository.saveAll(tasks);
+            return;
+        }
+        Map<Integer, List<Task>> byShard = tasks.stream()
+                .collect(Collectors.groupingBy(task -> shardMap.shardForOwner(task.getCreatedBy().getId())));
+        byShard.forEach((shard, shardTasks) -> ShardContext.runOn(shard, () -> taskRepository.saveAll(shardTasks)));
+    }
 }
@@ -0,0 +1,144 @@
+package com.example.taskmanagement.archive;
+
+import com.example.taskmanagement.entity.Task.TaskStatus;
+import com.example.taskmanagement.event.TasksArchivedEvent;
+import com.example.taskmanagement.repository.ArchivedTaskRepository;
+import com.example.taskmanagement.repository.TaskRepository;
+import com.example.taskmanagement.sharding.ShardContext;
+import com.example.taskmanagement.sharding.ShardRoutingDataSource;
+import com.example.taskmanagement.sharding.ShardWriteGuard;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Moves old DONE tasks from "tasks" to "tasks_archive" in small chunks. Each
+// chunk is its own short transaction, so row locks are held only briefly and
+// the job never competes with API traffic for long.
+@Component
+@ConditionalOnProperty(prefix = "app.archive", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TaskArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskArchiver.class);
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ArchivedTaskRepository archivedTaskRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // With sharding enabled every shard holds its own tasks and archive
+    @Autowired(required = false)
+    private ShardRoutingDataSource shards;
+
+    // Archiving works on ids in bulk, past the per-entity guard; a shard with a move
+    // in progress is left for the next run instead
+    @Autowired(required = false)
+    private ShardWriteGuard shardWriteGuard;
+
+    @Value("${app.archive.older-than:P30D}")
+    private Duration olderThan;
+
+    @Value("${app.archive.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.archive.max-chunks-per-run:200}")
+    private int maxChunksPerRun;
+
+    @Value("${app.archive.pause-between-chunks:50}")
+    private long pauseBetweenChunksMillis;
+
+    private final TransactionTemplate transactionTemplate;
+    private final Counter archivedRows;
+    private final Timer chunkTimer;
+
+    public TaskArchiver(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archivedRows = Counter.builder("tasks.archived")
+                .description("DONE tasks moved from tasks to tasks_archive")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("tasks.archive.chunk")
+                .description("Time spent archiving one chunk")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.archive.interval:3600000}", initialDelayString = "${app.archive.initial-delay:60000}")
+    public void archiveCompletedTasks() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(olderThan);
+        int shardCount = shards != null ? shards.getShardCount() : 1;
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            ShardContext.runOn(target, () -> archiveShard(cutoff));
+        }
+    }
+
+    private void archiveShard(LocalDateTime cutoff) {
+        long total = 0;
+
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            if (shardWriteGuard != null && !shardWriteGuard.isSettled(ShardContext.current())) {
+                logger.info("Not archiving shard {} while buckets are moving off it", ShardContext.current());
+                break;
+            }
+            int moved = chunkTimer.record(() -> archiveChunk(cutoff));
+            total += moved;
+            if (moved < chunkSize) {
+                break;
+            }
+            pause();
+        }
+
+        if (total > 0) {
+            logger.info("Archived {} DONE tasks last updated before {} on shard {}", total, cutoff, ShardContext.current());
+        }
+    }
+
+    private int archiveChunk(LocalDateTime cutoff) {
+        Integer moved = transactionTemplate.execute(status -> {
+            List<Long> ids = taskRepository.findIdsForArchival(TaskStatus.DONE, cutoff, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) {
+                return 0;
+            }
+
+            archivedTaskRepository.copyFromTasks(ids, LocalDateTime.now());
+            int deleted = taskRepository.deleteByIdInAndStatus(ids, TaskStatus.DONE);
+            if (deleted != ids.size()) {
+                // A subtask was added under one of them while the chunk waited for its locks;
+                // undo the copy, the next run picks the chunk without that parent
+                status.setRollbackOnly();
+                return 0;
+            }
+            eventPublisher.publishEvent(new TasksArchivedEvent(ids));
+            return deleted;
+        });
+
+        int count = moved != null ? moved : 0;
+        archivedRows.increment(count);
+        return count;
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(pauseBetweenChunksMillis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.taskmanagement.concurrency;
+
+import com.example.taskmanagement.concurrency.ConcurrencyLimiter.RequestClass;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Sheds task and auth requests beyond the adaptive limit with an immediate 503, so
+// under overload the requests that are admitted still finish quickly instead of
+// everyone queueing for threads and connections. Runs ahead of the security chain,
+// whose token check already reads the database. The SSE stream and imports are
+// long-lived by design and not limited.
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final ConcurrencyLimiter limiter;
+    private final int retryAfterSeconds;
+    private final Map<RequestClass, Counter> rejected = new EnumMap<>(RequestClass.class);
+
+    public ConcurrencyLimitFilter(ConcurrencyLimiter limiter, int retryAfterSeconds, MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.retryAfterSeconds = retryAfterSeconds;
+        for (RequestClass requestClass : RequestClass.values()) {
+            rejected.put(requestClass, Counter.builder("http.concurrency.rejected")
+                    .description("Requests turned away by the concurrency limit")
+                    .tag("class", requestClass.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        if (uri.equals("/api/v1/tasks/stream") || uri.equals("/api/v1/tasks/import")) {
+            return true;
+        }
+        return !uri.startsWith("/api/v1/tasks") && !uri.startsWith("/api/v1/auth");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestClass requestClass = classify(request);
+        int inflight = limiter.tryAcquire(requestClass);
+        if (inflight == 0) {
+            rejected.get(requestClass).increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Server is busy, retry shortly");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            // Password hashing makes auth latency a poor signal of database trouble
+            limiter.release(System.nanoTime() - start, inflight, completed && requestClass != RequestClass.AUTH);
+        }
+    }
+
+    private static RequestClass classify(HttpServletRequest request) {
+        if (request.getRequestURI().startsWith("/api/v1/auth")) {
+            return RequestClass.AUTH;
+        }
+        return HttpMethod.GET.matches(request.getMethod()) ? RequestClass.READ : RequestClass.WRITE;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.taskmanagement.concurrency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+
+    private int initialLimit = 50;
+
+    private int minLimit = 10;
+
+    // Keep below Tomcat's thread count and within what the connection pool can serve
+    private int maxLimit = 200;
+
+    // How much slower than the baseline latency requests may get before the limit shrinks
+    private double tolerance = 1.5;
+
+    // Share of each adjustment applied at once
+    private double smoothing = 0.2;
+
+    // Sample windows over which the baseline latency rises when requests really get slower
+    private int longWindow = 600;
+
+    private Duration sampleWindow = Duration.ofMillis(100);
+
+    // Seconds sent in Retry-After with a 503
+    private int retryAfter = 1;
+
+    private Shares shares = new Shares();
+
+    // Fraction of the limit each request class may fill
+    @Data
+    public static class Shares {
+
+        private double write = 1.0;
+        private double auth = 0.9;
+        private double read = 0.75;
+
+        double of(ConcurrencyLimiter.RequestClass requestClass) {
+            return switch (requestClass) {
+                case WRITE -> write;
+                case AUTH -> auth;
+                case READ -> read;
+            };
+        }
+    }
+}
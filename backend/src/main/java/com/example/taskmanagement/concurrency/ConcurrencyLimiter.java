@@ -0,0 +1,54 @@
+package com.example.taskmanagement.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Admits requests while fewer than the current limit are in flight. Each request
+// class may only use its share of the limit, so as the limit shrinks reads are
+// turned away first, then logins, and writes last.
+public class ConcurrencyLimiter {
+
+    public enum RequestClass {
+        WRITE,
+        AUTH,
+        READ
+    }
+
+    private final GradientLimit limit;
+    private final ConcurrencyLimitProperties.Shares shares;
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    public ConcurrencyLimiter(GradientLimit limit, ConcurrencyLimitProperties.Shares shares) {
+        this.limit = limit;
+        this.shares = shares;
+    }
+
+    // The number of requests in flight including this one, or 0 when it is rejected
+    public int tryAcquire(RequestClass requestClass) {
+        int allowed = Math.max(1, (int) (limit.getLimit() * shares.of(requestClass)));
+        while (true) {
+            int current = inflight.get();
+            if (current >= allowed) {
+                return 0;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    // sampled: whether the request's latency should move the limit
+    public void release(long rttNanos, int inflightAtStart, boolean sampled) {
+        inflight.decrementAndGet();
+        if (sampled) {
+            limit.onSample(rttNanos, inflightAtStart, System.nanoTime());
+        }
+    }
+
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+}
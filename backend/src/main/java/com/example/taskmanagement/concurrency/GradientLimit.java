@@ -0,0 +1,79 @@
+package com.example.taskmanagement.concurrency;
+
+// Concurrency limit driven by latency, after the gradient algorithm of Netflix's
+// concurrency-limits: every sample window, the window's average latency is compared
+// with a slow-moving baseline and the limit is scaled by their ratio (at most halved
+// per step), plus sqrt(limit) of headroom so it keeps probing upwards while latency
+// holds. When the database slows down, requests take longer, the ratio drops and
+// the limit shrinks before Tomcat threads and pool connections are used up.
+public class GradientLimit {
+
+    // Fewer samples than this make a window too noisy to act on
+    private static final int MIN_WINDOW_SAMPLES = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final int longWindow;
+    private final long sampleWindowNanos;
+
+    private volatile double limit;
+    private double longRtt;
+    private long windowStart;
+    private long windowSum;
+    private int windowCount;
+    private int windowMaxInflight;
+
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing,
+                         int longWindow, long sampleWindowNanos, long nowNanos) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.longWindow = longWindow;
+        this.sampleWindowNanos = sampleWindowNanos;
+        this.windowStart = nowNanos;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    // inflight: requests in flight when this one started, including itself
+    public synchronized void onSample(long rttNanos, int inflight, long nowNanos) {
+        windowSum += rttNanos;
+        windowCount++;
+        windowMaxInflight = Math.max(windowMaxInflight, inflight);
+        if (nowNanos - windowStart < sampleWindowNanos || windowCount < MIN_WINDOW_SAMPLES) {
+            return;
+        }
+
+        double shortRtt = (double) windowSum / windowCount;
+        int maxInflight = windowMaxInflight;
+        windowStart = nowNanos;
+        windowSum = 0;
+        windowCount = 0;
+        windowMaxInflight = 0;
+
+        // The baseline follows latency down at once but up only slowly, and not while
+        // this limit is what queues requests: otherwise the queueing it causes would
+        // become the new normal and the limit would creep up to the maximum
+        boolean saturated = maxInflight >= (int) limit && (int) limit > minLimit;
+        if (longRtt == 0 || shortRtt < longRtt) {
+            longRtt = shortRtt;
+        } else if (!saturated) {
+            longRtt += (shortRtt - longRtt) / longWindow;
+        }
+        // A limit that isn't being used says nothing about whether a higher one would work
+        if (maxInflight < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double target = limit * gradient + Math.sqrt(limit);
+        double smoothed = limit * (1 - smoothing) + target * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, smoothed));
+    }
+}
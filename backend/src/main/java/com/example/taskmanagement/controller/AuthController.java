@@ -5,6 +5,7 @@ import com.example.taskmanagement.dto.LoginRequest;
 import com.example.taskmanagement.dto.MessageResponse;
 import com.example.taskmanagement.dto.RegisterRequest;
 import com.example.taskmanagement.service.AuthService;
+import com.example.taskmanagement.service.TokenRevocationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -22,6 +23,9 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     @PostMapping("/register")
     @Operation(summary = "Register a new user", description = "Create a new user account with username, email, and password")
     public ResponseEntity<MessageResponse> register(@Valid @RequestBody RegisterRequest request) {
@@ -35,4 +39,12 @@ public class AuthController {
         AuthResponse response = authService.login(request);
         return ResponseEntity.ok(response);
     }
+
+    @PostMapping("/logout")
+    @Operation(summary = "Logout", description = "Revoke the bearer token sent in the Authorization header")
+    public ResponseEntity<MessageResponse> logout(@RequestHeader(value = "Authorization", required = false) String authorization) {
+        String token = authorization != null && authorization.startsWith("Bearer ") ? authorization.substring(7) : null;
+        MessageResponse response = tokenRevocationService.logout(token);
+        return ResponseEntity.ok(response);
+    }
 }
@@ -0,0 +1,47 @@
+package com.example.taskmanagement.controller;
+
+import com.example.taskmanagement.dto.BucketMoveResponse;
+import com.example.taskmanagement.dto.ShardStatusResponse;
+import com.example.taskmanagement.service.ShardAdminService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin/shards")
+@Tag(name = "Shards", description = "Shard layout and rebalancing (admin only, sharding profile)")
+@SecurityRequirement(name = "bearerAuth")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardController {
+
+    @Autowired
+    private ShardAdminService shardAdminService;
+
+    @GetMapping
+    @Operation(summary = "Get shard layout", description = "Buckets and task counts per shard")
+    public ResponseEntity<ShardStatusResponse> getStatus() {
+        return ResponseEntity.ok(shardAdminService.getStatus());
+    }
+
+    @PostMapping("/buckets/{bucket}/move")
+    @Operation(summary = "Move a bucket", description = "Move every task of the bucket's owners to another shard")
+    public ResponseEntity<BucketMoveResponse> moveBucket(
+            @PathVariable Integer bucket,
+            @RequestParam Integer targetShard
+    ) {
+        return ResponseEntity.ok(shardAdminService.moveBucket(bucket, targetShard));
+    }
+
+    @PostMapping("/rebalance")
+    @Operation(summary = "Rebalance shards", description = "Move buckets until task counts are as even as bucket granularity allows")
+    public ResponseEntity<List<BucketMoveResponse>> rebalance(@RequestParam(required = false) Integer maxMoves) {
+        return ResponseEntity.ok(shardAdminService.rebalance(maxMoves));
+    }
+}
@@ -1,19 +1,43 @@
 package com.example.taskmanagement.controller;
 
 import com.example.taskmanagement.dto.MessageResponse;
+import com.example.taskmanagement.dto.TaskBoardResponse;
+import com.example.taskmanagement.dto.TaskFlowMetricsResponse;
+import com.example.taskmanagement.dto.TaskHistoryResponse;
+import com.example.taskmanagement.dto.TaskImportEvent;
+import com.example.taskmanagement.dto.TaskProgressResponse;
 import com.example.taskmanagement.dto.TaskRequest;
 import com.example.taskmanagement.dto.TaskResponse;
+import com.example.taskmanagement.exception.BadRequestException;
+import com.example.taskmanagement.exception.PreconditionFailedException;
+import com.example.taskmanagement.importer.TaskImportReader;
+import com.example.taskmanagement.service.IdempotencyService;
+import com.example.taskmanagement.service.TaskBoardService;
+import com.example.taskmanagement.service.TaskHistoryService;
+import com.example.taskmanagement.service.TaskImportService;
 import com.example.taskmanagement.service.TaskService;
+import com.example.taskmanagement.service.TaskWriteCoalescer;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/v1/tasks")
@@ -22,14 +46,55 @@ import java.util.List;
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class TaskController {
 
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
     @Autowired
     private TaskService taskService;
 
+    @Autowired
+    private TaskImportService taskImportService;
+
+    @Autowired
+    private TaskHistoryService taskHistoryService;
+
+    @Autowired
+    private TaskBoardService taskBoardService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    // Present only with app.write-coalescing.enabled
+    @Autowired(required = false)
+    private TaskWriteCoalescer taskWriteCoalescer;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping
-    @Operation(summary = "Create a new task", description = "Create a new task (authenticated users)")
-    public ResponseEntity<TaskResponse> createTask(@Valid @RequestBody TaskRequest request) {
-        TaskResponse response = taskService.createTask(request);
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    @Operation(summary = "Create a new task", description = "Create a new task (authenticated users); a retry with the same Idempotency-Key returns the first response instead of creating another task")
+    public ResponseEntity<TaskResponse> createTask(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody TaskRequest request
+    ) {
+        return withIdempotencyKey(idempotencyKey, "POST /api/v1/tasks", request, () -> {
+            TaskResponse response = taskService.createTask(request);
+            return new ResponseEntity<>(response, HttpStatus.CREATED);
+        });
+    }
+
+    // The body is read while it uploads and the response is NDJSON written as the import
+    // goes: ERROR lines for rejected rows, PROGRESS after every batch, SUMMARY at the end
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @Operation(summary = "Import tasks", description = "Create tasks from a CSV (with header row) or NDJSON upload; streams progress and per-row errors as NDJSON")
+    public void importTasks(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        TaskImportReader.Format format = TEXT_CSV.isCompatibleWith(MediaType.parseMediaType(request.getContentType()))
+                ? TaskImportReader.Format.CSV
+                : TaskImportReader.Format.NDJSON;
+        TaskImportReader reader = taskImportService.open(format, request.getInputStream());
+
+        response.setContentType("application/x-ndjson");
+        ServletOutputStream out = response.getOutputStream();
+        taskImportService.importTasks(reader, event -> writeImportEvent(out, event));
     }
 
     @GetMapping
@@ -43,34 +108,187 @@ public class TaskController {
         return ResponseEntity.ok(tasks);
     }
 
+    @GetMapping(params = "ids")
+    @Operation(summary = "Get tasks by IDs", description = "Get up to 100 tasks in one call, e.g. ?ids=1,2,3; ids that are missing or not visible are omitted")
+    public ResponseEntity<List<TaskResponse>> getTasksByIds(@RequestParam List<Long> ids) {
+        List<TaskResponse> tasks = taskService.getTasksByIds(ids);
+        return ResponseEntity.ok(tasks);
+    }
+
+    @GetMapping(params = "labels")
+    @Operation(summary = "Find tasks by labels", description = "Tasks matching a label expression such as ?labels=backend AND urgent AND NOT blocked, newest first (admins search all tasks, users only theirs)")
+    public ResponseEntity<List<TaskResponse>> getTasksByLabels(
+            @RequestParam String labels,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size
+    ) {
+        List<TaskResponse> tasks = taskService.getTasksByLabels(labels, page, size);
+        return ResponseEntity.ok(tasks);
+    }
+
+    @GetMapping("/board")
+    @Operation(summary = "Get Kanban board", description = "Per status: the total and the first tasks by priority, then newest; pass a column's nextCursor as cursor to load more of it")
+    public ResponseEntity<TaskBoardResponse> getBoard(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor
+    ) {
+        TaskBoardResponse board = taskBoardService.getBoard(limit, cursor);
+        return ResponseEntity.ok(board);
+    }
+
     @GetMapping("/{id}")
-    @Operation(summary = "Get task by ID", description = "Get a specific task by ID")
-    public ResponseEntity<TaskResponse> getTaskById(@PathVariable Long id) {
-        TaskResponse task = taskService.getTaskById(id);
-        return ResponseEntity.ok(task);
+    @Operation(summary = "Get task by ID", description = "Get a specific task by ID; the ETag header carries the task version")
+    public ResponseEntity<TaskResponse> getTaskById(
+            @PathVariable Long id,
+            @RequestParam(required = false) Boolean includeArchived
+    ) {
+        TaskResponse task = taskService.getTaskById(id, Boolean.TRUE.equals(includeArchived));
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(task.getVersion()))
+                .body(task);
     }
 
     @PutMapping("/{id}")
-    @Operation(summary = "Update task", description = "Update an existing task (owner or admin)")
+    @Operation(summary = "Update task", description = "Update an existing task (owner or admin); send If-Match with the ETag to avoid lost updates, and an Idempotency-Key to make retries safe")
     public ResponseEntity<TaskResponse> updateTask(
             @PathVariable Long id,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody TaskRequest request
     ) {
-        TaskResponse response = taskService.updateTask(id, request);
-        return ResponseEntity.ok(response);
+        Long expectedVersion = parseIfMatch(ifMatch);
+        String operation = "PUT /api/v1/tasks/" + id + " If-Match " + expectedVersion;
+        return withIdempotencyKey(idempotencyKey, operation, request, () -> {
+            // Updates with If-Match or an Idempotency-Key are never merged with others
+            TaskResponse response = taskWriteCoalescer != null && expectedVersion == null && idempotencyKey == null
+                    ? taskWriteCoalescer.update(id, request)
+                    : taskService.updateTask(id, request, expectedVersion);
+            return ResponseEntity.ok()
+                    .eTag(String.valueOf(response.getVersion()))
+                    .body(response);
+        });
+    }
+
+    @PostMapping("/claim")
+    @Operation(summary = "Claim next task", description = "Assign the oldest unassigned TODO task of the highest priority to the caller and set it IN_PROGRESS; 204 when there is none")
+    public ResponseEntity<TaskResponse> claimNextTask() {
+        return taskService.claimNextTask()
+                .map(task -> ResponseEntity.ok()
+                        .eTag(String.valueOf(task.getVersion()))
+                        .body(task))
+                .orElseGet(() -> ResponseEntity.noContent().build());
     }
 
     @DeleteMapping("/{id}")
-    @Operation(summary = "Delete task", description = "Delete a task (admin only)")
-    public ResponseEntity<MessageResponse> deleteTask(@PathVariable Long id) {
-        taskService.deleteTask(id);
+    @Operation(summary = "Delete task", description = "Delete a task (admin only); honours If-Match")
+    public ResponseEntity<MessageResponse> deleteTask(
+            @PathVariable Long id,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch
+    ) {
+        taskService.deleteTask(id, parseIfMatch(ifMatch));
         return ResponseEntity.ok(new MessageResponse("Task deleted successfully"));
     }
 
     @GetMapping("/my-tasks")
-    @Operation(summary = "Get my tasks", description = "Get all tasks created by the current user")
-    public ResponseEntity<List<TaskResponse>> getMyTasks() {
-        List<TaskResponse> tasks = taskService.getMyTasks();
+    @Operation(summary = "Get my tasks", description = "Get all tasks created by the current user; includeArchived=true appends archived tasks")
+    public ResponseEntity<List<TaskResponse>> getMyTasks(@RequestParam(required = false) Boolean includeArchived) {
+        List<TaskResponse> tasks = taskService.getMyTasks(Boolean.TRUE.equals(includeArchived));
+        return ResponseEntity.ok(tasks);
+    }
+
+    @GetMapping("/archived")
+    @Operation(summary = "Get archived tasks", description = "Get archived DONE tasks with pagination (admins see all, users see only their tasks)")
+    public ResponseEntity<List<TaskResponse>> getArchivedTasks(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size
+    ) {
+        List<TaskResponse> tasks = taskService.getArchivedTasks(page, size);
+        return ResponseEntity.ok(tasks);
+    }
+
+    @GetMapping("/{id}/history")
+    @Operation(summary = "Get task history", description = "Every recorded change of a task, oldest first (owner or admin); kept after the task is deleted")
+    public ResponseEntity<List<TaskHistoryResponse>> getTaskHistory(@PathVariable Long id) {
+        List<TaskHistoryResponse> history = taskHistoryService.getTaskHistory(id);
+        return ResponseEntity.ok(history);
+    }
+
+    @GetMapping("/{id}/subtree")
+    @Operation(summary = "Get task subtree", description = "The task and all its subtasks at any depth, in creation order; rebuild the tree from parentId")
+    public ResponseEntity<List<TaskResponse>> getSubtree(@PathVariable Long id) {
+        List<TaskResponse> tasks = taskService.getSubtree(id);
+        return ResponseEntity.ok(tasks);
+    }
+
+    @GetMapping("/{id}/ancestors")
+    @Operation(summary = "Get task ancestors", description = "The path from the top-level task down to the task's parent")
+    public ResponseEntity<List<TaskResponse>> getAncestors(@PathVariable Long id) {
+        List<TaskResponse> tasks = taskService.getAncestors(id);
         return ResponseEntity.ok(tasks);
     }
+
+    @GetMapping("/{id}/progress")
+    @Operation(summary = "Get task progress", description = "Subtask counts and percent DONE of the task and all its subtasks")
+    public ResponseEntity<TaskProgressResponse> getProgress(@PathVariable Long id) {
+        TaskProgressResponse progress = taskService.getProgress(id);
+        return ResponseEntity.ok(progress);
+    }
+
+    @GetMapping("/history/metrics")
+    @Operation(summary = "Get flow metrics", description = "Lead and cycle time of tasks first completed in [from, to) (default: the last 30 days); admins see all tasks, users their own")
+    public ResponseEntity<TaskFlowMetricsResponse> getFlowMetrics(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        TaskFlowMetricsResponse metrics = taskHistoryService.getFlowMetrics(from, to);
+        return ResponseEntity.ok(metrics);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream task changes", description = "Server-Sent Events for created, updated and deleted tasks visible to the caller")
+    public SseEmitter streamTaskChanges() {
+        return taskService.subscribeToChanges();
+    }
+
+    private void writeImportEvent(ServletOutputStream out, TaskImportEvent event) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(event));
+            out.write('\n');
+            // Errors can wait for the next progress line; flushing each one would cost a packet per row
+            if (event.getType() != TaskImportEvent.Type.ERROR) {
+                out.flush();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // Without a key the write simply runs; with one, a retry gets the stored response
+    private ResponseEntity<TaskResponse> withIdempotencyKey(String idempotencyKey, String operation, TaskRequest request,
+                                                            Supplier<ResponseEntity<TaskResponse>> write) {
+        if (idempotencyKey == null) {
+            return write.get();
+        }
+        return idempotencyService.execute(idempotencyKey, operation, request, write);
+    }
+
+    // Accepts "5" or "\"5\""; "*" matches any existing version. If-Match uses strong
+    // comparison (RFC 9110), so a weak W/"5" never matches
+    private Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            throw new PreconditionFailedException("If-Match requires a strong entity tag, got " + value);
+        }
+        value = value.replace("\"", "");
+
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            throw new BadRequestException("Invalid If-Match header: " + ifMatch);
+        }
+    }
 }
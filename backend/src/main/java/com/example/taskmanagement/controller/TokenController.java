@@ -0,0 +1,29 @@
+package com.example.taskmanagement.controller;
+
+import com.example.taskmanagement.dto.MessageResponse;
+import com.example.taskmanagement.dto.RevokeTokenRequest;
+import com.example.taskmanagement.service.TokenRevocationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/admin/tokens")
+@Tag(name = "Tokens", description = "Token revocation (admin only)")
+@SecurityRequirement(name = "bearerAuth")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class TokenController {
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @PostMapping("/revoke")
+    @Operation(summary = "Revoke a token", description = "Stop an access or refresh token from working before it expires")
+    public ResponseEntity<MessageResponse> revokeToken(@Valid @RequestBody RevokeTokenRequest request) {
+        return ResponseEntity.ok(tokenRevocationService.revokeToken(request.getToken()));
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.taskmanagement.controller;
+
+import com.example.taskmanagement.dto.MessageResponse;
+import com.example.taskmanagement.dto.WebhookDeadLetterResponse;
+import com.example.taskmanagement.dto.WebhookEndpointRequest;
+import com.example.taskmanagement.dto.WebhookEndpointResponse;
+import com.example.taskmanagement.service.WebhookService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/webhooks")
+@Tag(name = "Webhooks", description = "Webhook endpoints notified of task changes (admin only)")
+@SecurityRequirement(name = "bearerAuth")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class WebhookController {
+
+    @Autowired
+    private WebhookService webhookService;
+
+    @PostMapping
+    @Operation(summary = "Register a webhook endpoint", description = "Deliver batches of task events to the given URL")
+    public ResponseEntity<WebhookEndpointResponse> createEndpoint(@Valid @RequestBody WebhookEndpointRequest request) {
+        WebhookEndpointResponse response = webhookService.createEndpoint(request);
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+
+    @GetMapping
+    @Operation(summary = "List webhook endpoints", description = "List endpoints with their delivery state")
+    public ResponseEntity<List<WebhookEndpointResponse>> getEndpoints() {
+        return ResponseEntity.ok(webhookService.getEndpoints());
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Delete webhook endpoint", description = "Stop delivering events to an endpoint")
+    public ResponseEntity<MessageResponse> deleteEndpoint(@PathVariable Long id) {
+        webhookService.deleteEndpoint(id);
+        return ResponseEntity.ok(new MessageResponse("Webhook endpoint deleted successfully"));
+    }
+
+    @GetMapping("/{id}/dead-letters")
+    @Operation(summary = "Get dead letters", description = "Events that could not be delivered after all retries")
+    public ResponseEntity<List<WebhookDeadLetterResponse>> getDeadLetters(
+            @PathVariable Long id,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size
+    ) {
+        return ResponseEntity.ok(webhookService.getDeadLetters(id, page, size));
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.taskmanagement.datagen;
+
+import com.example.taskmanagement.sharding.ShardMap;
+import com.example.taskmanagement.sharding.ShardRoutingDataSource;
+import com.example.taskmanagement.sharding.ShardSchemaInitializer;
+import com.example.taskmanagement.sharding.UserShardReplicator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Fills the database with synthetic users and tasks for benchmarks and load
+// tests (app.datagen.enabled, see application-datagen.yml). Runs once the
+// application is ready, so the schema exists and the demo data is in place.
+//
+// Rows are written with plain batched JDBC, chunks in parallel. Each chunk draws
+// from its own seeded random stream and ids are assigned from the row index, so
+// the same seed against the same starting database produces the same data.
+@Component
+@ConditionalOnProperty(prefix = "app.datagen", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(DataGeneratorProperties.class)
+public class DataGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataGenerator.class);
+
+    private static final String INSERT_USER_SQL = "INSERT INTO users (id, username, email, password, role, active, "
+            + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final DataGeneratorProperties properties;
+    private final DataSource dataSource;
+    private final PasswordEncoder passwordEncoder;
+    private final ConfigurableApplicationContext context;
+    private final ShardRoutingDataSource shards;
+    private final ShardMap shardMap;
+    private final UserShardReplicator userShardReplicator;
+
+    public DataGenerator(DataGeneratorProperties properties, DataSource dataSource, PasswordEncoder passwordEncoder,
+                         ConfigurableApplicationContext context, ObjectProvider<ShardRoutingDataSource> shards,
+                         ObjectProvider<ShardMap> shardMap, ObjectProvider<UserShardReplicator> userShardReplicator) {
+        this.properties = properties;
+        this.dataSource = dataSource;
+        this.passwordEncoder = passwordEncoder;
+        this.context = context;
+        this.shards = shards.getIfAvailable();
+        this.shardMap = shardMap.getIfAvailable();
+        this.userShardReplicator = userShardReplicator.getIfAvailable();
+    }
+
+    // Before the task read model loads, so it sees the generated tasks
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE - 100)
+    public void generate() throws Exception {
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        long[] userIds = generateUsers(now);
+        long tasks = generateTasks(userIds, now);
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        logger.info("Generated {} users and {} tasks in {} s ({} tasks/s, seed {})", userIds.length, tasks,
+                String.format("%.1f", seconds), Math.round(tasks / seconds), properties.getSeed());
+
+        if (properties.isExitWhenDone()) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+
+    private long[] generateUsers(LocalDateTime now) {
+        DataSource target = shardDataSource(0);
+        long firstId = nextId(target, "users", 1);
+        String passwordHash = passwordEncoder.encode(properties.getPassword());
+        SplittableRandom random = new SplittableRandom(properties.getSeed());
+
+        long[] ids = new long[properties.getUsers()];
+        List<Object[]> rows = new ArrayList<>(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            long id = firstId + i;
+            ids[i] = id;
+            Timestamp createdAt = Timestamp.valueOf(now.minusMinutes(
+                    (long) (random.nextDouble() * (properties.getHistoryDays() + 30) * 1440)));
+            rows.add(new Object[]{id, "user" + id, "user" + id + "@example.test", passwordHash,
+                    i < properties.getAdmins() ? "ADMIN" : "USER", true, createdAt, createdAt});
+        }
+        insertBatches(target, INSERT_USER_SQL, rows);
+        restartIdentity(target, "users");
+
+        if (userShardReplicator != null) {
+            userShardReplicator.syncAll();
+        }
+
+        // Owners are ranked by a seeded shuffle, so the heaviest owners aren't just the first ids
+        long[] ranked = ids.clone();
+        for (int i = ranked.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long swap = ranked[i];
+            ranked[i] = ranked[j];
+            ranked[j] = swap;
+        }
+        return ranked;
+    }
+
+    private long generateTasks(long[] userIds, LocalDateTime now) throws Exception {
+        int shardCount = shards != null ? shards.getShardCount() : 1;
+        long[] firstIds = new long[shardCount];
+        for (int shard = 0; shard < shardCount; shard++) {
+            long rangeStart = shards != null ? shard * ShardSchemaInitializer.TASK_ID_BLOCK + 1 : 1;
+            firstIds[shard] = nextId(shardDataSource(shard), "tasks", rangeStart);
+        }
+
+        TaskRowFactory factory = new TaskRowFactory(properties.getSeed(), userIds, now, properties.getHistoryDays());
+        long total = properties.getTasks();
+        long chunkSize = properties.getChunkSize();
+        long chunks = (total + chunkSize - 1) / chunkSize;
+        AtomicLong written = new AtomicLong();
+        AtomicLong nextReport = new AtomicLong(total / 10);
+
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getThreads());
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (long chunk = 0; chunk < chunks; chunk++) {
+                long from = chunk * chunkSize;
+                long to = Math.min(total, from + chunkSize);
+                long chunkIndex = chunk;
+                futures.add(executor.submit(() -> {
+                    writeChunk(factory, chunkIndex, from, to, firstIds, shardCount);
+                    long done = written.addAndGet(to - from);
+                    long report = nextReport.get();
+                    if (done >= report && nextReport.compareAndSet(report, report + total / 10)) {
+                        logger.info("Generated {} / {} tasks", done, total);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int shard = 0; shard < shardCount; shard++) {
+            restartIdentity(shardDataSource(shard), "tasks");
+        }
+        return written.get();
+    }
+
+    private void writeChunk(TaskRowFactory factory, long chunk, long from, long to, long[] firstIds, int shardCount) {
+        SplittableRandom random = factory.randomForChunk(chunk);
+        List<List<Object[]>> rowsByShard = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            rowsByShard.add(new ArrayList<>());
+        }
+
+        for (long index = from; index < to; index++) {
+            long owner = factory.ownerOf(random);
+            int shard = shardMap != null ? shardMap.shardForOwner(owner) : 0;
+            Object[] row = factory.row(random, owner);
+            // Ids follow the row index, so they don't depend on which thread wrote first
+            row[0] = firstIds[shard] + index;
+            rowsByShard.get(shard).add(row);
+        }
+
+        for (int shard = 0; shard < shardCount; shard++) {
+            if (!rowsByShard.get(shard).isEmpty()) {
+                insertBatches(shardDataSource(shard), TaskRowFactory.insertSql(), rowsByShard.get(shard));
+            }
+        }
+    }
+
+    // One transaction per batch keeps undo/redo small on big runs
+    private void insertBatches(DataSource target, String sql, List<Object[]> rows) {
+        int batchSize = properties.getBatchSize();
+        new JdbcTemplate(target).execute((ConnectionCallback<Void>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (int i = 0; i < rows.size(); i++) {
+                    Object[] row = rows.get(i);
+                    for (int column = 0; column < row.length; column++) {
+                        statement.setObject(column + 1, row[column]);
+                    }
+                    statement.addBatch();
+                    if ((i + 1) % batchSize == 0 || i == rows.size() - 1) {
+                        statement.executeBatch();
+                        connection.commit();
+                    }
+                }
+            } catch (SQLException ex) {
+                connection.rollback();
+                throw ex;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+            return null;
+        });
+    }
+
+    private long nextId(DataSource target, String table, long rangeStart) {
+        Long max = new JdbcTemplate(target).queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return Math.max(rangeStart, max != null ? max + 1 : 1);
+    }
+
+    // Explicit ids don't advance H2's identity; MySQL moves AUTO_INCREMENT past them itself
+    private void restartIdentity(DataSource target, String table) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(target);
+        if (isMySql(jdbcTemplate)) {
+            return;
+        }
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        if (max != null) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + (max + 1));
+        }
+    }
+
+    private boolean isMySql(JdbcTemplate jdbcTemplate) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((Connection connection) ->
+                connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql")));
+    }
+
+    private DataSource shardDataSource(int shard) {
+        return shards != null ? shards.getShard(shard) : dataSource;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.taskmanagement.datagen;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.datagen")
+public class DataGeneratorProperties {
+
+    private boolean enabled = false;
+
+    // Same seed + same starting database = same rows and ids
+    private long seed = 42;
+
+    private int users = 1000;
+
+    // Users (from the start of the generated range) created as ADMIN
+    private int admins = 2;
+
+    private long tasks = 1_000_000;
+
+    // Timestamps are spread over this many days before now, skewed to recent
+    private int historyDays = 365;
+
+    // Rows generated per unit of parallel work (each chunk has its own random stream)
+    private int chunkSize = 20_000;
+
+    // Rows per executeBatch / commit
+    private int batchSize = 1_000;
+
+    private int threads = 4;
+
+    // Password of every generated user (hashed once)
+    private String password = "Password@123";
+
+    // Exit once done (command-line mode) instead of serving the generated data
+    private boolean exitWhenDone = false;
+}
@@ -0,0 +1,167 @@
+package com.example.taskmanagement.datagen;
+
+import com.example.taskmanagement.entity.Task.Priority;
+import com.example.taskmanagement.entity.Task.TaskStatus;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+// Produces task rows with production-like skew: a few owners create most tasks
+// (Zipf), recent tasks dominate, old tasks are mostly DONE, and most tasks are
+// assigned to someone else. Pure function of (seed, row index range).
+class TaskRowFactory {
+
+    private static final String[] VERBS = {"Fix", "Implement", "Review", "Refactor", "Document", "Test", "Investigate",
+            "Update", "Design", "Deploy", "Migrate", "Optimise", "Remove", "Add", "Upgrade"};
+    private static final String[] OBJECTS = {"login flow", "task list", "search index", "billing export", "audit log",
+            "email templates", "API pagination", "user settings", "dashboard widgets", "webhook retries",
+            "CSV import", "notification service", "database indexes", "cache layer", "release pipeline"};
+    private static final String[] AREAS = {"for mobile", "in admin panel", "for EU customers", "before release",
+            "in staging", "for the API", "on the frontend", "in reporting", "for onboarding", ""};
+    private static final String[] WORDS = {"the", "customer", "reported", "that", "when", "page", "loads", "slowly",
+            "error", "after", "deploy", "needs", "check", "with", "team", "data", "should", "be", "validated",
+            "before", "saving", "we", "need", "to", "handle", "edge", "cases", "and", "add", "metrics"};
+    // Earlier labels are used more often
+    private static final String[] LABELS = {"backend", "frontend", "bug", "urgent", "api", "mobile", "blocked",
+            "tech-debt", "security", "performance", "team:core", "team:growth", "team:platform", "sprint:41",
+            "sprint:42", "sprint:43", "customer", "docs", "infra", "ux"};
+
+    private static final String INSERT_SQL = "INSERT INTO tasks (id, title, description, status, priority, "
+            + "assigned_to_id, created_by_id, created_at, updated_at, version, labels) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final long seed;
+    private final long[] userIds;
+    private final double[] ownerCumulative;
+    private final LocalDateTime now;
+    private final int historyDays;
+
+    TaskRowFactory(long seed, long[] userIds, LocalDateTime now, int historyDays) {
+        this.seed = seed;
+        this.userIds = userIds;
+        this.now = now;
+        this.historyDays = historyDays;
+        this.ownerCumulative = zipfCumulative(userIds.length, 1.07);
+    }
+
+    static String insertSql() {
+        return INSERT_SQL;
+    }
+
+    // Independent, reproducible random stream per chunk, whatever thread runs it
+    SplittableRandom randomForChunk(long chunk) {
+        return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + chunk);
+    }
+
+    long ownerOf(SplittableRandom random) {
+        return userIds[pick(random)];
+    }
+
+    // Column values in INSERT_SQL order, with the id filled in by the caller
+    Object[] row(SplittableRandom random, long ownerId) {
+        LocalDateTime createdAt = createdAt(random);
+        double ageDays = Duration.between(createdAt, now).toMinutes() / 1440.0;
+
+        // Old work is mostly finished; fresh work mostly isn't
+        double doneProbability = 0.15 + 0.7 * Math.min(1.0, ageDays / 90.0);
+        double roll = random.nextDouble();
+        TaskStatus status = roll < doneProbability ? TaskStatus.DONE
+                : roll < doneProbability + (1 - doneProbability) * 0.35 ? TaskStatus.IN_PROGRESS
+                : TaskStatus.TODO;
+
+        double priorityRoll = random.nextDouble();
+        Priority priority = priorityRoll < 0.25 ? Priority.LOW : priorityRoll < 0.75 ? Priority.MEDIUM : Priority.HIGH;
+
+        double assigneeRoll = random.nextDouble();
+        Long assignee = assigneeRoll < 0.25 ? null : assigneeRoll < 0.45 ? ownerId : userIds[pick(random)];
+
+        int updates = switch (status) {
+            case TODO -> random.nextDouble() < 0.6 ? 0 : 1;
+            case IN_PROGRESS -> 1 + random.nextInt(3);
+            case DONE -> 2 + random.nextInt(5);
+        };
+        LocalDateTime updatedAt = createdAt;
+        if (updates > 0) {
+            double meanDays = status == TaskStatus.DONE ? 5 : 2;
+            long minutes = (long) (-Math.log(1 - random.nextDouble()) * meanDays * 1440);
+            updatedAt = createdAt.plusMinutes(minutes);
+            if (updatedAt.isAfter(now)) {
+                updatedAt = now;
+            }
+        }
+
+        return new Object[]{
+                null,
+                title(random),
+                random.nextDouble() < 0.3 ? null : description(random),
+                status.name(),
+                priority.name(),
+                assignee,
+                ownerId,
+                Timestamp.valueOf(createdAt),
+                Timestamp.valueOf(updatedAt),
+                (long) updates,
+                labels(random)
+        };
+    }
+
+    private LocalDateTime createdAt(SplittableRandom random) {
+        // u^1.6 packs more rows into the recent past
+        double daysAgo = historyDays * Math.pow(random.nextDouble(), 1.6);
+        LocalDateTime day = now.minusMinutes((long) (daysAgo * 1440)).toLocalDate().atStartOfDay();
+        // Mostly working hours
+        int hour = random.nextDouble() < 0.75 ? 9 + random.nextInt(9) : random.nextInt(24);
+        LocalDateTime createdAt = day.plusHours(hour).plusMinutes(random.nextInt(60)).plusSeconds(random.nextInt(60));
+        return createdAt.isAfter(now) ? now : createdAt;
+    }
+
+    private String title(SplittableRandom random) {
+        String area = AREAS[random.nextInt(AREAS.length)];
+        String title = VERBS[random.nextInt(VERBS.length)] + " " + OBJECTS[random.nextInt(OBJECTS.length)];
+        return area.isEmpty() ? title : title + " " + area;
+    }
+
+    private String description(SplittableRandom random) {
+        int length = 5 + random.nextInt(36);
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                description.append(' ');
+            }
+            description.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return description.append('.').toString();
+    }
+
+    // Zero to four labels in column form (sorted, comma-separated), or null
+    private String labels(SplittableRandom random) {
+        int count = random.nextInt(5);
+        TreeSet<String> labels = new TreeSet<>();
+        for (int i = 0; i < count; i++) {
+            labels.add(LABELS[(int) (LABELS.length * Math.pow(random.nextDouble(), 2))]);
+        }
+        return labels.isEmpty() ? null : String.join(",", labels);
+    }
+
+    private int pick(SplittableRandom random) {
+        int index = Arrays.binarySearch(ownerCumulative, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, ownerCumulative.length - 1);
+    }
+
+    private static double[] zipfCumulative(int n, double exponent) {
+        double[] cumulative = new double[n];
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            total += 1.0 / Math.pow(i + 1, exponent);
+            cumulative[i] = total;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= total;
+        }
+        return cumulative;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.taskmanagement.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.datasource.routing")
+public class DataSourceRoutingProperties {
+
+    private boolean enabled = false;
+
+    // Pool size of the primary; its url/credentials come from spring.datasource.*
+    private int primaryPoolSize = 10;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    // After a user commits a write, their reads stay on the primary for this long
+    private Duration readYourWritesWindow = Duration.ofSeconds(2);
+
+    private Duration healthCheckTimeout = Duration.ofSeconds(1);
+
+    @Data
+    public static class Replica {
+
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private int poolSize = 10;
+    }
+}
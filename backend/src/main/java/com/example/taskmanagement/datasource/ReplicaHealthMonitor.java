@@ -0,0 +1,73 @@
+package com.example.taskmanagement.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ReplicaHealthMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaHealthMonitor.class);
+
+    private final Map<String, DataSource> replicas;
+    private final int timeoutSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+
+    // Replaced wholesale on every check so readers never see a half-updated list
+    private volatile List<String> healthy;
+
+    public ReplicaHealthMonitor(Map<String, DataSource> replicas, Duration timeout) {
+        this.replicas = replicas;
+        this.timeoutSeconds = (int) Math.max(1, timeout.toSeconds());
+        this.healthy = List.copyOf(replicas.keySet());
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    // Returns null when no replica is healthy; the caller then falls back to the primary
+    public String nextHealthyReplica() {
+        List<String> current = healthy;
+        if (current.isEmpty()) {
+            return null;
+        }
+        return current.get(Math.floorMod(next.getAndIncrement(), current.size()));
+    }
+
+    public void markDown(String name) {
+        List<String> current = healthy;
+        if (current.contains(name)) {
+            logger.warn("Replica {} failed to hand out a connection, routing its reads to the primary", name);
+            healthy = current.stream().filter(replica -> !replica.equals(name)).toList();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.routing.health-check-interval:5000}")
+    public void checkReplicas() {
+        List<String> up = new ArrayList<>();
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            boolean valid;
+            try (Connection connection = replica.getValue().getConnection()) {
+                valid = connection.isValid(timeoutSeconds);
+            } catch (Exception ex) {
+                valid = false;
+            }
+
+            if (valid) {
+                up.add(replica.getKey());
+            }
+            if (valid != healthy.contains(replica.getKey())) {
+                logger.warn("Replica {} is now {}", replica.getKey(), valid ? "UP" : "DOWN, routing its reads to the primary");
+            }
+        }
+        healthy = List.copyOf(up);
+    }
+}
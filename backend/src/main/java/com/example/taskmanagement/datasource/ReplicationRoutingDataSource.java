@@ -0,0 +1,135 @@
+package com.example.taskmanagement.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+// Must sit behind a LazyConnectionDataSourceProxy: the read-only flag of the
+// transaction is only known once the first statement asks for a connection.
+// Routes by itself rather than through AbstractRoutingDataSource, because a replica
+// that fails to hand out a connection has to fall back to the primary.
+public class ReplicationRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    public static final String PRIMARY = "primary";
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicationRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas;
+    private final ReplicaHealthMonitor healthMonitor;
+    private final ReadYourWritesTracker readYourWrites;
+
+    public ReplicationRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                        ReplicaHealthMonitor healthMonitor, ReadYourWritesTracker readYourWrites) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.healthMonitor = healthMonitor;
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    // Passed on to whichever pool the connection is routed to
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(target -> target.getConnection(username, password));
+    }
+
+    private Connection connect(ConnectionSource source) throws SQLException {
+        String key = route();
+        if (logger.isDebugEnabled()) {
+            logger.debug("Routing {} connection to {}",
+                    TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? "read-only" : "read-write", key);
+        }
+        DataSource target = replicas.getOrDefault(key, primary);
+        if (target == primary) {
+            return source.connect(primary);
+        }
+
+        try {
+            return source.connect(target);
+        } catch (SQLException ex) {
+            // Don't fail the read because a replica died between two health checks
+            healthMonitor.markDown(key);
+            logger.debug("Falling back to primary after replica {} failed: {}", key, ex.getMessage());
+            return source.connect(primary);
+        }
+    }
+
+    // PRIMARY or the name of a replica
+    private String route() {
+        String principal = currentPrincipal();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            // Plain auto-commit access stays on the primary but isn't treated as a write
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                recordWrite(principal);
+            }
+            return PRIMARY;
+        }
+
+        if (readYourWrites.requiresPrimary(principal)) {
+            return PRIMARY;
+        }
+
+        String replica = healthMonitor.nextHealthyReplica();
+        return replica != null ? replica : PRIMARY;
+    }
+
+    @Override
+    public void close() {
+        closeQuietly(primary);
+        replicas.values().forEach(this::closeQuietly);
+    }
+
+    private void recordWrite(String principal) {
+        if (principal == null) {
+            return;
+        }
+        readYourWrites.recordWrite(principal);
+
+        // Restart the window at commit time so slow transactions still get the full window
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    readYourWrites.recordWrite(principal);
+                }
+            });
+        }
+    }
+
+    private String currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private void closeQuietly(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari) {
+            hikari.close();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.taskmanagement.deadline;
+
+import com.example.taskmanagement.dto.TaskResponse;
+import com.example.taskmanagement.entity.Task.TaskStatus;
+import com.example.taskmanagement.event.TaskChangedEvent;
+import com.example.taskmanagement.event.TasksImportedEvent;
+import com.example.taskmanagement.service.TaskService;
+import com.example.taskmanagement.sharding.ShardContext;
+import com.example.taskmanagement.sharding.ShardRoutingDataSource;
+import com.example.taskmanagement.util.TimingWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Sends due-date reminders and flags tasks overdue without polling the tasks
+// table. Deadlines of the next window are loaded into an in-memory timing wheel
+// (one range query on idx_tasks_due_at, repeated every load-interval), and creates
+// and updates committed here are added as they happen. A restart loses nothing:
+// the first load picks up every pending deadline, including the ones that passed
+// while the instance was down.
+//
+// Each wheel entry only says "look at task N now". TaskService.applyDeadline reads
+// the row and does whatever is due, so a stale entry costs one lookup and never a
+// wrong reminder, and several instances can run this side by side.
+@Component
+@ConditionalOnProperty(prefix = "app.due-dates", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class DueDateScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(DueDateScheduler.class);
+
+    private static final String LOAD_SQL = "SELECT id, due_at, reminder_sent FROM tasks "
+            + "WHERE due_at < ? AND overdue = FALSE AND status <> 'DONE'";
+
+    @Autowired
+    private TaskService taskService;
+
+    // With sharding enabled every shard's deadlines are loaded
+    @Autowired(required = false)
+    private ShardRoutingDataSource shards;
+
+    @Value("${app.due-dates.remind-before:PT1H}")
+    private Duration remindBefore;
+
+    // Must be longer than load-interval, so no deadline falls between two loads
+    @Value("${app.due-dates.window:PT2H}")
+    private Duration window;
+
+    @Value("${app.due-dates.fetch-size:10000}")
+    private int fetchSize;
+
+    private final long tickMillis;
+    private final JdbcTemplate jdbcTemplate;
+    private final TimingWheel<Deadline> wheel;
+    private final Map<Long, TimingWheel.Timeout<Deadline>> timeouts = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService ticker;
+    private final ExecutorService workers;
+    private final Counter checks;
+
+    public DueDateScheduler(@Value("${app.due-dates.tick:1000}") long tickMillis,
+                            @Value("${app.due-dates.worker-threads:2}") int workerThreads,
+                            DataSource dataSource, MeterRegistry meterRegistry) {
+        this.tickMillis = tickMillis;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.wheel = new TimingWheel<>(tickMillis, System.currentTimeMillis());
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "due-date-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "due-date-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.checks = Counter.builder("tasks.due.checks")
+                .description("Tasks looked at because a reminder or deadline came up")
+                .register(meterRegistry);
+        Gauge.builder("tasks.due.scheduled", wheel, TimingWheel::size)
+                .description("Deadlines and reminders waiting in the timing wheel")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+        workers.shutdown();
+    }
+
+    // First run at startup; afterwards it brings deadlines into the window as it moves
+    @Scheduled(fixedDelayString = "${app.due-dates.load-interval:600000}")
+    public void loadWindow() {
+        LocalDateTime horizon = LocalDateTime.now().plus(window).plus(remindBefore);
+        int shardCount = shards != null ? shards.getShardCount() : 1;
+        long loaded = 0;
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            loaded += ShardContext.callOn(target, () -> loadShard(target, horizon));
+        }
+        logger.debug("Loaded {} deadlines due before {}", loaded, horizon);
+    }
+
+    // Runs on the thread that committed, so the shard it wrote to is still current
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTaskChanged(TaskChangedEvent event) {
+        TaskResponse task = event.getTask();
+        if (event.getType() == TaskChangedEvent.Type.DUE_SOON) {
+            // Our own reminder; applyDeadline already said when to look next
+            return;
+        }
+        if (task == null || task.getDueAt() == null || task.getStatus() == TaskStatus.DONE
+                || Boolean.TRUE.equals(task.getOverdue())) {
+            cancel(event.getTaskId());
+            return;
+        }
+
+        // The snapshot doesn't say whether the reminder went out; if it did, looking
+        // at the reminder time only reschedules for dueAt
+        scheduleInWindow(task, ShardContext.current());
+    }
+
+    // Imported tasks are new: nothing to cancel, only deadlines to add
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTasksImported(TasksImportedEvent event) {
+        int shard = ShardContext.current();
+        for (TaskResponse task : event.getTasks()) {
+            if (task.getDueAt() != null && task.getStatus() != TaskStatus.DONE) {
+                scheduleInWindow(task, shard);
+            }
+        }
+    }
+
+    private void scheduleInWindow(TaskResponse task, int shard) {
+        LocalDateTime at = task.getDueAt().minus(remindBefore);
+        if (at.isBefore(LocalDateTime.now().plus(window))) {
+            schedule(new Deadline(task.getId(), shard), at);
+        }
+    }
+
+    private long loadShard(int shard, LocalDateTime horizon) {
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streaming.setFetchSize(fetchSize);
+        long[] count = {0};
+        streaming.query(LOAD_SQL, rs -> {
+            LocalDateTime dueAt = rs.getTimestamp("due_at").toLocalDateTime();
+            LocalDateTime at = rs.getBoolean("reminder_sent") ? dueAt : dueAt.minus(remindBefore);
+            schedule(new Deadline(rs.getLong("id"), shard), at);
+            count[0]++;
+        }, Timestamp.valueOf(horizon));
+        return count[0];
+    }
+
+    // The earlier of two entries for a task wins: looking too early only reschedules,
+    // looking too late would delay a reminder
+    private void schedule(Deadline deadline, LocalDateTime at) {
+        long millis = at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        timeouts.compute(deadline.taskId(), (taskId, existing) -> {
+            if (existing != null && wheel.isPending(existing)) {
+                if (existing.payload().millis() <= millis) {
+                    return existing;
+                }
+                wheel.cancel(existing);
+            }
+            return wheel.schedule(new Deadline(deadline.taskId(), deadline.shard(), millis), millis);
+        });
+    }
+
+    private void cancel(Long taskId) {
+        TimingWheel.Timeout<Deadline> existing = timeouts.remove(taskId);
+        if (existing != null) {
+            wheel.cancel(existing);
+        }
+    }
+
+    private void tick() {
+        try {
+            for (TimingWheel.Timeout<Deadline> timeout : wheel.advance(System.currentTimeMillis())) {
+                timeouts.remove(timeout.payload().taskId(), timeout);
+                workers.execute(() -> check(timeout.payload()));
+            }
+        } catch (RuntimeException ex) {
+            logger.error("Due-date tick failed", ex);
+        }
+    }
+
+    private void check(Deadline deadline) {
+        checks.increment();
+        try {
+            Optional<LocalDateTime> next = ShardContext.callOn(deadline.shard(),
+                    () -> taskService.applyDeadline(deadline.taskId(), remindBefore));
+            next.filter(at -> at.isBefore(LocalDateTime.now().plus(window)))
+                    .ifPresent(at -> schedule(deadline, at));
+        } catch (RuntimeException ex) {
+            // The next window load schedules it again
+            logger.warn("Could not apply the deadline of task {}: {}", deadline.taskId(), ex.getMessage());
+        }
+    }
+
+    private record Deadline(long taskId, int shard, long millis) {
+
+        Deadline(long taskId, int shard) {
+            this(taskId, shard, 0);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.taskmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BucketMoveResponse {
+
+    private Integer bucket;
+    private Integer fromShard;
+    private Integer toShard;
+    private Long tasksMoved;
+}
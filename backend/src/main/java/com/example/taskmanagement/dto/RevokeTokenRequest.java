@@ -0,0 +1,16 @@
+package com.example.taskmanagement.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokeTokenRequest {
+
+    // The full JWT (access or refresh token)
+    @NotBlank(message = "Token is required")
+    private String token;
+}
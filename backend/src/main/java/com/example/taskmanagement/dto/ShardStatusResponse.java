@@ -0,0 +1,26 @@
+package com.example.taskmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShardStatusResponse {
+
+    private Integer bucketCount;
+    private List<Shard> shards;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Shard {
+
+        private Integer shard;
+        private List<Integer> buckets;
+        private Long tasks;
+    }
+}
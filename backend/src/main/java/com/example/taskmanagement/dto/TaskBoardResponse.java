@@ -0,0 +1,35 @@
+package com.example.taskmanagement.dto;
+
+import com.example.taskmanagement.entity.Task.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Kanban board: one column per status, or only the requested column when more of
+// it is loaded with a cursor
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskBoardResponse {
+
+    private List<Column> columns;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Column {
+
+        private TaskStatus status;
+
+        // All tasks in the column the caller can see, not only the ones returned
+        private Long total;
+
+        // Highest priority first, then newest first
+        private List<TaskResponse> tasks;
+
+        // Pass as ?cursor= for the next tasks of this column; null when there are no more
+        private String nextCursor;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.taskmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Flow metrics for tasks first moved to DONE within [from, to)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskFlowMetricsResponse {
+
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private Long completedTasks;
+
+    // Created -> first DONE
+    private FlowTime leadTime;
+
+    // First IN_PROGRESS -> first DONE
+    private FlowTime cycleTime;
+
+    // Tasks without the needed transitions in their history (e.g. created before
+    // history was recorded) are left out of the statistic
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FlowTime {
+
+        private Long tasks;
+        private Double averageSeconds;
+        private Long minSeconds;
+        private Long maxSeconds;
+    }
+}
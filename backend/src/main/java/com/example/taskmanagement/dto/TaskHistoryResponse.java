@@ -0,0 +1,26 @@
+package com.example.taskmanagement.dto;
+
+import com.example.taskmanagement.entity.Task.Priority;
+import com.example.taskmanagement.entity.Task.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskHistoryResponse {
+
+    private Long id;
+    private Long taskId;
+    private String eventType;
+
+    // State of the task right after the change; null for deletions
+    private TaskStatus status;
+    private Priority priority;
+    private Long assignedToId;
+
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,43 @@
+package com.example.taskmanagement.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One line of the NDJSON response of POST /api/v1/tasks/import
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskImportEvent {
+
+    public enum Type {
+        ERROR,
+        PROGRESS,
+        SUMMARY
+    }
+
+    private Type type;
+
+    // ERROR: line of the file where the rejected row starts, and why
+    private Long line;
+    private String message;
+
+    // PROGRESS / SUMMARY: running totals
+    private Long rowsRead;
+    private Long imported;
+    private Long failed;
+
+    public static TaskImportEvent error(long line, String message) {
+        return new TaskImportEvent(Type.ERROR, line, message, null, null, null);
+    }
+
+    public static TaskImportEvent progress(long rowsRead, long imported, long failed) {
+        return new TaskImportEvent(Type.PROGRESS, null, null, rowsRead, imported, failed);
+    }
+
+    public static TaskImportEvent summary(long rowsRead, long imported, long failed, String message) {
+        return new TaskImportEvent(Type.SUMMARY, null, message, rowsRead, imported, failed);
+    }
+}
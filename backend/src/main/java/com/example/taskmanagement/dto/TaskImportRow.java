@@ -0,0 +1,23 @@
+package com.example.taskmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One row of a bulk import as it appears in the file. Values stay text until the
+// row is converted to a TaskRequest, so a bad value fails that row only.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskImportRow {
+
+    private String title;
+    private String description;
+    private String status;
+    private String priority;
+    private String assignedToId;
+    private String assignedToEmail;
+    private String dueAt;
+    // Separated by semicolons
+    private String labels;
+}
@@ -0,0 +1,19 @@
+package com.example.taskmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Rolled-up progress of a task and all its subtasks, at any depth
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskProgressResponse {
+
+    private Long taskId;
+    private Integer subtasks;
+    private Integer subtasksDone;
+
+    // Share of DONE tasks in the subtree, the task itself included (a leaf is 0 or 100)
+    private Double percentDone;
+}
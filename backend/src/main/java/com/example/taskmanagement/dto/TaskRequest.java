@@ -4,11 +4,15 @@ import com.example.taskmanagement.entity.Task.Priority;
 import com.example.taskmanagement.entity.Task.TaskStatus;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+import java.util.Set;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -28,4 +32,15 @@ public class TaskRequest {
     private Priority priority;
 
     private Long assignedToId;
+
+    // Makes this a subtask; like assignedToId, leaving it out on update makes it top-level again
+    private Long parentId;
+
+    // Optional deadline; a reminder goes out remind-before ahead of it
+    private LocalDateTime dueAt;
+
+    // Replaces the task's labels; matched case-insensitively
+    @Size(max = 20, message = "A task can have at most 20 labels")
+    private Set<@Pattern(regexp = "[A-Za-z0-9][A-Za-z0-9_:.-]{0,49}",
+            message = "Labels are 1 to 50 letters, digits or _:.- and start with a letter or digit") String> labels;
 }
@@ -7,6 +7,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.Set;
 
 @Data
 @NoArgsConstructor
@@ -18,8 +19,13 @@ public class TaskResponse {
     private String description;
     private TaskStatus status;
     private Priority priority;
+    private LocalDateTime dueAt;
+    private Boolean overdue;
+    private Set<String> labels;
+    private Long parentId;
     private UserResponse assignedTo;
     private UserResponse createdBy;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 }
@@ -0,0 +1,25 @@
+package com.example.taskmanagement.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebhookDeadLetterResponse {
+
+    private Long id;
+    private Long endpointId;
+    private Long eventId;
+
+    // The event exactly as it would have been delivered
+    @JsonRawValue
+    private String event;
+
+    private String error;
+    private LocalDateTime failedAt;
+}
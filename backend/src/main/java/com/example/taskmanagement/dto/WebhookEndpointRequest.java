@@ -0,0 +1,22 @@
+package com.example.taskmanagement.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebhookEndpointRequest {
+
+    @NotBlank(message = "URL is required")
+    @Size(max = 500, message = "URL must not exceed 500 characters")
+    @Pattern(regexp = "^https?://.+", message = "URL must start with http:// or https://")
+    private String url;
+
+    @Size(max = 100, message = "Secret must not exceed 100 characters")
+    private String secret;
+}
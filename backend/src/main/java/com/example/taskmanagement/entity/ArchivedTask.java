@@ -0,0 +1,71 @@
+package com.example.taskmanagement.entity;
+
+import com.example.taskmanagement.entity.Task.Priority;
+import com.example.taskmanagement.entity.Task.TaskStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Cold copy of a DONE task moved out of "tasks" by the archiver. Users are kept
+// as plain ids so the archive has no foreign keys into the hot schema.
+@Entity
+@Table(name = "tasks_archive", indexes = {
+        @Index(name = "idx_tasks_archive_created_by", columnList = "created_by_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedTask {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false, length = 200)
+    private String title;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TaskStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Priority priority;
+
+    private LocalDateTime dueAt;
+
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private Boolean overdue = false;
+
+    @Convert(converter = LabelSetConverter.class)
+    @Column(length = 1024)
+    private Set<String> labels = new TreeSet<>();
+
+    @Column(name = "parent_id")
+    private Long parentId;
+
+    @Column(name = "assigned_to_id")
+    private Long assignedToId;
+
+    @Column(name = "created_by_id", nullable = false)
+    private Long createdById;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
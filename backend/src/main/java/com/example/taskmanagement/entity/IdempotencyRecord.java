@@ -0,0 +1,54 @@
+package com.example.taskmanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// The response to a write sent with an Idempotency-Key, so a retry of it can be
+// answered without running it again. Written in the same transaction as the
+// write itself; rows are purged once they expire.
+@Entity
+@Table(name = "idempotency_keys", uniqueConstraints = {
+        // A duplicate arriving on another instance waits on this until the first commits
+        @UniqueConstraint(name = "uk_idempotency_keys_owner_key", columnNames = {"owner", "idempotency_key"})
+}, indexes = {
+        @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Keys are per user (email), so two clients can't collide on the same key
+    @Column(nullable = false, length = 100)
+    private String owner;
+
+    @Column(name = "idempotency_key", nullable = false)
+    private String idempotencyKey;
+
+    // SHA-256 of the method, path, If-Match and body; a key reused for another request is refused
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(name = "status_code")
+    private Integer statusCode;
+
+    @Column(length = 40)
+    private String etag;
+
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
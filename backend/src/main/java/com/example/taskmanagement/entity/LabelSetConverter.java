@@ -0,0 +1,33 @@
+package com.example.taskmanagement.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Labels are stored sorted and comma-separated in one column (labels never contain
+// commas); no labels is NULL
+@Converter
+public class LabelSetConverter implements AttributeConverter<Set<String>, String> {
+
+    @Override
+    public String convertToDatabaseColumn(Set<String> labels) {
+        return labels == null || labels.isEmpty() ? null : String.join(",", new TreeSet<>(labels));
+    }
+
+    @Override
+    public Set<String> convertToEntityAttribute(String column) {
+        return fromColumn(column);
+    }
+
+    // Also used where the column is read with plain JDBC
+    public static Set<String> fromColumn(String column) {
+        Set<String> labels = new TreeSet<>();
+        if (column != null && !column.isEmpty()) {
+            labels.addAll(Arrays.asList(column.split(",")));
+        }
+        return labels;
+    }
+}
@@ -9,9 +9,24 @@ import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.TreeSet;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+        // Archival scans DONE tasks by age
+        @Index(name = "idx_tasks_status_updated_at", columnList = "status, updated_at"),
+        // Work-queue claims walk TODO tasks of one priority, oldest first
+        @Index(name = "idx_tasks_status_priority_created_at", columnList = "status, priority, created_at"),
+        // Same walk over one owner's tasks, for their board (TaskBoardService)
+        @Index(name = "idx_tasks_owner_status_priority_created_at",
+                columnList = "created_by_id, status, priority, created_at"),
+        // Due-date scheduler loads the deadlines of the next window
+        @Index(name = "idx_tasks_due_at", columnList = "due_at"),
+        // Subtrees are prefix ranges of tree_path
+        @Index(name = "idx_tasks_tree_path", columnList = "tree_path"),
+        @Index(name = "idx_tasks_parent_id", columnList = "parent_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -36,6 +51,42 @@ public class Task {
     @Column(nullable = false, length = 20)
     private Priority priority = Priority.MEDIUM;
 
+    private LocalDateTime dueAt;
+
+    // In one column so labels move with the row (archive, shard moves); label
+    // search matches it with LIKE, or goes through TaskLabelIndex when enabled
+    @Convert(converter = LabelSetConverter.class)
+    @Column(length = 1024)
+    private Set<String> labels = new TreeSet<>();
+
+    // Set when dueAt passes before the task is DONE; cleared when dueAt changes
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private Boolean overdue = false;
+
+    // Whether the reminder for the current dueAt has gone out (not part of the API).
+    // Set and cleared by TaskRepository's conditional updates only
+    @Column(nullable = false, updatable = false, columnDefinition = "boolean default false")
+    private Boolean reminderSent = false;
+
+    // Null for a top-level task
+    @Column(name = "parent_id")
+    private Long parentId;
+
+    // Materialized path: the ancestors' ids, root first, e.g. "/" for a top-level task
+    // and "/1/5/" for a subtask of 5, itself a subtask of 1
+    @Column(name = "tree_path", nullable = false, length = 512, columnDefinition = "varchar(512) default '/'")
+    private String treePath = "/";
+
+    // Rolled up over all descendants and adjusted as they are added, completed, moved
+    // or deleted (never recounted); archived descendants keep counting as done. Only
+    // TaskRepository.adjustRollups changes them, leaving the version alone, so an entity
+    // update must not write back the values it loaded
+    @Column(nullable = false, updatable = false, columnDefinition = "integer default 0")
+    private Integer subtaskCount = 0;
+
+    @Column(nullable = false, updatable = false, columnDefinition = "integer default 0")
+    private Integer subtasksDone = 0;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "assigned_to_id")
     private User assignedTo;
@@ -52,6 +103,11 @@ public class Task {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    // Optimistic lock: every update/delete is guarded by "where version = ?"
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     public enum TaskStatus {
         TODO,
         IN_PROGRESS,
@@ -0,0 +1,44 @@
+package com.example.taskmanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "task_event_outbox", indexes = {
+        // Dispatcher reads each endpoint's next batch in commit order
+        @Index(name = "idx_outbox_commit_sequence", columnList = "commit_sequence")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+// Sequencing only sets commit_sequence; don't rewrite the payload with it
+@DynamicUpdate
+public class TaskEventOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 20)
+    private String eventType;
+
+    // Null for IMPORTED, which lists the ids of a whole import batch in its payload
+    private Long taskId;
+
+    // JSON snapshot written in the same transaction as the task change
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // Assigned by TaskEventSequencer once the row is committed, so it follows commit
+    // order where ids (taken at insert) don't; null until then
+    @Column(name = "commit_sequence")
+    private Long commitSequence;
+}
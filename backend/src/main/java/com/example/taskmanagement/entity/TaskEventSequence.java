@@ -0,0 +1,24 @@
+package com.example.taskmanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// The last commit sequence handed out to outbox events. A single row, locked while
+// a batch is sequenced so that nodes never hand out sequences concurrently.
+@Entity
+@Table(name = "task_event_sequence")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskEventSequence {
+
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private Long lastValue;
+}
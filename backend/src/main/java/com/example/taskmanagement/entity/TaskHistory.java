@@ -0,0 +1,55 @@
+package com.example.taskmanagement.entity;
+
+import com.example.taskmanagement.entity.Task.Priority;
+import com.example.taskmanagement.entity.Task.TaskStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Append-only: one row per committed task change, holding the task's state right
+// after it. Never updated or deleted with the task, so transitions stay available
+// for cycle/lead time. Users are plain ids, as in the archive.
+@Entity
+@Table(name = "task_history", indexes = {
+        @Index(name = "idx_task_history_task_occurred_at", columnList = "task_id, occurred_at"),
+        // Flow metrics start from the DONE transitions in a time window
+        @Index(name = "idx_task_history_status_occurred_at", columnList = "status, occurred_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    // Task owner: decides visibility and, with sharding, the shard the row lives on
+    @Column(name = "created_by_id", nullable = false)
+    private Long createdById;
+
+    // TaskChangedEvent.Type: CREATED, UPDATED, DELETED, DUE_SOON or OVERDUE
+    @Column(nullable = false, length = 20)
+    private String eventType;
+
+    // Null for deletions
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private TaskStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private Priority priority;
+
+    @Column(name = "assigned_to_id")
+    private Long assignedToId;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+}
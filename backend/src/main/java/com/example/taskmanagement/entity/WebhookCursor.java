@@ -0,0 +1,36 @@
+package com.example.taskmanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// How far an endpoint has got through the outbox: every event up to lastSequence
+// (in commit order) has been delivered or dead-lettered. With sharding each shard
+// keeps the cursors over its own outbox, so retries are per endpoint and shard.
+@Entity
+@Table(name = "webhook_cursors")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebhookCursor {
+
+    @Id
+    private Long endpointId;
+
+    @Column(nullable = false)
+    private Long lastSequence;
+
+    // Failed attempts at the batch after lastSequence
+    @Column(nullable = false)
+    private Integer failureCount = 0;
+
+    private LocalDateTime nextAttemptAt;
+
+    public WebhookCursor(Long endpointId, Long lastSequence) {
+        this.endpointId = endpointId;
+        this.lastSequence = lastSequence;
+    }
+}
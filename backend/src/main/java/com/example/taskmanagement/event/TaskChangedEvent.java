@@ -0,0 +1,30 @@
+package com.example.taskmanagement.event;
+
+import com.example.taskmanagement.dto.TaskResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class TaskChangedEvent {
+
+    private final Type type;
+    private final Long taskId;
+    private final Long ownerId;
+
+    // Snapshot taken inside the transaction; null for deletions
+    private final TaskResponse task;
+
+    private final LocalDateTime occurredAt;
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        // From DueDateScheduler: the reminder ahead of dueAt, and dueAt passing
+        DUE_SOON,
+        OVERDUE
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.taskmanagement.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Fans committed task changes out to SSE subscribers. Idle subscribers cost a
+// queue and an async request, not a thread: a small pool drains only the
+// subscribers that have something to send.
+@Component
+public class TaskEventBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskEventBroadcaster.class);
+
+    private static final String IMPORTED = "IMPORTED";
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ObjectMapper objectMapper;
+    private final ExecutorService senders;
+
+    @Value("${app.sse.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${app.sse.timeout:1800000}")
+    private long timeout;
+
+    public TaskEventBroadcaster(ObjectMapper objectMapper, @Value("${app.sse.sender-threads:4}") int senderThreads) {
+        this.objectMapper = objectMapper;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "sse-sender-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public SseEmitter subscribe(Long userId, boolean admin) {
+        SseEmitter emitter = new SseEmitter(timeout);
+        Subscriber subscriber = new Subscriber(emitter, userId, admin, new ArrayBlockingQueue<>(bufferSize));
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(ex -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        // Flush the headers right away so clients know the stream is open
+        subscriber.offer(new Outgoing("connected", null, "{}"));
+        schedule(subscriber);
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTaskChanged(TaskChangedEvent event) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("type", event.getType());
+        body.put("taskId", event.getTaskId());
+        body.put("task", event.getTask());
+        body.put("occurredAt", event.getOccurredAt());
+        broadcast(event.getType().name(), event.getOwnerId(), body);
+    }
+
+    // One message per import batch, with the ids only; clients reload what they show
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTasksImported(TasksImportedEvent event) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("type", IMPORTED);
+        body.put("taskIds", event.getTaskIds());
+        body.put("occurredAt", event.getOccurredAt());
+        broadcast(IMPORTED, event.getOwnerId(), body);
+    }
+
+    // Lets proxies and the server notice dead connections between events
+    @Scheduled(fixedDelayString = "${app.sse.heartbeat-interval:30000}")
+    public void heartbeat() {
+        Outgoing ping = new Outgoing(null, null, null);
+        subscribers.forEach(subscriber -> publish(subscriber, ping));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    private void broadcast(String name, Long ownerId, Map<String, Object> body) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        // Serialise once per event, not once per subscriber
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException ex) {
+            logger.error("Could not serialise {} task event", name, ex);
+            return;
+        }
+
+        Outgoing outgoing = new Outgoing(name, String.valueOf(sequence.incrementAndGet()), payload);
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.canSee(ownerId)) {
+                publish(subscriber, outgoing);
+            }
+        }
+    }
+
+    private void publish(Subscriber subscriber, Outgoing outgoing) {
+        if (!subscriber.offer(outgoing)) {
+            // Slow consumer: drop the connection instead of buffering without bound.
+            // EventSource clients reconnect and reload their view.
+            logger.debug("Dropping slow SSE subscriber for user {}", subscriber.userId);
+            subscribers.remove(subscriber);
+            subscriber.emitter.complete();
+            return;
+        }
+        schedule(subscriber);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Outgoing outgoing;
+            while ((outgoing = subscriber.queue.poll()) != null) {
+                subscriber.emitter.send(outgoing.toEvent());
+            }
+        } catch (IOException | IllegalStateException ex) {
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(ex);
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+
+        // An event may have been queued after the last poll but before the flag was cleared
+        if (!subscriber.queue.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    private record Outgoing(String name, String id, String data) {
+
+        SseEmitter.SseEventBuilder toEvent() {
+            if (data == null) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            SseEmitter.SseEventBuilder event = SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON);
+            return id != null ? event.id(id) : event;
+        }
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Long userId;
+        private final boolean admin;
+        private final Queue<Outgoing> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, Long userId, boolean admin, Queue<Outgoing> queue) {
+            this.emitter = emitter;
+            this.userId = userId;
+            this.admin = admin;
+            this.queue = queue;
+        }
+
+        // Same rule as getTaskById: admins see everything, users see the tasks they created
+        private boolean canSee(Long ownerId) {
+            return admin || userId.equals(ownerId);
+        }
+
+        private boolean offer(Outgoing outgoing) {
+            return queue.offer(outgoing);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.taskmanagement.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Tasks moved to tasks_archive by one archiver chunk. Published inside the chunk's
+// transaction; they leave "tasks" without a TaskChangedEvent each.
+@Getter
+@AllArgsConstructor
+public class TasksArchivedEvent {
+
+    private final List<Long> taskIds;
+}
@@ -0,0 +1,27 @@
+package com.example.taskmanagement.event;
+
+import com.example.taskmanagement.dto.TaskResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Tasks created by one import batch, all owned by the importing user. Published
+// once inside the batch's transaction instead of a TaskChangedEvent per row, so
+// the change stream and webhooks see one message per batch.
+@Getter
+@AllArgsConstructor
+public class TasksImportedEvent {
+
+    private final Long ownerId;
+
+    // Snapshots taken inside the transaction, in insertion order
+    private final List<TaskResponse> tasks;
+
+    private final LocalDateTime occurredAt;
+
+    public List<Long> getTaskIds() {
+        return tasks.stream().map(TaskResponse::getId).toList();
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.taskmanagement.exception;
+
+// Temporary: the client should retry (the response carries Retry-After)
+public class ServiceUnavailableException extends RuntimeException {
+    
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
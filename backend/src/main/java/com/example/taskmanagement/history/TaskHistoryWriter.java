@@ -0,0 +1,225 @@
+package com.example.taskmanagement.history;
+
+import com.example.taskmanagement.dto.TaskResponse;
+import com.example.taskmanagement.event.TaskChangedEvent;
+import com.example.taskmanagement.event.TasksImportedEvent;
+import com.example.taskmanagement.sharding.ShardContext;
+import com.example.taskmanagement.sharding.ShardWriteGuard;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Appends committed task changes to task_history off the request path. Changes
+// are queued after commit and a single background thread drains the queue into
+// batched inserts. The queue is bounded: when the writer falls behind, callers
+// wait up to enqueue-timeout for room, and the entry is dropped (and counted)
+// only if there still is none. Whatever is queued is written before shutdown.
+// With sharding, entries go to the owner's shard as of the write; while the
+// owner's bucket is moving they are held back and retried with later batches.
+@Component
+public class TaskHistoryWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskHistoryWriter.class);
+
+    private static final String INSERT_SQL = "INSERT INTO task_history (task_id, created_by_id, event_type, status, "
+            + "priority, assigned_to_id, occurred_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Value("${app.history.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.history.enqueue-timeout:1000}")
+    private long enqueueTimeoutMillis;
+
+    @Value("${app.history.shutdown-timeout:10000}")
+    private long shutdownTimeoutMillis;
+
+    @Autowired(required = false)
+    private ShardWriteGuard shardWriteGuard;
+
+    private final BlockingQueue<Entry> queue;
+    private final int queueCapacity;
+
+    // Entries of owners that were moving; only touched by the writer thread
+    private final List<Entry> deferred = new ArrayList<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter writtenRows;
+    private final Counter droppedRows;
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    public TaskHistoryWriter(@Value("${app.history.queue-capacity:10000}") int queueCapacity, DataSource dataSource,
+                             PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.queueCapacity = queueCapacity;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.writtenRows = Counter.builder("tasks.history.written")
+                .description("Task changes appended to task_history")
+                .register(meterRegistry);
+        this.droppedRows = Counter.builder("tasks.history.dropped")
+                .description("Task changes not recorded because the history queue stayed full or the insert failed")
+                .register(meterRegistry);
+        Gauge.builder("tasks.history.queued", queue, BlockingQueue::size)
+                .description("Task changes waiting to be written")
+                .register(meterRegistry);
+        this.writerThread = new Thread(this::drainLoop, "task-history-writer");
+        this.writerThread.setDaemon(true);
+    }
+
+    @PostConstruct
+    void start() {
+        writerThread.start();
+    }
+
+    // Runs on the thread that committed, so the shard it wrote to is still current
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTaskChanged(TaskChangedEvent event) {
+        enqueue(entry(ShardContext.current(), event.getTaskId(), event.getOwnerId(), event.getType().name(),
+                event.getTask(), event.getOccurredAt()));
+    }
+
+    // History stays per task: every imported task starts with a CREATED entry
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTasksImported(TasksImportedEvent event) {
+        int shard = ShardContext.current();
+        for (TaskResponse task : event.getTasks()) {
+            enqueue(entry(shard, task.getId(), event.getOwnerId(), TaskChangedEvent.Type.CREATED.name(), task,
+                    event.getOccurredAt()));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Not interrupted: an interrupt could abort the batch being inserted
+        running = false;
+        writerThread.join(shutdownTimeoutMillis);
+        if (!queue.isEmpty() || !deferred.isEmpty()) {
+            logger.warn("{} task history entries were not written before shutdown", queue.size() + deferred.size());
+        }
+    }
+
+    private static Entry entry(int shard, Long taskId, Long ownerId, String eventType, TaskResponse task,
+                               LocalDateTime occurredAt) {
+        return new Entry(
+                shard,
+                taskId,
+                ownerId,
+                eventType,
+                task != null ? task.getStatus().name() : null,
+                task != null ? task.getPriority().name() : null,
+                task != null && task.getAssignedTo() != null ? task.getAssignedTo().getId() : null,
+                Timestamp.valueOf(occurredAt)
+        );
+    }
+
+    private void enqueue(Entry entry) {
+        try {
+            if (!running || !queue.offer(entry, enqueueTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                droppedRows.increment();
+                logger.warn("History queue full, dropped {} of task {}", entry.eventType(), entry.taskId());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            droppedRows.increment();
+        }
+    }
+
+    private void drainLoop() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry first = running ? queue.poll(1, TimeUnit.SECONDS) : queue.poll();
+                if (first == null) {
+                    if (running && !deferred.isEmpty()) {
+                        write(batch);
+                    }
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            // Whatever piled up while the last batch was written goes into this one
+            queue.drainTo(batch, batchSize - 1);
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<Entry> batch) {
+        List<Entry> entries = new ArrayList<>(deferred);
+        entries.addAll(batch);
+        deferred.clear();
+
+        Map<Integer, List<Object[]>> rowsByShard = new LinkedHashMap<>();
+        for (Entry entry : entries) {
+            OptionalInt target = shardFor(entry);
+            if (target.isEmpty()) {
+                defer(entry);
+                continue;
+            }
+            rowsByShard.computeIfAbsent(target.getAsInt(), shard -> new ArrayList<>()).add(new Object[]{
+                    entry.taskId(), entry.ownerId(), entry.eventType(), entry.status(), entry.priority(),
+                    entry.assignedToId(), entry.occurredAt()
+            });
+        }
+
+        rowsByShard.forEach((shard, rows) -> {
+            try {
+                ShardContext.runOn(shard, () -> transactionTemplate.executeWithoutResult(
+                        status -> jdbcTemplate.batchUpdate(INSERT_SQL, rows)));
+                writtenRows.increment(rows.size());
+            } catch (RuntimeException ex) {
+                droppedRows.increment(rows.size());
+                logger.error("Could not write {} task history entries", rows.size(), ex);
+            }
+        });
+    }
+
+    private OptionalInt shardFor(Entry entry) {
+        if (shardWriteGuard == null || entry.ownerId() == null) {
+            return OptionalInt.of(entry.shard());
+        }
+        return shardWriteGuard.writableShard(entry.ownerId());
+    }
+
+    private void defer(Entry entry) {
+        if (deferred.size() < queueCapacity) {
+            deferred.add(entry);
+        } else {
+            droppedRows.increment();
+            logger.warn("Too many history entries held back for moving owners, dropped {} of task {}",
+                    entry.eventType(), entry.taskId());
+        }
+    }
+
+    private record Entry(int shard, Long taskId, Long ownerId, String eventType, String status, String priority,
+                         Long assignedToId, Timestamp occurredAt) {
+    }
+}
@@ -0,0 +1,258 @@
+package com.example.taskmanagement.importer;
+
+import com.example.taskmanagement.dto.TaskImportRow;
+import com.example.taskmanagement.exception.BadRequestException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Reads a bulk import file one row at a time straight from the request body.
+// Only the current row is held in memory; a row longer than maxRowLength is
+// skipped and reported as an error instead of being buffered.
+public abstract class TaskImportReader {
+
+    private static final int NONE = -2;
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    // Either values or error is set; line is where the row starts in the file
+    public record Row(long line, TaskImportRow values, String error) {
+    }
+
+    private final Reader in;
+    protected final int maxRowLength;
+    private long line = 1;
+    private int pushedBack = NONE;
+
+    protected TaskImportReader(InputStream body, int maxRowLength) throws IOException {
+        this.in = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 64 * 1024);
+        this.maxRowLength = maxRowLength;
+
+        // Spreadsheet exports often start with a byte order mark
+        int first = read();
+        if (first != '\uFEFF') {
+            unread(first);
+        }
+    }
+
+    public static TaskImportReader open(Format format, InputStream body, int maxRowLength, ObjectMapper objectMapper)
+            throws IOException {
+        return format == Format.CSV
+                ? new Csv(body, maxRowLength)
+                : new Ndjson(body, maxRowLength, objectMapper);
+    }
+
+    // Next row, or null at the end of the file
+    public abstract Row next() throws IOException;
+
+    protected long currentLine() {
+        return line;
+    }
+
+    protected int read() throws IOException {
+        if (pushedBack != NONE) {
+            int c = pushedBack;
+            pushedBack = NONE;
+            return c;
+        }
+        int c = in.read();
+        if (c == '\n') {
+            line++;
+        }
+        return c;
+    }
+
+    protected void unread(int c) {
+        pushedBack = c;
+    }
+
+    protected String tooLong() {
+        return "Row is longer than " + maxRowLength + " characters";
+    }
+
+    // RFC 4180 with a header row naming the columns; quoted fields may contain
+    // commas, doubled quotes and line breaks
+    private static final class Csv extends TaskImportReader {
+
+        private final Map<String, Integer> columns = new HashMap<>();
+        private boolean overflow;
+
+        Csv(InputStream body, int maxRowLength) throws IOException {
+            super(body, maxRowLength);
+            List<String> header = readRecord();
+            if (header == null || overflow) {
+                throw new BadRequestException("The CSV file must start with a header row");
+            }
+            for (int i = 0; i < header.size(); i++) {
+                columns.putIfAbsent(normalise(header.get(i)), i);
+            }
+            if (!columns.containsKey("title")) {
+                throw new BadRequestException(
+                        "The CSV header must name its columns: title,description,status,priority,assignedToId,assignedToEmail,dueAt,labels");
+            }
+        }
+
+        @Override
+        public Row next() throws IOException {
+            while (true) {
+                long start = currentLine();
+                List<String> fields = readRecord();
+                if (fields == null) {
+                    return null;
+                }
+                if (overflow) {
+                    return new Row(start, null, tooLong());
+                }
+                if (fields.size() == 1 && fields.get(0).isBlank()) {
+                    continue;
+                }
+                return new Row(start, new TaskImportRow(
+                        field(fields, "title"),
+                        field(fields, "description"),
+                        field(fields, "status"),
+                        field(fields, "priority"),
+                        field(fields, "assignedtoid"),
+                        field(fields, "assignedtoemail"),
+                        field(fields, "dueat"),
+                        field(fields, "labels")
+                ), null);
+            }
+        }
+
+        private List<String> readRecord() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+
+            overflow = false;
+            int length = 0;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean fieldStarted = false;
+            boolean quoted = false;
+
+            for (; ; c = read()) {
+                if (quoted) {
+                    if (c == -1) {
+                        // Unterminated quote: keep what was read
+                        quoted = false;
+                        unread(c);
+                        continue;
+                    }
+                    if (c == '"') {
+                        int next = read();
+                        if (next != '"') {
+                            quoted = false;
+                            unread(next);
+                            continue;
+                        }
+                    }
+                } else if (c == -1 || c == '\n') {
+                    fields.add(field.toString());
+                    return fields;
+                } else if (c == '\r') {
+                    continue;
+                } else if (c == ',') {
+                    if (length++ < maxRowLength) {
+                        fields.add(field.toString());
+                    } else {
+                        overflow = true;
+                    }
+                    field.setLength(0);
+                    fieldStarted = false;
+                    continue;
+                } else if (c == '"' && !fieldStarted) {
+                    quoted = true;
+                    fieldStarted = true;
+                    continue;
+                }
+
+                // Past the limit the rest of the row is still parsed (to find its end) but not kept
+                fieldStarted = true;
+                if (length++ < maxRowLength) {
+                    field.append((char) c);
+                } else {
+                    overflow = true;
+                }
+            }
+        }
+
+        private String field(List<String> fields, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= fields.size()) {
+                return null;
+            }
+            String value = fields.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        // "Assigned To Email", "assigned_to_email" and "assignedToEmail" name the same column
+        private static String normalise(String column) {
+            return column.replaceAll("[\\s_-]", "").toLowerCase(Locale.ROOT);
+        }
+    }
+
+    // One JSON object per line, e.g. {"title":"...","status":"TODO","priority":"HIGH","assignedToEmail":"..."}
+    private static final class Ndjson extends TaskImportReader {
+
+        private final ObjectMapper objectMapper;
+
+        Ndjson(InputStream body, int maxRowLength, ObjectMapper objectMapper) throws IOException {
+            super(body, maxRowLength);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public Row next() throws IOException {
+            while (true) {
+                long start = currentLine();
+                int c = read();
+                if (c == -1) {
+                    return null;
+                }
+
+                StringBuilder text = new StringBuilder();
+                boolean overflow = false;
+                for (; c != -1 && c != '\n'; c = read()) {
+                    if (text.length() < maxRowLength) {
+                        text.append((char) c);
+                    } else {
+                        overflow = true;
+                    }
+                }
+
+                if (overflow) {
+                    return new Row(start, null, tooLong());
+                }
+                if (text.toString().isBlank()) {
+                    continue;
+                }
+
+                try {
+                    TaskImportRow values = objectMapper.readValue(text.toString(), TaskImportRow.class);
+                    if (values == null) {
+                        return new Row(start, null, "Expected a JSON object");
+                    }
+                    return new Row(start, values, null);
+                } catch (JsonProcessingException ex) {
+                    return new Row(start, null, "Invalid JSON: " + ex.getOriginalMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.taskmanagement.label;
+
+import com.example.taskmanagement.exception.BadRequestException;
+import com.example.taskmanagement.util.CompressedBitmap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+
+// A boolean label expression such as "backend AND urgent AND NOT blocked" or
+// "(frontend OR mobile) AND NOT wontfix". Operators are case-insensitive; NOT binds
+// tighter than AND, AND tighter than OR. Labels are matched in lower case.
+public final class LabelQuery {
+
+    private static final int MAX_LENGTH = 1000;
+    private static final int MAX_DEPTH = 20;
+    private static final int MAX_LABELS = 50;
+
+    private final Node root;
+
+    private LabelQuery(Node root) {
+        this.root = root;
+    }
+
+    public static LabelQuery parse(String expression) {
+        if (expression == null || expression.isBlank()) {
+            throw new BadRequestException("The labels expression is empty");
+        }
+        if (expression.length() > MAX_LENGTH) {
+            throw new BadRequestException("The labels expression is longer than " + MAX_LENGTH + " characters");
+        }
+        Parser parser = new Parser(tokenize(expression));
+        Node root = parser.or(0);
+        if (parser.position < parser.tokens.size()) {
+            throw new BadRequestException("Unexpected '" + parser.tokens.get(parser.position) + "' in labels expression");
+        }
+        return new LabelQuery(root);
+    }
+
+    // The matching subset of universe. bitmapFor returns null for unknown labels;
+    // no bitmap passed in is modified.
+    public CompressedBitmap evaluate(Function<String, CompressedBitmap> bitmapFor, CompressedBitmap universe) {
+        return evaluate(root, bitmapFor, universe).and(universe);
+    }
+
+    // Whether a task with these labels matches
+    public boolean matches(Set<String> labels) {
+        return matches(root, labels != null ? labels : Set.of());
+    }
+
+    // The expression as a condition on a labels column (sorted, comma-separated): one
+    // LIKE per label, whose pattern is added to params
+    public String toSql(String column, List<Object> params) {
+        return toSql(root, column, params);
+    }
+
+    private static boolean matches(Node node, Set<String> labels) {
+        if (node instanceof Label label) {
+            return labels.contains(label.name());
+        }
+        if (node instanceof Not not) {
+            return !matches(not.operand(), labels);
+        }
+        if (node instanceof Or or) {
+            return or.operands().stream().anyMatch(operand -> matches(operand, labels));
+        }
+        return ((And) node).operands().stream().allMatch(operand -> matches(operand, labels));
+    }
+
+    private static String toSql(Node node, String column, List<Object> params) {
+        if (node instanceof Label label) {
+            // "_" is the only LIKE wildcard a label can contain. Escaped with "!", which no
+            // label contains: a backslash would have to be written '\\' for MySQL but '\' for H2
+            params.add("%," + label.name().replace("_", "!_") + ",%");
+            return "CONCAT(',', " + column + ", ',') LIKE ? ESCAPE '!'";
+        }
+        if (node instanceof Not not) {
+            return "NOT (" + toSql(not.operand(), column, params) + ")";
+        }
+        List<Node> operands = node instanceof Or or ? or.operands() : ((And) node).operands();
+        List<String> conditions = new ArrayList<>(operands.size());
+        for (Node operand : operands) {
+            conditions.add(toSql(operand, column, params));
+        }
+        return "(" + String.join(node instanceof Or ? " OR " : " AND ", conditions) + ")";
+    }
+
+    private static CompressedBitmap evaluate(Node node, Function<String, CompressedBitmap> bitmapFor,
+                                             CompressedBitmap universe) {
+        if (node instanceof Label label) {
+            CompressedBitmap bitmap = bitmapFor.apply(label.name());
+            return bitmap != null ? bitmap : new CompressedBitmap();
+        }
+        if (node instanceof Not not) {
+            return universe.andNot(evaluate(not.operand(), bitmapFor, universe));
+        }
+        if (node instanceof Or or) {
+            CompressedBitmap result = new CompressedBitmap();
+            for (Node operand : or.operands()) {
+                result = result.or(evaluate(operand, bitmapFor, universe));
+            }
+            return result;
+        }
+
+        // AND: intersect the positive operands, smallest first, then subtract the
+        // negated ones, so "a AND NOT b" never materialises the complement of b
+        List<CompressedBitmap> positive = new ArrayList<>();
+        List<Node> negated = new ArrayList<>();
+        for (Node operand : ((And) node).operands()) {
+            if (operand instanceof Not not) {
+                negated.add(not.operand());
+            } else {
+                positive.add(evaluate(operand, bitmapFor, universe));
+            }
+        }
+        positive.sort(Comparator.comparingLong(CompressedBitmap::cardinality));
+        CompressedBitmap result = positive.isEmpty() ? universe : positive.get(0);
+        for (int i = 1; i < positive.size() && !result.isEmpty(); i++) {
+            result = result.and(positive.get(i));
+        }
+        for (int i = 0; i < negated.size() && !result.isEmpty(); i++) {
+            result = result.andNot(evaluate(negated.get(i), bitmapFor, universe));
+        }
+        return result;
+    }
+
+    private static List<String> tokenize(String expression) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < expression.length()) {
+            char c = expression.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '(' || c == ')') {
+                tokens.add(String.valueOf(c));
+                i++;
+            } else if (isLabelChar(c)) {
+                int start = i;
+                while (i < expression.length() && isLabelChar(expression.charAt(i))) {
+                    i++;
+                }
+                tokens.add(expression.substring(start, i));
+            } else {
+                throw new BadRequestException("Unexpected '" + c + "' in labels expression");
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isLabelChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '_' || c == ':' || c == '.' || c == '-';
+    }
+
+    private static final class Parser {
+
+        private final List<String> tokens;
+        private int position;
+        private int labels;
+
+        Parser(List<String> tokens) {
+            this.tokens = tokens;
+        }
+
+        Node or(int depth) {
+            List<Node> operands = new ArrayList<>();
+            operands.add(and(depth));
+            while (accept("OR")) {
+                operands.add(and(depth));
+            }
+            return operands.size() == 1 ? operands.get(0) : new Or(operands);
+        }
+
+        Node and(int depth) {
+            List<Node> operands = new ArrayList<>();
+            operands.add(not(depth));
+            while (accept("AND")) {
+                operands.add(not(depth));
+            }
+            return operands.size() == 1 ? operands.get(0) : new And(operands);
+        }
+
+        // A lone NOT is an AND of one negated operand, which evaluates as universe - x
+        Node not(int depth) {
+            if (accept("NOT")) {
+                Node operand = not(depth);
+                return operand instanceof Not not ? not.operand() : new Not(operand);
+            }
+            return primary(depth);
+        }
+
+        Node primary(int depth) {
+            if (position == tokens.size()) {
+                throw new BadRequestException("The labels expression ends too early");
+            }
+            String token = tokens.get(position++);
+            if (token.equals("(")) {
+                if (depth == MAX_DEPTH) {
+                    throw new BadRequestException("The labels expression nests more than " + MAX_DEPTH + " levels");
+                }
+                Node inner = or(depth + 1);
+                if (!accept(")")) {
+                    throw new BadRequestException("Missing ')' in labels expression");
+                }
+                return inner;
+            }
+            if (token.equals(")") || isOperator(token)) {
+                throw new BadRequestException("Unexpected '" + token + "' in labels expression");
+            }
+            if (++labels > MAX_LABELS) {
+                throw new BadRequestException("The labels expression names more than " + MAX_LABELS + " labels");
+            }
+            return new Label(token.toLowerCase(Locale.ROOT));
+        }
+
+        private boolean accept(String expected) {
+            if (position < tokens.size() && tokens.get(position).equalsIgnoreCase(expected)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private static boolean isOperator(String token) {
+            return token.equalsIgnoreCase("AND") || token.equalsIgnoreCase("OR") || token.equalsIgnoreCase("NOT");
+        }
+    }
+
+    private sealed interface Node permits Label, Not, And, Or {
+    }
+
+    private record Label(String name) implements Node {
+    }
+
+    private record Not(Node operand) implements Node {
+    }
+
+    private record And(List<Node> operands) implements Node {
+    }
+
+    private record Or(List<Node> operands) implements Node {
+    }
+}
@@ -0,0 +1,281 @@
+package com.example.taskmanagement.label;
+
+import com.example.taskmanagement.dto.TaskResponse;
+import com.example.taskmanagement.entity.LabelSetConverter;
+import com.example.taskmanagement.event.TaskChangedEvent;
+import com.example.taskmanagement.event.TasksArchivedEvent;
+import com.example.taskmanagement.event.TasksImportedEvent;
+import com.example.taskmanagement.exception.ServiceUnavailableException;
+import com.example.taskmanagement.sharding.ShardContext;
+import com.example.taskmanagement.sharding.ShardRoutingDataSource;
+import com.example.taskmanagement.util.CompressedBitmap;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Task ids per label, per owner and overall as compressed bitmaps, so a label
+// expression is a handful of bitmap operations instead of joins. Built from the
+// database once the application is ready, then kept current from the after-commit
+// events of TaskService; label queries are refused (503) until it is built.
+//
+// Owner bitmaps are not cleaned up when tasks are archived (the archive event has
+// no owners); queries intersect them with the all-tasks bitmap, so the leftover
+// ids are never returned.
+//
+// Off unless app.labels.index-enabled. Like the read model, it only sees changes
+// made through this instance, so it is meant for single-instance deployments;
+// TaskService re-checks the labels of the rows it loads, so a stale entry can
+// shorten a page but never returns a task that doesn't match.
+@Component
+@ConditionalOnProperty(prefix = "app.labels", name = "index-enabled", havingValue = "true")
+public class TaskLabelIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskLabelIndex.class);
+
+    private static final String SELECT_SQL = "SELECT id, created_by_id, labels FROM tasks";
+
+    private static final int REFRESH_CHUNK = 500;
+
+    // With sharding enabled every shard is loaded
+    @Autowired(required = false)
+    private ShardRoutingDataSource shards;
+
+    @Value("${app.labels.fetch-size:10000}")
+    private int fetchSize;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, CompressedBitmap> byLabel = new HashMap<>();
+    private final Map<Long, CompressedBitmap> byOwner = new HashMap<>();
+    private final CompressedBitmap all = new CompressedBitmap();
+    private volatile boolean ready;
+
+    // Tasks changed while the initial load was running; re-read before serving
+    private final Set<Long> changedWhileLoading = new HashSet<>();
+    private boolean loading = true;
+
+    public TaskLabelIndex(DataSource dataSource, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        Gauge.builder("tasks.labels.index.bytes", this, TaskLabelIndex::sizeInBytes)
+                .description("Approximate size of the label bitmaps")
+                .register(meterRegistry);
+    }
+
+    // Runs after DataGenerator, so generated data is included
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE - 50)
+    public void load() {
+        long start = System.nanoTime();
+        int shardCount = shards != null ? shards.getShardCount() : 1;
+        long[] rows = {0};
+        for (int shard = 0; shard < shardCount; shard++) {
+            ShardContext.runOn(shard, () -> {
+                JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+                streaming.setFetchSize(fetchSize);
+                // In id order, so every bitmap insert is an append
+                streaming.query(SELECT_SQL + " ORDER BY id", rs -> {
+                    put(rs.getLong("id"), rs.getLong("created_by_id"),
+                            LabelSetConverter.fromColumn(rs.getString("labels")));
+                    rows[0]++;
+                });
+            });
+        }
+
+        int rounds = reconcile();
+        ready = true;
+        logger.info("Task label index loaded {} tasks with {} labels in {} ms ({} catch-up rounds, ~{} KB)",
+                rows[0], labelCount(), (System.nanoTime() - start) / 1_000_000, rounds, sizeInBytes() / 1024);
+    }
+
+    // Ids of the matching tasks, largest (newest) first. ownerId limits the search to
+    // one owner's tasks; null searches all of them.
+    public long[] find(LabelQuery query, Long ownerId, long offset, int limit) {
+        if (!ready) {
+            throw new ServiceUnavailableException("The label index is still loading");
+        }
+        lock.readLock().lock();
+        try {
+            CompressedBitmap universe = all;
+            if (ownerId != null) {
+                CompressedBitmap owned = byOwner.get(ownerId);
+                universe = owned != null ? owned.and(all) : new CompressedBitmap();
+            }
+            return query.evaluate(byLabel::get, universe).toArrayDescending(offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (deferWhileLoading(List.of(event.getTaskId()))) {
+            return;
+        }
+        if (event.getType() == TaskChangedEvent.Type.DELETED) {
+            remove(event.getTaskId(), event.getOwnerId());
+        } else if (event.getTask() != null) {
+            put(event.getTaskId(), event.getOwnerId(), event.getTask().getLabels());
+        }
+    }
+
+    // The whole batch under one hold of the write lock
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTasksImported(TasksImportedEvent event) {
+        if (deferWhileLoading(event.getTaskIds())) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (TaskResponse task : event.getTasks()) {
+                put(task.getId(), event.getOwnerId(), task.getLabels());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // A task reopened while its chunk was being archived stays in "tasks", so the
+    // chunk is re-read rather than dropped wholesale
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTasksArchived(TasksArchivedEvent event) {
+        if (!deferWhileLoading(event.getTaskIds())) {
+            refresh(event.getTaskIds());
+        }
+    }
+
+    private synchronized boolean deferWhileLoading(Collection<Long> taskIds) {
+        if (loading) {
+            changedWhileLoading.addAll(taskIds);
+        }
+        return loading;
+    }
+
+    // Same hand-over as TaskReadModel: re-read what changed during the load until a
+    // round finds nothing, then let the event listeners take over
+    private int reconcile() {
+        int rounds = 0;
+        while (true) {
+            List<Long> changed;
+            synchronized (this) {
+                if (changedWhileLoading.isEmpty()) {
+                    loading = false;
+                    return rounds;
+                }
+                changed = new ArrayList<>(changedWhileLoading);
+                changedWhileLoading.clear();
+            }
+            rounds++;
+            refresh(changed);
+        }
+    }
+
+    // Reloads the given tasks from the database; ids no longer in "tasks" are dropped
+    private void refresh(List<Long> taskIds) {
+        int shardCount = shards != null ? shards.getShardCount() : 1;
+        for (int from = 0; from < taskIds.size(); from += REFRESH_CHUNK) {
+            List<Long> chunk = taskIds.subList(from, Math.min(from + REFRESH_CHUNK, taskIds.size()));
+            String sql = SELECT_SQL + " WHERE id IN (" + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")";
+            Set<Long> found = new HashSet<>();
+            for (int shard = 0; shard < shardCount; shard++) {
+                ShardContext.runOn(shard, () -> jdbcTemplate.query(sql, rs -> {
+                    found.add(rs.getLong("id"));
+                    put(rs.getLong("id"), rs.getLong("created_by_id"),
+                            LabelSetConverter.fromColumn(rs.getString("labels")));
+                }, chunk.toArray()));
+            }
+            chunk.stream().filter(id -> !found.contains(id)).forEach(id -> remove(id, null));
+        }
+    }
+
+    // Tasks don't remember their old labels here, so the id is taken out of every
+    // label bitmap; that is one lookup per distinct label
+    private void put(long taskId, long ownerId, Set<String> labels) {
+        lock.writeLock().lock();
+        try {
+            removeFromLabels(taskId);
+            all.add(taskId);
+            byOwner.computeIfAbsent(ownerId, owner -> new CompressedBitmap()).add(taskId);
+            if (labels != null) {
+                for (String label : labels) {
+                    byLabel.computeIfAbsent(label, name -> new CompressedBitmap()).add(taskId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(long taskId, Long ownerId) {
+        lock.writeLock().lock();
+        try {
+            removeFromLabels(taskId);
+            all.remove(taskId);
+            CompressedBitmap owned = ownerId != null ? byOwner.get(ownerId) : null;
+            if (owned != null && owned.remove(taskId) && owned.isEmpty()) {
+                byOwner.remove(ownerId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeFromLabels(long taskId) {
+        Iterator<CompressedBitmap> bitmaps = byLabel.values().iterator();
+        while (bitmaps.hasNext()) {
+            CompressedBitmap bitmap = bitmaps.next();
+            if (bitmap.remove(taskId) && bitmap.isEmpty()) {
+                bitmaps.remove();
+            }
+        }
+    }
+
+    private int labelCount() {
+        lock.readLock().lock();
+        try {
+            return byLabel.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long sizeInBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = all.sizeInBytes();
+            for (CompressedBitmap bitmap : byLabel.values()) {
+                bytes += bitmap.sizeInBytes();
+            }
+            for (CompressedBitmap bitmap : byOwner.values()) {
+                bytes += bitmap.sizeInBytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.taskmanagement.profiling;
+
+import com.example.taskmanagement.querybudget.QueryStats;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.repository.Repository;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Emits a ServiceCall or RepositoryCall event around each intercepted method, with
+// the statements and rows it fetched (from the request's QueryStats) and the number
+// of items it returned
+class CallProfilingInterceptor implements MethodInterceptor {
+
+    enum Kind {
+        SERVICE,
+        REPOSITORY
+    }
+
+    private final Kind kind;
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    CallProfilingInterceptor(Kind kind) {
+        this.kind = kind;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        return kind == Kind.SERVICE ? profileService(invocation) : profileRepository(invocation);
+    }
+
+    private Object profileService(MethodInvocation invocation) throws Throwable {
+        ServiceCallEvent event = new ServiceCallEvent();
+        if (!event.isEnabled()) {
+            return invocation.proceed();
+        }
+        QueryStats stats = QueryStats.current();
+        int statementsBefore = stats != null ? stats.getStatements() : 0;
+        long rowsBefore = stats != null ? stats.getRows() : 0;
+        event.begin();
+        Object result = null;
+        boolean failed = true;
+        try {
+            result = invocation.proceed();
+            failed = false;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.service = targetName(invocation);
+                event.operation = invocation.getMethod().getName();
+                event.endpoint = RequestProfile.endpoint();
+                event.userId = RequestProfile.userId();
+                event.taskId = invocation.getArguments().length > 0 && invocation.getArguments()[0] instanceof Long id
+                        ? id : 0;
+                event.results = count(result, invocation.getMethod());
+                event.statements = stats != null ? stats.getStatements() - statementsBefore : 0;
+                event.rows = stats != null ? stats.getRows() - rowsBefore : 0;
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+
+    private Object profileRepository(MethodInvocation invocation) throws Throwable {
+        RepositoryCallEvent event = new RepositoryCallEvent();
+        if (!event.isEnabled()) {
+            return invocation.proceed();
+        }
+        QueryStats stats = QueryStats.current();
+        int statementsBefore = stats != null ? stats.getStatements() : 0;
+        long rowsBefore = stats != null ? stats.getRows() : 0;
+        event.begin();
+        Object result = null;
+        boolean failed = true;
+        try {
+            result = invocation.proceed();
+            failed = false;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.repository = repositoryName(invocation);
+                event.method = invocation.getMethod().getName();
+                event.endpoint = RequestProfile.endpoint();
+                event.userId = RequestProfile.userId();
+                event.results = count(result, invocation.getMethod());
+                event.statements = stats != null ? stats.getStatements() - statementsBefore : 0;
+                event.rows = stats != null ? stats.getRows() - rowsBefore : 0;
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+
+    private static String targetName(MethodInvocation invocation) {
+        Object target = invocation.getThis();
+        return target != null ? AopUtils.getTargetClass(target).getSimpleName()
+                : invocation.getMethod().getDeclaringClass().getSimpleName();
+    }
+
+    // The application's interface (TaskRepository), not the Spring Data one declaring the method
+    private String repositoryName(MethodInvocation invocation) {
+        if (!(invocation instanceof ProxyMethodInvocation proxied)) {
+            return invocation.getMethod().getDeclaringClass().getSimpleName();
+        }
+        return repositoryNames.computeIfAbsent(proxied.getProxy().getClass(), proxyClass -> {
+            for (Class<?> type : proxyClass.getInterfaces()) {
+                if (Repository.class.isAssignableFrom(type)) {
+                    return type.getSimpleName();
+                }
+            }
+            return invocation.getMethod().getDeclaringClass().getSimpleName();
+        });
+    }
+
+    // Counts and exists checks return one value, not that many items
+    private static long count(Object result, Method method) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Number number) {
+            return method.isAnnotationPresent(Modifying.class) ? number.longValue() : 1;
+        }
+        return result != null ? 1 : 0;
+    }
+}
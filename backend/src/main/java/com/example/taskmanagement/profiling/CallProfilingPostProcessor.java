@@ -0,0 +1,15 @@
+package com.example.taskmanagement.profiling;
+
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.framework.AbstractAdvisingBeanPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+
+// Adds CallProfilingInterceptor to the matching beans: to their existing proxy
+// (transactions, Spring Data) as the outermost advice, or in a new one
+class CallProfilingPostProcessor extends AbstractAdvisingBeanPostProcessor {
+
+    CallProfilingPostProcessor(Pointcut pointcut, CallProfilingInterceptor.Kind kind) {
+        this.advisor = new DefaultPointcutAdvisor(pointcut, new CallProfilingInterceptor(kind));
+        this.beforeExistingAdvisors = true;
+    }
+}
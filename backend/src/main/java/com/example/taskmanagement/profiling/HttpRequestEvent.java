@@ -0,0 +1,44 @@
+package com.example.taskmanagement.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// One per API request, spanning every other event of that request. Like the other
+// events here it is only registered with app.jfr.enabled; unregistered, it costs nothing.
+@Name("com.example.taskmanagement.HttpRequest")
+@Label("HTTP Request")
+@Category({"Task Management", "HTTP"})
+@Registered(false)
+@StackTrace(false)
+class HttpRequestEvent extends Event {
+
+    @Label("Endpoint")
+    @Description("Method and mapped path pattern, or the URI when no handler matched")
+    String endpoint;
+
+    @Label("Status")
+    int status;
+
+    @Label("User Id")
+    long userId;
+
+    @Label("SQL Statements")
+    @Description("Counted with app.query-budget.enabled; 0 otherwise")
+    int statements;
+
+    @Label("Rows Fetched")
+    long rows;
+
+    @Label("Tasks Mapped")
+    int mappedTasks;
+
+    @Label("Mapping Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long mappingTime;
+}
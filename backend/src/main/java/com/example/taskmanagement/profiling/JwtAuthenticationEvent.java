@@ -0,0 +1,28 @@
+package com.example.taskmanagement.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+import jdk.jfr.StackTrace;
+
+// Token parsing, the deny-list check and the user lookup of JwtAuthenticationFilter
+@Name("com.example.taskmanagement.JwtAuthentication")
+@Label("JWT Authentication")
+@Category({"Task Management", "Security"})
+@Registered(false)
+@StackTrace(false)
+public class JwtAuthenticationEvent extends Event {
+
+    @Label("Endpoint")
+    public String endpoint;
+
+    @Label("User Id")
+    public long userId;
+
+    @Label("Outcome")
+    @Description("AUTHENTICATED, REVOKED or INVALID")
+    public String outcome;
+}
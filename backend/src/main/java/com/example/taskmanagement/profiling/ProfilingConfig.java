@@ -0,0 +1,144 @@
+package com.example.taskmanagement.profiling;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.MethodMatcher;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.StaticMethodMatcher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.List;
+
+// JDK Flight Recorder events for the request lifecycle: the request itself, JWT
+// authentication and the user lookup, every public service method, every
+// repository call and task response mapping, each with the endpoint and user id.
+// Open the recording in JDK Mission Control and filter by endpoint or user to see
+// where a slow request spent its time.
+@Configuration
+@ConditionalOnProperty(prefix = "app.jfr", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ProfilingProperties.class)
+public class ProfilingConfig implements WebMvcConfigurer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProfilingConfig.class);
+
+    private static final List<Class<? extends Event>> EVENTS = List.of(HttpRequestEvent.class,
+            JwtAuthenticationEvent.class, UserLookupEvent.class, ServiceCallEvent.class, RepositoryCallEvent.class,
+            ResponseMappingEvent.class);
+
+    private static final String SERVICE_PACKAGE = "com.example.taskmanagement.service";
+
+    private static final MethodMatcher OWN_METHODS = new StaticMethodMatcher() {
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return method.getDeclaringClass() != Object.class;
+        }
+    };
+
+    private final ProfilingProperties properties;
+    private Recording recording;
+
+    public ProfilingConfig(ProfilingProperties properties) {
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    void registerEvents() {
+        EVENTS.forEach(FlightRecorder::register);
+        if (properties.getRecording().isEnabled()) {
+            startRecording(properties.getRecording());
+        }
+    }
+
+    // Written to the destination file when the application shuts down
+    @PreDestroy
+    void stopRecording() {
+        if (recording != null) {
+            recording.stop();
+            recording.close();
+            logger.info("JFR recording written to {}", properties.getRecording().getDestination());
+        }
+    }
+
+    // Outermost, so the ServiceCall event includes the transaction commit
+    @Bean
+    public static CallProfilingPostProcessor serviceProfilingPostProcessor() {
+        ComposablePointcut services = new ComposablePointcut(
+                type -> AnnotatedElementUtils.hasAnnotation(type, Service.class)
+                        && type.getPackageName().equals(SERVICE_PACKAGE),
+                OWN_METHODS);
+        return new CallProfilingPostProcessor(services, CallProfilingInterceptor.Kind.SERVICE);
+    }
+
+    @Bean
+    public static CallProfilingPostProcessor repositoryProfilingPostProcessor() {
+        ComposablePointcut repositories = new ComposablePointcut(Repository.class::isAssignableFrom, OWN_METHODS);
+        return new CallProfilingPostProcessor(repositories, CallProfilingInterceptor.Kind.REPOSITORY);
+    }
+
+    // Inside the query budget filter (whose counts it reports) and around everything else
+    @Bean
+    public FilterRegistrationBean<RequestProfilingFilter> requestProfilingFilter() {
+        FilterRegistrationBean<RequestProfilingFilter> registration = new FilterRegistrationBean<>(
+                new RequestProfilingFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 15);
+        return registration;
+    }
+
+    // Once the handler is known, later events carry the mapped pattern instead of the URI
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                if (pattern != null) {
+                    RequestProfile.setEndpoint(request.getMethod() + " " + pattern);
+                }
+                return true;
+            }
+        });
+    }
+
+    private void startRecording(ProfilingProperties.Recording settings) {
+        try {
+            recording = new Recording(jdk.jfr.Configuration.getConfiguration("default"));
+            recording.setName("task-management");
+            recording.setToDisk(true);
+            recording.setMaxAge(settings.getMaxAge());
+            recording.setMaxSize(settings.getMaxSize().toBytes());
+            recording.setDestination(Path.of(settings.getDestination()));
+            recording.setDumpOnExit(true);
+            EVENTS.forEach(recording::enable);
+            recording.enable(ServiceCallEvent.class).withThreshold(settings.getThreshold());
+            recording.enable(RepositoryCallEvent.class).withThreshold(settings.getThreshold());
+            recording.start();
+        } catch (IOException | ParseException ex) {
+            throw new IllegalStateException("Could not start the JFR recording", ex);
+        }
+        logger.info("JFR recording started (max age {}, max size {}), written to {}", settings.getMaxAge(),
+                settings.getMaxSize(), settings.getDestination());
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.taskmanagement.profiling;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.jfr")
+public class ProfilingProperties {
+
+    // Registers the events and the hooks that emit them; a recording still has to be
+    // running, either this one or one started with -XX:StartFlightRecording / jcmd
+    private boolean enabled = false;
+
+    private Recording recording = new Recording();
+
+    // A continuous recording started with the application: the JDK's "default"
+    // settings plus the application events, written to destination on exit (or with
+    // jcmd <pid> JFR.dump name=task-management)
+    @Data
+    public static class Recording {
+
+        private boolean enabled = false;
+
+        private Duration maxAge = Duration.ofHours(1);
+
+        private DataSize maxSize = DataSize.ofMegabytes(256);
+
+        private String destination = "task-management.jfr";
+
+        // Service and repository calls shorter than this are not recorded
+        private Duration threshold = Duration.ZERO;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.taskmanagement.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+import jdk.jfr.StackTrace;
+
+// A Spring Data repository method; a call that only touches the persistence
+// context (say, findById of a loaded entity) shows no statements
+@Name("com.example.taskmanagement.RepositoryCall")
+@Label("Repository Call")
+@Category({"Task Management", "Repository"})
+@Registered(false)
+@StackTrace(false)
+class RepositoryCallEvent extends Event {
+
+    @Label("Repository")
+    String repository;
+
+    @Label("Method")
+    String method;
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("User Id")
+    long userId;
+
+    @Label("Results")
+    @Description("Entities returned, or rows changed by a modifying query")
+    long results;
+
+    @Label("SQL Statements")
+    int statements;
+
+    @Label("Rows Fetched")
+    long rows;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,82 @@
+package com.example.taskmanagement.profiling;
+
+// What the JFR events of the current request have in common: the endpoint (the
+// mapped pattern once the handler is known, the raw URI before that), the caller's
+// user id once the JWT filter has loaded them, and the time spent mapping tasks to
+// responses. Threads without a profile (schedulers, scatter-gather workers) report
+// an empty endpoint and user 0.
+public final class RequestProfile {
+
+    private static final ThreadLocal<RequestProfile> CURRENT = new ThreadLocal<>();
+
+    private String endpoint;
+    private long userId;
+    private int mappedTasks;
+    private long mappingNanos;
+
+    private RequestProfile(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    static RequestProfile start(String endpoint) {
+        RequestProfile profile = new RequestProfile(endpoint);
+        CURRENT.set(profile);
+        return profile;
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    public static boolean active() {
+        return CURRENT.get() != null;
+    }
+
+    static void setEndpoint(String endpoint) {
+        RequestProfile profile = CURRENT.get();
+        if (profile != null) {
+            profile.endpoint = endpoint;
+        }
+    }
+
+    public static void setUserId(long userId) {
+        RequestProfile profile = CURRENT.get();
+        if (profile != null) {
+            profile.userId = userId;
+        }
+    }
+
+    public static void addMapping(long nanos) {
+        RequestProfile profile = CURRENT.get();
+        if (profile != null) {
+            profile.mappedTasks++;
+            profile.mappingNanos += nanos;
+        }
+    }
+
+    public static String endpoint() {
+        RequestProfile profile = CURRENT.get();
+        return profile != null ? profile.endpoint : "";
+    }
+
+    public static long userId() {
+        RequestProfile profile = CURRENT.get();
+        return profile != null ? profile.userId : 0;
+    }
+
+    String getEndpoint() {
+        return endpoint;
+    }
+
+    long getUserId() {
+        return userId;
+    }
+
+    int getMappedTasks() {
+        return mappedTasks;
+    }
+
+    long getMappingNanos() {
+        return mappingNanos;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.taskmanagement.profiling;
+
+import com.example.taskmanagement.querybudget.QueryStats;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Opens the RequestProfile the other events read and emits the HttpRequest event
+// around the rest of the request. Runs inside the query budget filter, so the
+// request's statement and row counts are still available at the end.
+public class RequestProfilingFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        HttpRequestEvent event = new HttpRequestEvent();
+        RequestProfile profile = RequestProfile.start(request.getMethod() + " " + request.getRequestURI());
+        event.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                QueryStats stats = QueryStats.current();
+                event.endpoint = profile.getEndpoint();
+                event.status = response.getStatus();
+                event.userId = profile.getUserId();
+                event.statements = stats != null ? stats.getStatements() : 0;
+                event.rows = stats != null ? stats.getRows() : 0;
+                event.mappedTasks = profile.getMappedTasks();
+                event.mappingTime = profile.getMappingNanos();
+                event.commit();
+            }
+            RequestProfile.clear();
+        }
+    }
+}
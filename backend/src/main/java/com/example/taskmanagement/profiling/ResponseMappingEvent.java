@@ -0,0 +1,34 @@
+package com.example.taskmanagement.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+// Mapping one task to its response. Fast unless it has to load a lazy user, so by
+// default only slow mappings are recorded; HttpRequest carries the per-request total.
+@Name("com.example.taskmanagement.ResponseMapping")
+@Label("Response Mapping")
+@Category({"Task Management", "Service"})
+@Registered(false)
+@StackTrace(false)
+@Threshold("1 ms")
+class ResponseMappingEvent extends Event {
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("User Id")
+    long userId;
+
+    @Label("Task Id")
+    long taskId;
+
+    @Label("SQL Statements")
+    @Description("Statements issued while mapping, i.e. lazy loads")
+    int statements;
+}
@@ -0,0 +1,38 @@
+package com.example.taskmanagement.profiling;
+
+import com.example.taskmanagement.querybudget.QueryStats;
+
+import java.util.function.Supplier;
+
+// Times entity-to-response mapping for the ResponseMapping event and the request's
+// mapping total. Without JFR events or a profiled request it only calls mapping.
+public final class ResponseMappingProfiler {
+
+    private ResponseMappingProfiler() {
+    }
+
+    public static <T> T map(long taskId, Supplier<T> mapping) {
+        ResponseMappingEvent event = new ResponseMappingEvent();
+        if (!event.isEnabled() && !RequestProfile.active()) {
+            return mapping.get();
+        }
+
+        QueryStats stats = QueryStats.current();
+        int statementsBefore = stats != null ? stats.getStatements() : 0;
+        long start = System.nanoTime();
+        event.begin();
+        try {
+            return mapping.get();
+        } finally {
+            event.end();
+            RequestProfile.addMapping(System.nanoTime() - start);
+            if (event.shouldCommit()) {
+                event.endpoint = RequestProfile.endpoint();
+                event.userId = RequestProfile.userId();
+                event.taskId = taskId;
+                event.statements = stats != null ? stats.getStatements() - statementsBefore : 0;
+                event.commit();
+            }
+        }
+    }
+}
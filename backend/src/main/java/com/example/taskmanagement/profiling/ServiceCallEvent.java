@@ -0,0 +1,47 @@
+package com.example.taskmanagement.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+import jdk.jfr.StackTrace;
+
+// A public method of a service bean, including its transaction commit
+@Name("com.example.taskmanagement.ServiceCall")
+@Label("Service Call")
+@Category({"Task Management", "Service"})
+@Registered(false)
+@StackTrace(false)
+class ServiceCallEvent extends Event {
+
+    @Label("Service")
+    String service;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("User Id")
+    long userId;
+
+    @Label("Task Id")
+    @Description("The task the operation is about, 0 when there is none")
+    long taskId;
+
+    @Label("Results")
+    @Description("Items returned")
+    long results;
+
+    @Label("SQL Statements")
+    int statements;
+
+    @Label("Rows Fetched")
+    long rows;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,26 @@
+package com.example.taskmanagement.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+import jdk.jfr.StackTrace;
+
+// CustomUserDetailsService loading the caller (every authenticated request and every login)
+@Name("com.example.taskmanagement.UserLookup")
+@Label("User Lookup")
+@Category({"Task Management", "Security"})
+@Registered(false)
+@StackTrace(false)
+public class UserLookupEvent extends Event {
+
+    @Label("Endpoint")
+    public String endpoint;
+
+    @Label("User Id")
+    public long userId;
+
+    @Label("Found")
+    public boolean found;
+}
@@ -0,0 +1,77 @@
+package com.example.taskmanagement.querybudget;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+// Opens QueryStats for the whole request (including the authentication lookup),
+// reports it after the handler ran and optionally exposes it as headers. In REJECT
+// mode a read over its budget gets a 500 in place of its response.
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    private final QueryBudgetProperties properties;
+    private final ObjectMapper objectMapper;
+
+    public QueryBudgetFilter(QueryBudgetProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryStats stats = QueryStats.start();
+        QueryBudgetResponseWrapper wrapper = null;
+        try {
+            if (properties.isExposeHeaders() || properties.getMode() == QueryBudgetProperties.Mode.REJECT) {
+                // Headers must be set before the body is committed
+                wrapper = new QueryBudgetResponseWrapper(response, stats, properties, objectMapper,
+                        request.getRequestURI());
+                response = wrapper;
+            }
+            filterChain.doFilter(request, response);
+            if (wrapper != null && !request.isAsyncStarted()) {
+                // Responses without a body have not been through the wrapper yet
+                wrapper.finish();
+            }
+        } finally {
+            QueryStats.clear();
+            report(request, stats, wrapper != null && wrapper.isRejected());
+        }
+    }
+
+    private void report(HttpServletRequest request, QueryStats stats, boolean rejected) {
+        String endpoint = stats.getEndpoint() != null
+                ? stats.getEndpoint()
+                : request.getMethod() + " " + request.getRequestURI();
+
+        if (!stats.isExcluded()) {
+            QueryBudgetProperties.Budget budget = stats.getBudget() != null ? stats.getBudget() : properties.getDefaults();
+            if (stats.exceeds(budget)) {
+                logger.warn("{} exceeded its query budget{}: {} statements (max {}), {} rows (max {}), {} ms (max {})",
+                        endpoint, rejected ? " and was answered with 500" : "", stats.getStatements(),
+                        budget.getMaxStatements(), stats.getRows(), budget.getMaxRows(), stats.getTimeMillis(),
+                        budget.getMaxTime() != null ? budget.getMaxTime().toMillis() : null);
+            }
+
+            Map<String, Integer> repeated = stats.repeatedShapes(properties.getRepeatedStatementThreshold());
+            repeated.forEach((shape, count) ->
+                    logger.warn("{} issued the same statement {} times (possible N+1): {}", endpoint, count, shape));
+        }
+
+        if (logger.isDebugEnabled() && stats.getStatements() > 0) {
+            logger.debug("{}: {} statements, {} rows, {} ms", endpoint, stats.getStatements(), stats.getRows(),
+                    stats.getTimeMillis());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.taskmanagement.querybudget;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+// Once the handler is known, binds the request's QueryStats to that endpoint's budget
+public class QueryBudgetInterceptor implements HandlerInterceptor {
+
+    private final QueryBudgetProperties properties;
+
+    public QueryBudgetInterceptor(QueryBudgetProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryStats stats = QueryStats.current();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (stats == null || pattern == null) {
+            return true;
+        }
+
+        String endpoint = request.getMethod() + " " + pattern;
+        if (properties.getExcluded().contains(endpoint)) {
+            stats.exclude(endpoint);
+            return true;
+        }
+        QueryBudgetProperties.Budget configured = properties.getEndpoints().get(endpoint);
+        QueryBudgetProperties.Budget budget = configured != null
+                ? configured.orElse(properties.getDefaults())
+                : properties.getDefaults();
+        stats.assignBudget(endpoint, budget,
+                properties.getMode() == QueryBudgetProperties.Mode.REJECT && isSafe(request.getMethod()));
+        return true;
+    }
+
+    // The budget is checked after the handler: a write has committed by then and can't be undone
+    private static boolean isSafe(String method) {
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+    }
+}
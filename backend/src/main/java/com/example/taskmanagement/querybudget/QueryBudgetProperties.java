@@ -0,0 +1,68 @@
+package com.example.taskmanagement.querybudget;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+@Data
+@ConfigurationProperties(prefix = "app.query-budget")
+public class QueryBudgetProperties {
+
+    private boolean enabled = true;
+
+    // LOG: warn after the request; REJECT: also answer a GET/HEAD/OPTIONS request over its
+    // budget with a 500 instead of its own response, once the handler has run. Writes are
+    // only logged: they have committed by then, and a 500 would just invite a retry.
+    private Mode mode = Mode.LOG;
+
+    // Adds X-Query-Count / X-Query-Rows / X-Query-Time-Ms / X-Query-Repeated to responses
+    private boolean exposeHeaders = false;
+
+    // A statement shape seen this many times in one request is reported as a likely N+1
+    private int repeatedStatementThreshold = 5;
+
+    private Budget defaults = new Budget(50, 5000L, Duration.ofSeconds(2));
+
+    // Keyed by "METHOD /path/pattern" as mapped in the controllers, e.g. "GET /api/v1/tasks/{id}";
+    // unset limits fall back to the defaults
+    private Map<String, Budget> endpoints = new LinkedHashMap<>();
+
+    // "METHOD /path/pattern" of endpoints held to no budget: streams and imports, whose
+    // statements grow with what they carry. They are still counted.
+    private Set<String> excluded = new LinkedHashSet<>();
+
+    public enum Mode {
+        LOG,
+        REJECT
+    }
+
+    @Data
+    public static class Budget {
+
+        private Integer maxStatements;
+        private Long maxRows;
+        private Duration maxTime;
+
+        public Budget() {
+        }
+
+        public Budget(Integer maxStatements, Long maxRows, Duration maxTime) {
+            this.maxStatements = maxStatements;
+            this.maxRows = maxRows;
+            this.maxTime = maxTime;
+        }
+
+        Budget orElse(Budget fallback) {
+            return new Budget(
+                    maxStatements != null ? maxStatements : fallback.maxStatements,
+                    maxRows != null ? maxRows : fallback.maxRows,
+                    maxTime != null ? maxTime : fallback.maxTime
+            );
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.taskmanagement.querybudget;
+
+import com.example.taskmanagement.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.time.LocalDateTime;
+
+// Acts at the last moment the response can still be changed: when the body is first
+// written, or when the response is flushed or sent as an error (QueryBudgetFilter calls
+// finish() for responses without a body). Adds the query counters as headers and, in
+// REJECT mode, replaces the response of a request over its budget with a 500.
+class QueryBudgetResponseWrapper extends HttpServletResponseWrapper {
+
+    private static final ServletOutputStream DISCARD = new ServletOutputStream() {
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+        }
+
+        @Override
+        public void write(int b) {
+        }
+    };
+
+    private final QueryStats stats;
+    private final QueryBudgetProperties properties;
+    private final ObjectMapper objectMapper;
+    private final String path;
+    private boolean started;
+    private boolean rejected;
+
+    QueryBudgetResponseWrapper(HttpServletResponse response, QueryStats stats, QueryBudgetProperties properties,
+                               ObjectMapper objectMapper, String path) {
+        super(response);
+        this.stats = stats;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.path = path;
+    }
+
+    boolean isRejected() {
+        return rejected;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        finish();
+        return rejected ? DISCARD : super.getOutputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        finish();
+        return rejected ? new PrintWriter(OutputStream.nullOutputStream()) : super.getWriter();
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        finish();
+        if (!rejected) {
+            super.flushBuffer();
+        }
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        finish();
+        if (!rejected) {
+            super.sendError(sc, msg);
+        }
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        finish();
+        if (!rejected) {
+            super.sendError(sc);
+        }
+    }
+
+    void finish() throws IOException {
+        if (started || isCommitted()) {
+            return;
+        }
+        started = true;
+        if (stats.breaksBudget()) {
+            reject();
+        } else if (properties.isExposeHeaders()) {
+            writeHeaders();
+        }
+    }
+
+    // Whatever the handler set (status, Location, ETag, ...) is dropped; the body it
+    // writes afterwards goes nowhere
+    private void reject() throws IOException {
+        rejected = true;
+        reset();
+        if (properties.isExposeHeaders()) {
+            writeHeaders();
+        }
+        QueryBudgetProperties.Budget budget = stats.getBudget();
+        ErrorResponse error = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                "Query Budget Exceeded",
+                stats.getEndpoint() + " exceeded its query budget: " + stats.getStatements() + " statements (max "
+                        + budget.getMaxStatements() + "), " + stats.getRows() + " rows (max " + budget.getMaxRows()
+                        + "), " + stats.getTimeMillis() + " ms (max "
+                        + (budget.getMaxTime() != null ? budget.getMaxTime().toMillis() : null) + ")",
+                path
+        );
+        setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+        setContentType(MediaType.APPLICATION_JSON_VALUE);
+        super.getOutputStream().write(objectMapper.writeValueAsBytes(error));
+        super.flushBuffer();
+    }
+
+    private void writeHeaders() {
+        setHeader("X-Query-Count", String.valueOf(stats.getStatements()));
+        setHeader("X-Query-Rows", String.valueOf(stats.getRows()));
+        setHeader("X-Query-Time-Ms", String.valueOf(stats.getTimeMillis()));
+        setHeader("X-Query-Repeated",
+                String.valueOf(stats.repeatedShapes(properties.getRepeatedStatementThreshold()).size()));
+    }
+}
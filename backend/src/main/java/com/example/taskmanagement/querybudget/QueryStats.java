@@ -0,0 +1,150 @@
+package com.example.taskmanagement.querybudget;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+// JDBC activity of the current request (or of a block run through record()).
+// Threads without stats (schedulers, scatter-gather workers) are not counted.
+public class QueryStats {
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private int statements;
+    private long rows;
+    private long nanos;
+    private final Map<String, Integer> shapes = new LinkedHashMap<>();
+
+    private String endpoint;
+    private QueryBudgetProperties.Budget budget;
+    private boolean rejecting;
+    private boolean excluded;
+
+    public static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    static QueryStats start() {
+        QueryStats stats = new QueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    // Test helper: counts the statements issued by action on this thread, e.g.
+    //   QueryStats stats = QueryStats.count(() -> taskService.getMyTasks(false));
+    //   assertEquals(2, stats.getStatements());
+    public static QueryStats count(Runnable action) {
+        return record(() -> {
+            action.run();
+            return null;
+        }).stats();
+    }
+
+    public static <T> Recorded<T> record(Supplier<T> action) {
+        QueryStats previous = CURRENT.get();
+        QueryStats stats = start();
+        try {
+            return new Recorded<>(action.get(), stats);
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getTimeMillis() {
+        return nanos / 1_000_000;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public QueryBudgetProperties.Budget getBudget() {
+        return budget;
+    }
+
+    // Shapes issued at least threshold times, with their counts
+    public Map<String, Integer> repeatedShapes(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        shapes.forEach((shape, count) -> {
+            if (count >= threshold) {
+                repeated.put(shape, count);
+            }
+        });
+        return repeated;
+    }
+
+    public boolean isExcluded() {
+        return excluded;
+    }
+
+    void exclude(String endpoint) {
+        this.endpoint = endpoint;
+        this.excluded = true;
+    }
+
+    void assignBudget(String endpoint, QueryBudgetProperties.Budget budget, boolean rejecting) {
+        this.endpoint = endpoint;
+        this.budget = budget;
+        this.rejecting = rejecting;
+    }
+
+    // The proxy only counts; budgets are checked once the handler has run
+    void beforeStatement(String sql) {
+        statements++;
+        if (sql != null) {
+            shapes.merge(shapeOf(sql), 1, Integer::sum);
+        }
+    }
+
+    void afterStatement(long elapsedNanos) {
+        nanos += elapsedNanos;
+    }
+
+    void rowFetched() {
+        rows++;
+    }
+
+    // In REJECT mode, whether the request is over its endpoint's budget
+    boolean breaksBudget() {
+        return rejecting && budget != null && exceeds(budget);
+    }
+
+    boolean exceeds(QueryBudgetProperties.Budget limits) {
+        return (limits.getMaxStatements() != null && statements > limits.getMaxStatements())
+                || (limits.getMaxRows() != null && rows > limits.getMaxRows())
+                || (limits.getMaxTime() != null && nanos > limits.getMaxTime().toNanos());
+    }
+
+    // Statements that differ only in literal values / IN-list length share a shape
+    static String shapeOf(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim().toLowerCase();
+    }
+
+    public record Recorded<T>(T result, QueryStats stats) {
+    }
+}
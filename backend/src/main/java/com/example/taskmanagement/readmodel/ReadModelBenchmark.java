@@ -0,0 +1,129 @@
+package com.example.taskmanagement.readmodel;
+
+import com.example.taskmanagement.sharding.ShardRoutingDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.LongSupplier;
+
+// Measures the read model against the data it was loaded from
+// (app.read-model.benchmark.enabled, usually with the datagen profile): heap used
+// after a full GC before and after the load, then page latency from the read
+// model and from the equivalent SQL, logged as percentiles.
+@Component
+@ConditionalOnProperty(prefix = "app.read-model", name = {"enabled", "benchmark.enabled"}, havingValue = "true")
+public class ReadModelBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadModelBenchmark.class);
+
+    private static final String OWNER_PAGE_SQL = "SELECT id, title, description, status, priority, due_at, overdue, "
+            + "labels, parent_id, created_by_id, assigned_to_id, created_at, updated_at, version FROM tasks "
+            + "WHERE created_by_id = ? ORDER BY created_at DESC LIMIT ? OFFSET ?";
+
+    private final TaskReadModel readModel;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean sharded;
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private long heapBeforeLoad;
+
+    @Value("${app.read-model.benchmark.iterations:100000}")
+    private int iterations;
+
+    @Value("${app.read-model.benchmark.sql-iterations:2000}")
+    private int sqlIterations;
+
+    @Value("${app.read-model.benchmark.page-size:20}")
+    private int pageSize;
+
+    @Value("${app.read-model.benchmark.max-page:10}")
+    private int maxPage;
+
+    public ReadModelBenchmark(TaskReadModel readModel, DataSource dataSource,
+                              ObjectProvider<ShardRoutingDataSource> shards) {
+        this.readModel = readModel;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.sharded = shards.getIfAvailable() != null;
+    }
+
+    // Between DataGenerator and the read model load
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE - 60)
+    public void measureHeapBeforeLoad() {
+        heapBeforeLoad = heapAfterGc();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void run() {
+        long heapDelta = heapAfterGc() - heapBeforeLoad;
+        int tasks = readModel.size();
+        logger.info("Read model footprint: {} tasks, {} MB heap ({} bytes/task), of which {} MB primitive indexes",
+                tasks, heapDelta / (1024 * 1024), tasks > 0 ? heapDelta / tasks : 0,
+                readModel.indexFootprintBytes() / (1024 * 1024));
+
+        long[] owners = readModel.ownerIds().stream().mapToLong(Long::longValue).toArray();
+        if (owners.length == 0) {
+            logger.info("Read model benchmark skipped: no tasks loaded");
+            return;
+        }
+        SplittableRandom random = new SplittableRandom(42);
+
+        report("read model, owner page", iterations, () -> {
+            long owner = owners[random.nextInt(owners.length)];
+            return readModel.findByOwner(owner, random.nextInt(maxPage), pageSize).size();
+        });
+        report("read model, all tasks page", iterations,
+                () -> readModel.findAll(random.nextInt(maxPage), pageSize).size());
+        report("read model, all of one owner", Math.max(1, iterations / 100),
+                () -> readModel.findAllByOwner(owners[random.nextInt(owners.length)]).size());
+
+        // An owner's tasks may be on any shard, so the SQL side only runs unsharded
+        if (!sharded) {
+            report("SQL, owner page", sqlIterations, () -> {
+                long owner = owners[random.nextInt(owners.length)];
+                List<TaskSummary> page = jdbcTemplate.query(OWNER_PAGE_SQL, (rs, row) -> TaskReadModel.toSummary(rs),
+                        owner, pageSize, random.nextInt(maxPage) * pageSize);
+                return page.size();
+            });
+        }
+    }
+
+    private void report(String name, int runs, LongSupplier call) {
+        // Warm-up, so the numbers are for compiled code
+        for (int i = 0; i < Math.min(runs, 1000); i++) {
+            call.getAsLong();
+        }
+
+        long[] micros = new long[runs];
+        long rows = 0;
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            rows += call.getAsLong();
+            micros[i] = (System.nanoTime() - start) / 1000;
+        }
+        Arrays.sort(micros);
+        logger.info("{}: {} calls, {} rows/call, p50 {} us, p99 {} us, p99.9 {} us, max {} us", name, runs,
+                rows / runs, micros[runs / 2], micros[(int) (runs * 0.99)], micros[(int) (runs * 0.999)],
+                micros[runs - 1]);
+    }
+
+    private long heapAfterGc() {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.taskmanagement.readmodel;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Task ids ordered by (createdAt, id) in two parallel primitive arrays: 16 bytes
+// per task, no boxing and no per-entry objects. createdAt never changes, so a
+// task keeps its position for life; new tasks land at (or near) the end, which
+// makes an insert a binary search plus a short shift. Readers hold the read lock
+// only while copying out one page of ids.
+final class TaskIdIndex {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private long[] createdAt = new long[INITIAL_CAPACITY];
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int size;
+
+    // Merges indexes nobody else is using yet (the per-shard loads) into one
+    static TaskIdIndex merge(List<TaskIdIndex> parts) {
+        int total = 0;
+        for (TaskIdIndex part : parts) {
+            total += part.size;
+        }
+
+        TaskIdIndex merged = new TaskIdIndex();
+        merged.createdAt = new long[Math.max(total, INITIAL_CAPACITY)];
+        merged.ids = new long[Math.max(total, INITIAL_CAPACITY)];
+        int[] next = new int[parts.size()];
+        for (int n = 0; n < total; n++) {
+            int pick = -1;
+            for (int p = 0; p < parts.size(); p++) {
+                if (next[p] < parts.get(p).size && (pick < 0 || parts.get(p).before(next[p], parts.get(pick), next[pick]))) {
+                    pick = p;
+                }
+            }
+            TaskIdIndex part = parts.get(pick);
+            merged.createdAt[n] = part.createdAt[next[pick]];
+            merged.ids[n] = part.ids[next[pick]];
+            next[pick]++;
+        }
+        merged.size = total;
+        return merged;
+    }
+
+    void insert(long created, long id) {
+        lock.writeLock().lock();
+        try {
+            int position = search(created, id);
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+            if (size == ids.length) {
+                int capacity = size + (size >> 1) + 1;
+                createdAt = Arrays.copyOf(createdAt, capacity);
+                ids = Arrays.copyOf(ids, capacity);
+            }
+            System.arraycopy(createdAt, position, createdAt, position + 1, size - position);
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            createdAt[position] = created;
+            ids[position] = id;
+            size++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long created, long id) {
+        lock.writeLock().lock();
+        try {
+            int position = search(created, id);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(createdAt, position + 1, createdAt, position, size - position - 1);
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Newest first, like ORDER BY created_at DESC
+    long[] newest(long offset, int limit) {
+        lock.readLock().lock();
+        try {
+            long from = size - 1 - offset;
+            int count = (int) Math.max(0, Math.min(limit, from + 1));
+            long[] page = new long[count];
+            for (int i = 0; i < count; i++) {
+                page[i] = ids[(int) from - i];
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Drops the growth headroom once the initial load is done
+    void trim() {
+        lock.writeLock().lock();
+        try {
+            createdAt = Arrays.copyOf(createdAt, Math.max(size, INITIAL_CAPACITY));
+            ids = Arrays.copyOf(ids, Math.max(size, INITIAL_CAPACITY));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    long footprintBytes() {
+        lock.readLock().lock();
+        try {
+            return 2L * Long.BYTES * ids.length;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean before(int position, TaskIdIndex other, int otherPosition) {
+        return createdAt[position] != other.createdAt[otherPosition]
+                ? createdAt[position] < other.createdAt[otherPosition]
+                : ids[position] < other.ids[otherPosition];
+    }
+
+    // Arrays.binarySearch contract: the position, or -(insertion point) - 1
+    private int search(long created, long id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = createdAt[mid] != created
+                    ? Long.compare(createdAt[mid], created)
+                    : Long.compare(ids[mid], id);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+}
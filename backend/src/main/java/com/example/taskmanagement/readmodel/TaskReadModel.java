@@ -0,0 +1,370 @@
+package com.example.taskmanagement.readmodel;
+
+import com.example.taskmanagement.dto.TaskResponse;
+import com.example.taskmanagement.dto.UserResponse;
+import com.example.taskmanagement.entity.LabelSetConverter;
+import com.example.taskmanagement.entity.Task.Priority;
+import com.example.taskmanagement.entity.Task.TaskStatus;
+import com.example.taskmanagement.event.TaskChangedEvent;
+import com.example.taskmanagement.event.TasksArchivedEvent;
+import com.example.taskmanagement.event.TasksImportedEvent;
+import com.example.taskmanagement.repository.UserRepository;
+import com.example.taskmanagement.sharding.ShardContext;
+import com.example.taskmanagement.sharding.ShardRoutingDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory copy of the tasks table for the list endpoints (app.read-model.enabled).
+// Reads outnumber writes by far, so task listings are served from sorted id
+// indexes (all tasks, and per owner) over compact summaries instead of a paged
+// query each time. Built from the database once the application is ready, then
+// kept current from the same after-commit events as the SSE stream; until it is
+// built, TaskService keeps using SQL.
+//
+// Only changes made through this instance are seen: run it on a single instance,
+// or accept that listings on one node lag writes made on another.
+@Component
+@ConditionalOnProperty(prefix = "app.read-model", name = "enabled", havingValue = "true")
+public class TaskReadModel {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskReadModel.class);
+
+    private static final String SELECT_SQL = "SELECT id, title, description, status, priority, due_at, overdue, "
+            + "labels, parent_id, created_by_id, assigned_to_id, created_at, updated_at, version FROM tasks";
+
+    private static final String USERS_SQL = "SELECT id, username, email, role FROM users";
+
+    private static final int RECONCILE_CHUNK = 500;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // With sharding enabled every shard is loaded; users are copied to all of them
+    @Autowired(required = false)
+    private ShardRoutingDataSource shards;
+
+    @Value("${app.read-model.fetch-size:10000}")
+    private int fetchSize;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Long, TaskSummary> tasks = new ConcurrentHashMap<>();
+    private final Map<Long, TaskIdIndex> byOwner = new ConcurrentHashMap<>();
+    private final Map<Long, UserResponse> users = new ConcurrentHashMap<>();
+    private volatile TaskIdIndex all = new TaskIdIndex();
+    private volatile boolean ready;
+
+    // Tasks changed while the initial load was running; re-read before serving
+    private final Set<Long> changedWhileLoading = new HashSet<>();
+    private boolean loading = true;
+
+    public TaskReadModel(DataSource dataSource, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        Gauge.builder("tasks.read-model.size", tasks, Map::size)
+                .description("Tasks held by the in-memory read model")
+                .register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Runs after DataGenerator, so generated data is included
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE - 50)
+    public void load() {
+        long start = System.nanoTime();
+        loadUsers();
+
+        int shardCount = shards != null ? shards.getShardCount() : 1;
+        List<TaskIdIndex> shardIndexes = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            shardIndexes.add(ShardContext.callOn(shard, this::loadShard));
+        }
+        all = shardIndexes.size() == 1 ? shardIndexes.get(0) : TaskIdIndex.merge(shardIndexes);
+        all.trim();
+        byOwner.values().forEach(TaskIdIndex::trim);
+
+        int rounds = reconcile();
+        ready = true;
+        logger.info("Task read model loaded {} tasks of {} owners in {} ms ({} catch-up rounds, ~{} MB of indexes)",
+                tasks.size(), byOwner.size(), (System.nanoTime() - start) / 1_000_000, rounds,
+                indexFootprintBytes() / (1024 * 1024));
+    }
+
+    // Newest first, like getAllTasks sorted by createdAt
+    public List<TaskResponse> findAll(int page, int size) {
+        return toResponses(all.newest((long) page * size, size));
+    }
+
+    public List<TaskResponse> findByOwner(long ownerId, int page, int size) {
+        TaskIdIndex index = byOwner.get(ownerId);
+        return index != null ? toResponses(index.newest((long) page * size, size)) : new ArrayList<>();
+    }
+
+    public List<TaskResponse> findAllByOwner(long ownerId) {
+        TaskIdIndex index = byOwner.get(ownerId);
+        return index != null ? toResponses(index.newest(0, Integer.MAX_VALUE)) : new ArrayList<>();
+    }
+
+    // Primitive index arrays only; summaries and map entries come on top (see README)
+    public long indexFootprintBytes() {
+        long bytes = all.footprintBytes();
+        for (TaskIdIndex index : byOwner.values()) {
+            bytes += index.footprintBytes();
+        }
+        return bytes;
+    }
+
+    public int size() {
+        return tasks.size();
+    }
+
+    // For ReadModelBenchmark
+    Set<Long> ownerIds() {
+        return byOwner.keySet();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (deferWhileLoading(List.of(event.getTaskId()))) {
+            return;
+        }
+        switch (event.getType()) {
+            case CREATED -> add(TaskSummary.of(event.getTask()));
+            // Never overwrites a newer version, and never brings back a task deleted meanwhile
+            case UPDATED, OVERDUE -> {
+                TaskSummary updated = TaskSummary.of(event.getTask());
+                tasks.computeIfPresent(updated.id(),
+                        (id, current) -> current.version() <= updated.version() ? updated : current);
+            }
+            case DELETED -> remove(event.getTaskId());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTasksImported(TasksImportedEvent event) {
+        if (!deferWhileLoading(event.getTaskIds())) {
+            event.getTasks().forEach(task -> add(TaskSummary.of(task)));
+        }
+    }
+
+    // A task reopened while its chunk was being archived stays in "tasks", so the
+    // chunk is re-read rather than dropped wholesale
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTasksArchived(TasksArchivedEvent event) {
+        if (!deferWhileLoading(event.getTaskIds())) {
+            refresh(event.getTaskIds());
+        }
+    }
+
+    private synchronized boolean deferWhileLoading(Collection<Long> taskIds) {
+        if (loading) {
+            changedWhileLoading.addAll(taskIds);
+        }
+        return loading;
+    }
+
+    // Re-reads the tasks changed during the load until a round finds none, then hands
+    // over to the event listeners. Reading the database rather than replaying the
+    // events means their order doesn't matter.
+    private int reconcile() {
+        int rounds = 0;
+        while (true) {
+            List<Long> changed;
+            synchronized (this) {
+                if (changedWhileLoading.isEmpty()) {
+                    loading = false;
+                    return rounds;
+                }
+                changed = new ArrayList<>(changedWhileLoading);
+                changedWhileLoading.clear();
+            }
+            rounds++;
+            refresh(changed);
+        }
+    }
+
+    // Reloads the given tasks from the database: rows found replace older copies,
+    // ids no longer in "tasks" are dropped
+    private void refresh(List<Long> taskIds) {
+        int shardCount = shards != null ? shards.getShardCount() : 1;
+        for (int from = 0; from < taskIds.size(); from += RECONCILE_CHUNK) {
+            List<Long> chunk = taskIds.subList(from, Math.min(from + RECONCILE_CHUNK, taskIds.size()));
+            String sql = SELECT_SQL + " WHERE id IN (" + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")";
+            Set<Long> found = new HashSet<>();
+            for (int shard = 0; shard < shardCount; shard++) {
+                ShardContext.runOn(shard, () -> jdbcTemplate.query(sql, rs -> {
+                    TaskSummary summary = toSummary(rs);
+                    found.add(summary.id());
+                    addOrReplace(summary);
+                }, chunk.toArray()));
+            }
+            chunk.stream().filter(id -> !found.contains(id)).forEach(this::remove);
+        }
+    }
+
+    private TaskIdIndex loadShard() {
+        TaskIdIndex index = new TaskIdIndex();
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streaming.setFetchSize(fetchSize);
+        // Rows arrive in index order, so every insert is an append
+        streaming.query(SELECT_SQL + " ORDER BY created_at, id", rs -> {
+            TaskSummary summary = toSummary(rs);
+            tasks.put(summary.id(), summary);
+            index.insert(summary.createdAt(), summary.id());
+            byOwner.computeIfAbsent(summary.createdById(), owner -> new TaskIdIndex())
+                    .insert(summary.createdAt(), summary.id());
+        });
+        return index;
+    }
+
+    private void loadUsers() {
+        ShardContext.runOn(ShardContext.DEFAULT_SHARD, () -> jdbcTemplate.query(USERS_SQL, rs -> {
+            UserResponse user = new UserResponse(rs.getLong("id"), rs.getString("username"),
+                    rs.getString("email"), rs.getString("role"));
+            users.put(user.getId(), user);
+        }));
+    }
+
+    private void add(TaskSummary summary) {
+        if (tasks.putIfAbsent(summary.id(), summary) == null) {
+            all.insert(summary.createdAt(), summary.id());
+            byOwner.computeIfAbsent(summary.createdById(), owner -> new TaskIdIndex())
+                    .insert(summary.createdAt(), summary.id());
+        }
+    }
+
+    // Swaps a newer copy in with a single map operation, so a concurrent update event
+    // never finds the task missing. Index entries depend only on the id, owner and
+    // creation time, which don't change, so only a task not held yet is indexed.
+    private void addOrReplace(TaskSummary summary) {
+        boolean[] added = new boolean[1];
+        tasks.compute(summary.id(), (id, current) -> {
+            if (current == null) {
+                added[0] = true;
+                return summary;
+            }
+            return current.version() < summary.version() ? summary : current;
+        });
+        if (added[0]) {
+            all.insert(summary.createdAt(), summary.id());
+            byOwner.computeIfAbsent(summary.createdById(), owner -> new TaskIdIndex())
+                    .insert(summary.createdAt(), summary.id());
+        }
+    }
+
+    private void remove(long taskId) {
+        TaskSummary removed = tasks.remove(taskId);
+        if (removed != null) {
+            all.remove(removed.createdAt(), removed.id());
+            TaskIdIndex owned = byOwner.get(removed.createdById());
+            if (owned != null) {
+                owned.remove(removed.createdAt(), removed.id());
+            }
+        }
+    }
+
+    // A task removed between reading the index and the summary is left out
+    private List<TaskResponse> toResponses(long[] ids) {
+        List<TaskSummary> page = new ArrayList<>(ids.length);
+        Set<Long> missingUsers = new HashSet<>();
+        for (long id : ids) {
+            TaskSummary summary = tasks.get(id);
+            if (summary != null) {
+                page.add(summary);
+                if (!users.containsKey(summary.createdById())) {
+                    missingUsers.add(summary.createdById());
+                }
+                if (summary.assignedToId() != TaskSummary.UNASSIGNED && !users.containsKey(summary.assignedToId())) {
+                    missingUsers.add(summary.assignedToId());
+                }
+            }
+        }
+        // Users registered since the load
+        if (!missingUsers.isEmpty()) {
+            userRepository.findAllById(missingUsers).forEach(user -> users.put(user.getId(),
+                    new UserResponse(user.getId(), user.getUsername(), user.getEmail(), user.getRole().name())));
+        }
+
+        List<TaskResponse> responses = new ArrayList<>(page.size());
+        for (TaskSummary summary : page) {
+            TaskResponse response = new TaskResponse();
+            response.setId(summary.id());
+            response.setTitle(summary.title());
+            response.setDescription(summary.description());
+            response.setStatus(summary.status());
+            response.setPriority(summary.priority());
+            if (summary.dueAt() != TaskSummary.NO_DUE_DATE) {
+                response.setDueAt(TaskSummary.fromNanos(summary.dueAt()));
+            }
+            response.setOverdue(summary.overdue());
+            response.setLabels(LabelSetConverter.fromColumn(summary.labels()));
+            if (summary.parentId() != TaskSummary.NO_PARENT) {
+                response.setParentId(summary.parentId());
+            }
+            response.setCreatedBy(users.get(summary.createdById()));
+            if (summary.assignedToId() != TaskSummary.UNASSIGNED) {
+                response.setAssignedTo(users.get(summary.assignedToId()));
+            }
+            response.setCreatedAt(TaskSummary.fromNanos(summary.createdAt()));
+            response.setUpdatedAt(TaskSummary.fromNanos(summary.updatedAt()));
+            response.setVersion(summary.version());
+            responses.add(response);
+        }
+        return responses;
+    }
+
+    static TaskSummary toSummary(ResultSet rs) throws SQLException {
+        long assignedToId = rs.getLong("assigned_to_id");
+        if (rs.wasNull()) {
+            assignedToId = TaskSummary.UNASSIGNED;
+        }
+        long parentId = rs.getLong("parent_id");
+        if (rs.wasNull()) {
+            parentId = TaskSummary.NO_PARENT;
+        }
+        Timestamp dueAt = rs.getTimestamp("due_at");
+        return new TaskSummary(
+                rs.getLong("id"),
+                rs.getString("title"),
+                rs.getString("description"),
+                TaskStatus.valueOf(rs.getString("status")),
+                Priority.valueOf(rs.getString("priority")),
+                dueAt != null ? TaskSummary.toNanos(dueAt.toLocalDateTime()) : TaskSummary.NO_DUE_DATE,
+                rs.getBoolean("overdue"),
+                TaskSummary.internLabels(rs.getString("labels")),
+                parentId,
+                rs.getLong("created_by_id"),
+                assignedToId,
+                TaskSummary.toNanos(rs.getTimestamp("created_at").toLocalDateTime()),
+                TaskSummary.toNanos(rs.getTimestamp("updated_at").toLocalDateTime()),
+                rs.getLong("version")
+        );
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.taskmanagement.readmodel;
+
+import com.example.taskmanagement.dto.TaskResponse;
+import com.example.taskmanagement.entity.LabelSetConverter;
+import com.example.taskmanagement.entity.Task.Priority;
+import com.example.taskmanagement.entity.Task.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// A task as the read model keeps it: users as ids, timestamps as nanoseconds
+// since the epoch (of the LocalDateTime wall clock, so nothing is lost), the
+// enums as their shared constants and labels in their (interned) column form.
+// No LocalDateTime or UserResponse objects per task; those are created only for
+// the page being returned.
+record TaskSummary(long id, String title, String description, TaskStatus status, Priority priority,
+                   long dueAt, boolean overdue, String labels, long parentId, long createdById,
+                   long assignedToId, long createdAt, long updatedAt, long version) {
+
+    // assignedToId of an unassigned task and parentId of a top-level one (ids start at 1)
+    static final long UNASSIGNED = 0;
+    static final long NO_PARENT = 0;
+
+    // dueAt of a task without a deadline
+    static final long NO_DUE_DATE = Long.MIN_VALUE;
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    static TaskSummary of(TaskResponse task) {
+        return new TaskSummary(
+                task.getId(),
+                task.getTitle(),
+                task.getDescription(),
+                task.getStatus(),
+                task.getPriority(),
+                task.getDueAt() != null ? toNanos(task.getDueAt()) : NO_DUE_DATE,
+                Boolean.TRUE.equals(task.getOverdue()),
+                internLabels(new LabelSetConverter().convertToDatabaseColumn(task.getLabels())),
+                task.getParentId() != null ? task.getParentId() : NO_PARENT,
+                task.getCreatedBy().getId(),
+                task.getAssignedTo() != null ? task.getAssignedTo().getId() : UNASSIGNED,
+                toNanos(task.getCreatedAt()),
+                toNanos(task.getUpdatedAt()),
+                task.getVersion() != null ? task.getVersion() : 0
+        );
+    }
+
+    // Most tasks share a few label combinations
+    static String internLabels(String labels) {
+        return labels != null ? labels.intern() : null;
+    }
+
+    static long toNanos(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * NANOS_PER_SECOND + time.getNano();
+    }
+
+    static LocalDateTime fromNanos(long nanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, NANOS_PER_SECOND),
+                (int) Math.floorMod(nanos, NANOS_PER_SECOND), ZoneOffset.UTC);
+    }
+}
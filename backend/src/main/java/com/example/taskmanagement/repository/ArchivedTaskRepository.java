@@ -0,0 +1,36 @@
+package com.example.taskmanagement.repository;
+
+import com.example.taskmanagement.entity.ArchivedTask;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedTaskRepository extends JpaRepository<ArchivedTask, Long> {
+    
+    Optional<ArchivedTask> findByIdAndCreatedById(Long id, Long createdById);
+    
+    List<ArchivedTask> findByCreatedByIdOrderByCreatedAtDesc(Long createdById);
+    
+    Page<ArchivedTask> findByCreatedById(Long createdById, Pageable pageable);
+    
+    List<ArchivedTask> findAllBy(Pageable pageable);
+    
+    // Copies rows in one statement; the status guard skips tasks reopened since they were selected
+    @Modifying
+    @Query(value = "insert into tasks_archive (id, title, description, status, priority, due_at, overdue, labels, "
+            + "parent_id, assigned_to_id, created_by_id, created_at, updated_at, version, archived_at) "
+            + "select id, title, description, status, priority, due_at, overdue, labels, parent_id, "
+            + "assigned_to_id, created_by_id, created_at, updated_at, version, :archivedAt from tasks where id in (:ids) "
+            + "and status = 'DONE'",
+            nativeQuery = true)
+    int copyFromTasks(@Param("ids") List<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+}
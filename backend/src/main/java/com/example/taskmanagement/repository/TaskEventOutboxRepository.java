@@ -0,0 +1,32 @@
+package com.example.taskmanagement.repository;
+
+import com.example.taskmanagement.entity.TaskEventOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TaskEventOutboxRepository extends JpaRepository<TaskEventOutbox, Long> {
+    
+    // Committed events still waiting for a commit sequence, in insertion order
+    List<TaskEventOutbox> findByCommitSequenceIsNullOrderByIdAsc(Pageable pageable);
+    
+    List<TaskEventOutbox> findByCommitSequenceGreaterThanOrderByCommitSequenceAsc(Long commitSequence, Pageable pageable);
+    
+    @Query("select coalesce(max(e.commitSequence), 0) from TaskEventOutbox e")
+    Long findMaxCommitSequence();
+    
+    // Where a new endpoint's cursor starts: just before the first event recorded after it was registered
+    @Query("select min(e.commitSequence) from TaskEventOutbox e where e.createdAt >= :since")
+    Long findMinCommitSequenceSince(@Param("since") LocalDateTime since);
+    
+    @Modifying
+    @Query("delete from TaskEventOutbox e where e.commitSequence <= :maxSequence and e.createdAt < :before")
+    int deleteDelivered(@Param("maxSequence") Long maxSequence, @Param("before") LocalDateTime before);
+}
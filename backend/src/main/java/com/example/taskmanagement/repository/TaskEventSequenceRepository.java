@@ -0,0 +1,20 @@
+package com.example.taskmanagement.repository;
+
+import com.example.taskmanagement.entity.TaskEventSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface TaskEventSequenceRepository extends JpaRepository<TaskEventSequence, Integer> {
+    
+    // Held until the sequencing transaction commits
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from TaskEventSequence s where s.id = :id")
+    Optional<TaskEventSequence> findByIdForUpdate(@Param("id") Integer id);
+}
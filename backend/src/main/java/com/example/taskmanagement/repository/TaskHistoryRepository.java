@@ -0,0 +1,15 @@
+package com.example.taskmanagement.repository;
+
+import com.example.taskmanagement.entity.TaskHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TaskHistoryRepository extends JpaRepository<TaskHistory, Long> {
+    
+    List<TaskHistory> findByTaskIdOrderByOccurredAtAscIdAsc(Long taskId);
+    
+    List<TaskHistory> findByTaskIdAndCreatedByIdOrderByOccurredAtAscIdAsc(Long taskId, Long createdById);
+}
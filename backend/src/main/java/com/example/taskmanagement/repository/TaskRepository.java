@@ -4,26 +4,68 @@ import com.example.taskmanagement.entity.Task;
 import com.example.taskmanagement.entity.Task.Priority;
 import com.example.taskmanagement.entity.Task.TaskStatus;
 import com.example.taskmanagement.entity.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
     
+    // createdBy/assignedTo are always mapped into the response, so fetch them with the task
+    @EntityGraph(attributePaths = {"createdBy", "assignedTo"})
+    Optional<Task> findById(Long id);
+    
+    // Owner-scoped variants for non-admins: ownership is part of the WHERE clause, so a
+    // task the caller may not see costs the same primary-key lookup as a missing one
+    @EntityGraph(attributePaths = {"createdBy", "assignedTo"})
+    Optional<Task> findByIdAndCreatedById(Long id, Long createdById);
+    
+    @Query("select t.createdBy.id from Task t where t.id = :id")
+    Optional<Long> findOwnerIdById(@Param("id") Long id);
+    
+    // Row lock until commit, taken on a task before subtasks are added under it or
+    // before it is checked for subtasks and removed, so the two can't interleave
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t.id from Task t where t.id = :id")
+    Optional<Long> lockById(@Param("id") Long id);
+    
+    @EntityGraph(attributePaths = {"createdBy", "assignedTo"})
     Page<Task> findAll(Pageable pageable);
     
+    // One page without the count query (per-shard leg of a scatter-gather listing)
+    @EntityGraph(attributePaths = {"createdBy", "assignedTo"})
+    List<Task> findAllBy(Pageable pageable);
+    
+    @EntityGraph(attributePaths = {"createdBy", "assignedTo"})
     List<Task> findByCreatedBy(User user);
     
+    @EntityGraph(attributePaths = {"createdBy", "assignedTo"})
+    List<Task> findByIdIn(Collection<Long> ids);
+    
+    @EntityGraph(attributePaths = {"createdBy", "assignedTo"})
+    List<Task> findByIdInAndCreatedById(Collection<Long> ids, Long createdById);
+    
     List<Task> findByAssignedTo(User user);
     
     List<Task> findByStatus(TaskStatus status);
     
     List<Task> findByPriority(Priority priority);
     
+    @EntityGraph(attributePaths = {"createdBy", "assignedTo"})
     Page<Task> findByCreatedBy(User user, Pageable pageable);
     
     Page<Task> findByAssignedTo(User user, Pageable pageable);
@@ -31,4 +73,83 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     Page<Task> findByStatus(TaskStatus status, Pageable pageable);
     
     Page<Task> findByPriority(Priority priority, Pageable pageable);
+    
+    // Locks the chunk so it can't be edited between the archive copy and the delete.
+    // A task with subtasks waits until they have been archived, so none is left
+    // pointing at a parent that is gone.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t.id from Task t where t.status = :status and t.updatedAt < :before "
+            + "and not exists (select 1 from Task c where c.parentId = t.id) order by t.id")
+    List<Long> findIdsForArchival(@Param("status") TaskStatus status, @Param("before") LocalDateTime before, Pageable pageable);
+    
+    // Work-queue candidates of one priority, oldest first. Lock timeout -2 is SKIP LOCKED:
+    // rows another worker is claiming are passed over instead of waited for (dialects
+    // without it fall back to a plain FOR UPDATE). No fetch joins, so only task rows are locked.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select t from Task t where t.status = :status and t.priority = :priority and t.assignedTo is null "
+            + "order by t.createdAt, t.id")
+    List<Task> findClaimable(@Param("status") TaskStatus status, @Param("priority") Priority priority, Pageable pageable);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select t from Task t where t.status = :status and t.priority = :priority and t.assignedTo is null "
+            + "and t.createdBy = :owner order by t.createdAt, t.id")
+    List<Task> findClaimableByCreatedBy(@Param("status") TaskStatus status, @Param("priority") Priority priority,
+                                        @Param("owner") User owner, Pageable pageable);
+    
+    // Never deletes a task that has subtasks, whatever the caller checked before
+    @Modifying
+    @Query("delete from Task t where t.id in :ids and t.status = :status "
+            + "and not exists (select 1 from Task c where c.parentId = t.id)")
+    int deleteByIdInAndStatus(@Param("ids") List<Long> ids, @Param("status") TaskStatus status);
+
+    // Subtree by materialized path: one range scan on idx_tasks_tree_path, whatever the depth
+    @EntityGraph(attributePaths = {"createdBy", "assignedTo"})
+    @Query("select t from Task t where t.treePath like :prefix order by t.id")
+    List<Task> findSubtree(@Param("prefix") String prefix, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"createdBy", "assignedTo"})
+    @Query("select t from Task t where t.treePath like :prefix and t.createdBy.id = :ownerId order by t.id")
+    List<Task> findSubtreeByCreatedById(@Param("prefix") String prefix, @Param("ownerId") Long ownerId,
+                                        Pageable pageable);
+
+    @Query("select max(length(t.treePath)) from Task t where t.treePath like :prefix")
+    Integer findMaxTreePathLength(@Param("prefix") String prefix);
+
+    boolean existsByParentId(Long parentId);
+
+    // Relative, so concurrent changes under the same ancestors add up instead of
+    // overwriting each other. Leaves version alone: a rollup is not an edit of the task.
+    @Modifying(flushAutomatically = true)
+    @Query("update Task t set t.subtaskCount = t.subtaskCount + :count, t.subtasksDone = t.subtasksDone + :done "
+            + "where t.id in :ids")
+    int adjustRollups(@Param("ids") Collection<Long> ids, @Param("count") int count, @Param("done") int done);
+
+    // Re-roots the descendants of a moved task: the old path prefix is replaced by the new one
+    @Modifying(flushAutomatically = true)
+    @Query("update Task t set t.treePath = concat(:newPrefix, substring(t.treePath, :keepFrom)) "
+            + "where t.treePath like :oldPrefix")
+    int moveSubtree(@Param("oldPrefix") String oldPrefix, @Param("newPrefix") String newPrefix,
+                    @Param("keepFrom") int keepFrom);
+
+    // Due-date transitions are conditional updates, so only one instance wins each one.
+    // Overdue changes the representation and bumps the version; the reminder flag doesn't.
+    @Modifying(clearAutomatically = true)
+    @Query("update Task t set t.overdue = true, t.version = t.version + 1, t.updatedAt = :now "
+            + "where t.id = :id and t.overdue = false and t.status <> :done and t.dueAt <= :now")
+    int markOverdue(@Param("id") Long id, @Param("done") TaskStatus done, @Param("now") LocalDateTime now);
+
+    // The reminder flag is only written by these two: it isn't updatable through the
+    // entity, so a task loaded before a reminder went out can't write back a stale false
+    @Modifying(clearAutomatically = true)
+    @Query("update Task t set t.reminderSent = true where t.id = :id and t.reminderSent = false "
+            + "and t.overdue = false and t.status <> :done and t.dueAt <= :remindFrom")
+    int markReminderSent(@Param("id") Long id, @Param("done") TaskStatus done,
+                         @Param("remindFrom") LocalDateTime remindFrom);
+
+    // A new dueAt needs its own reminder
+    @Modifying(flushAutomatically = true)
+    @Query("update Task t set t.reminderSent = false where t.id = :id")
+    int clearReminderSent(@Param("id") Long id);
 }
@@ -0,0 +1,37 @@
+package com.example.taskmanagement.repository;
+
+import com.example.taskmanagement.entity.WebhookCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface WebhookCursorRepository extends JpaRepository<WebhookCursor, Long> {
+    
+    @Query("select min(c.lastSequence) from WebhookCursor c where c.endpointId in :endpointIds")
+    Long findMinLastSequence(@Param("endpointIds") Collection<Long> endpointIds);
+    
+    // Never moves a cursor backwards, should two deliveries of one endpoint ever overlap
+    @Modifying
+    @Transactional
+    @Query("update WebhookCursor c set c.lastSequence = :lastSequence, c.failureCount = 0, c.nextAttemptAt = null "
+            + "where c.endpointId = :endpointId and c.lastSequence < :lastSequence")
+    void advance(@Param("endpointId") Long endpointId, @Param("lastSequence") Long lastSequence);
+    
+    @Modifying
+    @Transactional
+    @Query("update WebhookCursor c set c.failureCount = :failureCount, c.nextAttemptAt = :nextAttemptAt "
+            + "where c.endpointId = :endpointId")
+    void markFailed(@Param("endpointId") Long endpointId, @Param("failureCount") Integer failureCount,
+                    @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+    
+    @Modifying
+    @Query("delete from WebhookCursor c where c.endpointId not in :endpointIds")
+    int deleteByEndpointIdNotIn(@Param("endpointIds") Collection<Long> endpointIds);
+}
@@ -0,0 +1,35 @@
+package com.example.taskmanagement.repository;
+
+import com.example.taskmanagement.entity.WebhookEndpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface WebhookEndpointRepository extends JpaRepository<WebhookEndpoint, Long> {
+    
+    List<WebhookEndpoint> findByActiveTrue();
+    
+    @Query("select w.id from WebhookEndpoint w")
+    List<Long> findAllIds();
+    
+    // Targeted updates so the dispatcher never overwrites concurrent admin edits
+    @Modifying
+    @Transactional
+    @Query("update WebhookEndpoint w set w.failureCount = 0, w.nextAttemptAt = null, w.lastError = null "
+            + "where w.id = :id")
+    void markDelivered(@Param("id") Long id);
+    
+    @Modifying
+    @Transactional
+    @Query("update WebhookEndpoint w set w.failureCount = :failureCount, w.nextAttemptAt = :nextAttemptAt, "
+            + "w.lastError = :error where w.id = :id")
+    void markFailed(@Param("id") Long id, @Param("failureCount") Integer failureCount,
+                    @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+}
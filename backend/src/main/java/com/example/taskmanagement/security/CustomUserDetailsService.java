@@ -1,6 +1,8 @@
 package com.example.taskmanagement.security;
 
 import com.example.taskmanagement.entity.User;
+import com.example.taskmanagement.profiling.RequestProfile;
+import com.example.taskmanagement.profiling.UserLookupEvent;
 import com.example.taskmanagement.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.GrantedAuthority;
@@ -12,6 +14,7 @@ import org.springframework.stereotype.Service;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Optional;
 
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
@@ -21,8 +24,20 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        UserLookupEvent event = new UserLookupEvent();
+        event.begin();
+        Optional<User> found = userRepository.findByEmail(email);
+        event.end();
+        // Later JFR events of the request carry the user id
+        found.ifPresent(user -> RequestProfile.setUserId(user.getId()));
+        if (event.shouldCommit()) {
+            event.endpoint = RequestProfile.endpoint();
+            event.userId = RequestProfile.userId();
+            event.found = found.isPresent();
+            event.commit();
+        }
+
+        User user = found.orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
         return new org.springframework.security.core.userdetails.User(
                 user.getEmail(),
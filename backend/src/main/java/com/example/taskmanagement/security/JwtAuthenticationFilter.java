@@ -1,5 +1,8 @@
 package com.example.taskmanagement.security;
 
+import com.example.taskmanagement.profiling.JwtAuthenticationEvent;
+import com.example.taskmanagement.profiling.RequestProfile;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,28 +27,51 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private CustomUserDetailsService userDetailsService;
 
+    @Autowired
+    private TokenDenyList tokenDenyList;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         
+        // Emitted only with app.jfr.enabled (see ProfilingConfig)
+        JwtAuthenticationEvent event = new JwtAuthenticationEvent();
+        event.begin();
+        String outcome = null;
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && !jwtUtils.isTokenExpired(jwt)) {
-                String username = jwtUtils.extractUsername(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            if (StringUtils.hasText(jwt)) {
+                outcome = "INVALID";
+                // Parsed and verified once; expired tokens are rejected by the parser
+                Claims claims = jwtUtils.extractAllClaims(jwt);
 
-                if (jwtUtils.validateToken(jwt, userDetails)) {
-                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities());
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                // Checked before the user lookup, so a revoked token costs no query
+                if (!tokenDenyList.isRevoked(claims.getId())) {
+                    UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
 
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                    if (claims.getSubject().equals(userDetails.getUsername())) {
+                        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                                userDetails, null, userDetails.getAuthorities());
+                        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+                        SecurityContextHolder.getContext().setAuthentication(authentication);
+                        outcome = "AUTHENTICATED";
+                    }
+                } else {
+                    outcome = "REVOKED";
                 }
             }
         } catch (Exception ex) {
             logger.error("Cannot set user authentication: {}", ex);
         }
+        event.end();
+        if (outcome != null && event.shouldCommit()) {
+            event.endpoint = RequestProfile.endpoint();
+            event.userId = RequestProfile.userId();
+            event.outcome = outcome;
+            event.commit();
+        }
 
         filterChain.doFilter(request, response);
     }
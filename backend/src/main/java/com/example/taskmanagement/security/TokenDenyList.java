@@ -0,0 +1,104 @@
+package com.example.taskmanagement.security;
+
+import com.example.taskmanagement.entity.RevokedToken;
+import com.example.taskmanagement.repository.RevokedTokenRepository;
+import com.example.taskmanagement.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory copy of the revoked_tokens table, checked on every authenticated
+// request. A Bloom filter answers the common "not revoked" case from a few bit
+// reads; only its (rare) positives are confirmed against the exact set. Reads
+// take no lock. Each node polls the table for new rows, so a revocation made
+// on another node applies here within poll-interval.
+@Component
+public class TokenDenyList {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenDenyList.class);
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${app.revocation.expected-tokens:100000}")
+    private int expectedTokens;
+
+    @Value("${app.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    // Rows committed late (or by a node with a slightly different clock) are still picked up
+    @Value("${app.revocation.poll-overlap:PT10S}")
+    private Duration pollOverlap;
+
+    // jti -> token expiry; entries are dropped once the token could no longer be used anyway
+    private final Map<String, LocalDateTime> revoked = new ConcurrentHashMap<>();
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile BloomFilter bloomFilter;
+    private LocalDateTime lastPoll;
+
+    public TokenDenyList(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    void load() {
+        bloomFilter = new BloomFilter(expectedTokens, falsePositiveRate);
+        poll();
+    }
+
+    public boolean isRevoked(String tokenId) {
+        // Tokens issued before jti was added cannot be revoked; they expire on their own
+        if (tokenId == null) {
+            return false;
+        }
+        return bloomFilter.mightContain(tokenId) && revoked.containsKey(tokenId);
+    }
+
+    // Applies a revocation made on this node straight away, without waiting for the next poll
+    public synchronized void add(String tokenId, LocalDateTime expiresAt) {
+        if (revoked.put(tokenId, expiresAt) == null) {
+            bloomFilter.add(tokenId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.revocation.poll-interval:2000}")
+    public synchronized void poll() {
+        LocalDateTime now = LocalDateTime.now();
+        List<RevokedToken> rows = lastPoll == null
+                ? revokedTokenRepository.findByExpiresAtAfter(now)
+                : revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(lastPoll.minus(pollOverlap), now);
+        rows.forEach(row -> add(row.getTokenId(), row.getExpiresAt()));
+        lastPoll = now;
+    }
+
+    // Expired entries can't be taken out of a Bloom filter, so build a fresh one
+    // (bigger if the set has outgrown it) and swap it in
+    @Scheduled(fixedDelayString = "${app.revocation.purge-interval:3600000}",
+            initialDelayString = "${app.revocation.purge-interval:3600000}")
+    public synchronized void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        revoked.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedTokens, revoked.size() * 2), falsePositiveRate);
+        revoked.keySet().forEach(rebuilt::add);
+        bloomFilter = rebuilt;
+
+        Integer purged = transactionTemplate.execute(status -> revokedTokenRepository.deleteExpired(now));
+        if (purged != null && purged > 0) {
+            logger.info("Purged {} expired token revocations, {} still active", purged, revoked.size());
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.taskmanagement.service;
+
+import com.example.taskmanagement.dto.TaskResponse;
+import com.example.taskmanagement.entity.IdempotencyRecord;
+import com.example.taskmanagement.exception.BadRequestException;
+import com.example.taskmanagement.repository.IdempotencyRecordRepository;
+import com.example.taskmanagement.sharding.ShardContext;
+import com.example.taskmanagement.sharding.ShardRoutingDataSource;
+import com.example.taskmanagement.util.SingleFlight;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+// Idempotency-Key support for task writes: the first request with a key runs and
+// its response is stored with the write, in one transaction; retries with the same
+// key get that response back without TaskService running again. Recent responses
+// are also kept in a bounded LRU map, so most retries cost no query at all.
+// Concurrent duplicates on this instance share one execution; on different
+// instances the second insert of the key waits for the first to commit, then
+// replays it.
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // With sharding enabled every shard keeps the keys of its own users
+    @Autowired(required = false)
+    private ShardRoutingDataSource shards;
+
+    @Value("${app.idempotency.ttl:PT24H}")
+    private Duration ttl;
+
+    private final Map<RecordKey, StoredResponse> recent;
+    private final SingleFlight<RecordKey, StoredResponse> inFlight = new SingleFlight<>();
+    private final TransactionTemplate writeTransaction;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Counter replayed;
+
+    public IdempotencyService(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                              @Value("${app.idempotency.cache-size:10000}") int cacheSize) {
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<RecordKey, StoredResponse> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.replayed = Counter.builder("http.idempotency.replayed")
+                .description("Writes answered from a stored Idempotency-Key response")
+                .register(meterRegistry);
+    }
+
+    // operation names the request (method, path, If-Match); together with the body it
+    // must match what the key was first used for
+    public ResponseEntity<TaskResponse> execute(String key, String operation, Object request,
+                                                Supplier<ResponseEntity<TaskResponse>> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH || !key.chars().allMatch(c -> c > 0x20 && c < 0x7f)) {
+            throw new BadRequestException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " printable ASCII characters");
+        }
+        RecordKey recordKey = new RecordKey(SecurityContextHolder.getContext().getAuthentication().getName(), key);
+        String requestHash = hash(operation, request);
+
+        boolean[] ran = {false};
+        StoredResponse stored = cached(recordKey);
+        if (stored == null) {
+            stored = inFlight.execute(recordKey, () -> {
+                // A duplicate may have finished between the first look and getting here
+                StoredResponse finished = cached(recordKey);
+                if (finished != null) {
+                    return finished;
+                }
+                StoredResponse result = runOrReplay(recordKey, requestHash, action, ran);
+                remember(recordKey, result);
+                return result;
+            });
+        }
+
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new BadRequestException("Idempotency-Key " + key + " was already used for a different request");
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(stored.statusCode());
+        if (stored.etag() != null) {
+            response.eTag(stored.etag());
+        }
+        if (!ran[0]) {
+            replayed.increment();
+            response.header(REPLAYED_HEADER, "true");
+        }
+        return response.body(stored.body());
+    }
+
+    private StoredResponse runOrReplay(RecordKey recordKey, String requestHash,
+                                       Supplier<ResponseEntity<TaskResponse>> action, boolean[] ran) {
+        try {
+            return writeTransaction.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                Optional<IdempotencyRecord> existing = repository.findByOwnerAndIdempotencyKey(
+                        recordKey.owner(), recordKey.key());
+                if (existing.isPresent() && existing.get().getExpiresAt().isAfter(now)) {
+                    return toStored(existing.get());
+                }
+                existing.ifPresent(expired -> {
+                    repository.delete(expired);
+                    repository.flush();
+                });
+
+                IdempotencyRecord record = repository.saveAndFlush(new IdempotencyRecord(null, recordKey.owner(),
+                        recordKey.key(), requestHash, null, null, null, now, now.plus(ttl)));
+                ResponseEntity<TaskResponse> response = action.get();
+                record.setStatusCode(response.getStatusCode().value());
+                record.setEtag(response.getHeaders().getETag());
+                record.setResponseBody(toJson(response.getBody()));
+                ran[0] = true;
+                return new StoredResponse(requestHash, record.getStatusCode(), record.getEtag(), response.getBody(),
+                        record.getExpiresAt());
+            });
+        } catch (DataIntegrityViolationException ex) {
+            // Another instance inserted the key first; the insert waited for it to commit.
+            // Without a row, the violation came from the write itself.
+            return readOnlyTransaction.execute(status -> repository.findByOwnerAndIdempotencyKey(
+                            recordKey.owner(), recordKey.key()))
+                    .map(this::toStored)
+                    .orElseThrow(() -> ex);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval:3600000}",
+            initialDelayString = "${app.idempotency.purge-interval:3600000}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (recent) {
+            recent.values().removeIf(stored -> !stored.expiresAt().isAfter(now));
+        }
+
+        int shardCount = shards != null ? shards.getShardCount() : 1;
+        int purged = 0;
+        for (int shard = 0; shard < shardCount; shard++) {
+            Integer deleted = ShardContext.callOn(shard, () ->
+                    writeTransaction.execute(status -> repository.deleteExpired(now)));
+            purged += deleted != null ? deleted : 0;
+        }
+        if (purged > 0) {
+            logger.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private StoredResponse cached(RecordKey recordKey) {
+        synchronized (recent) {
+            StoredResponse stored = recent.get(recordKey);
+            if (stored != null && !stored.expiresAt().isAfter(LocalDateTime.now())) {
+                recent.remove(recordKey);
+                return null;
+            }
+            return stored;
+        }
+    }
+
+    private void remember(RecordKey recordKey, StoredResponse stored) {
+        synchronized (recent) {
+            recent.put(recordKey, stored);
+        }
+    }
+
+    private StoredResponse toStored(IdempotencyRecord record) {
+        TaskResponse body = null;
+        if (record.getResponseBody() != null) {
+            try {
+                body = objectMapper.readValue(record.getResponseBody(), TaskResponse.class);
+            } catch (JsonProcessingException ex) {
+                throw new IllegalStateException("Stored response for idempotency key " + record.getId()
+                        + " is not readable", ex);
+            }
+        }
+        return new StoredResponse(record.getRequestHash(), record.getStatusCode(), record.getEtag(), body,
+                record.getExpiresAt());
+    }
+
+    private String hash(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException ex) {
+            throw new IllegalStateException("Could not hash request", ex);
+        }
+    }
+
+    private String toJson(TaskResponse body) {
+        if (body == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialise response", ex);
+        }
+    }
+
+    private record RecordKey(String owner, String key) {
+    }
+
+    private record StoredResponse(String requestHash, int statusCode, String etag, TaskResponse body,
+                                  LocalDateTime expiresAt) {
+    }
+}
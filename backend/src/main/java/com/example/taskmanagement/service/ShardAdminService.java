@@ -0,0 +1,51 @@
+package com.example.taskmanagement.service;
+
+import com.example.taskmanagement.dto.BucketMoveResponse;
+import com.example.taskmanagement.dto.ShardStatusResponse;
+import com.example.taskmanagement.entity.User;
+import com.example.taskmanagement.exception.ResourceNotFoundException;
+import com.example.taskmanagement.exception.UnauthorizedException;
+import com.example.taskmanagement.repository.UserRepository;
+import com.example.taskmanagement.sharding.ShardRebalancer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardAdminService {
+
+    @Autowired
+    private ShardRebalancer shardRebalancer;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    public ShardStatusResponse getStatus() {
+        requireAdmin();
+        return shardRebalancer.describe();
+    }
+
+    // Not transactional: a move spans several shards and manages its own steps
+    public BucketMoveResponse moveBucket(int bucket, int targetShard) {
+        requireAdmin();
+        return shardRebalancer.moveBucket(bucket, targetShard);
+    }
+
+    public List<BucketMoveResponse> rebalance(Integer maxMoves) {
+        requireAdmin();
+        return shardRebalancer.rebalance(maxMoves != null ? maxMoves : 8);
+    }
+
+    private void requireAdmin() {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        if (user.getRole() != User.Role.ADMIN) {
+            throw new UnauthorizedException("Only administrators can manage shards");
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.taskmanagement.service;
+
+import com.example.taskmanagement.dto.TaskBoardResponse;
+import com.example.taskmanagement.dto.TaskResponse;
+import com.example.taskmanagement.dto.UserResponse;
+import com.example.taskmanagement.entity.LabelSetConverter;
+import com.example.taskmanagement.entity.Task.Priority;
+import com.example.taskmanagement.entity.Task.TaskStatus;
+import com.example.taskmanagement.entity.User;
+import com.example.taskmanagement.exception.BadRequestException;
+import com.example.taskmanagement.exception.ResourceNotFoundException;
+import com.example.taskmanagement.repository.UserRepository;
+import com.example.taskmanagement.sharding.ShardQueryExecutor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// The Kanban board in one statement (per shard): a UNION ALL of one index range scan
+// per status and priority, each stopping after limit + 1 rows, plus a count per
+// status. Priority gets its own legs because no index can order by its rank; within
+// a leg, idx_tasks_status_priority_created_at (admins) or
+// idx_tasks_owner_status_priority_created_at (everyone else) already gives the
+// newest first, so no sort and no row beyond the page is read.
+@Service
+public class TaskBoardService {
+
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 100;
+
+    // Column order within a status
+    private static final List<Priority> PRIORITY_ORDER = List.of(Priority.HIGH, Priority.MEDIUM, Priority.LOW);
+
+    private static final Comparator<TaskResponse> BOARD_ORDER = Comparator
+            .comparingInt((TaskResponse task) -> PRIORITY_ORDER.indexOf(task.getPriority()))
+            .thenComparing(TaskResponse::getCreatedAt, Comparator.reverseOrder())
+            .thenComparing(TaskResponse::getId, Comparator.reverseOrder());
+
+    private static final String TASK_COLUMNS = "'T' AS kind, t.id, t.title, t.description, t.status, t.priority, "
+            + "t.due_at, t.overdue, t.labels, t.parent_id, t.created_at, t.updated_at, t.version, t.created_by_id, "
+            + "cu.username AS created_by_username, cu.email AS created_by_email, cu.role AS created_by_role, "
+            + "t.assigned_to_id, au.username AS assigned_to_username, au.email AS assigned_to_email, "
+            + "au.role AS assigned_to_role";
+
+    // Same shape as TASK_COLUMNS (UNION ALL needs it); the count goes in the id column
+    private static final String COUNT_COLUMNS = "'C', COUNT(*), NULL, NULL, t.status, NULL, NULL, NULL, NULL, NULL, "
+            + "NULL, NULL, NULL, NULL, NULL, NULL, NULL, NULL, NULL, NULL, NULL";
+
+    private static final String USER_JOINS = " JOIN users cu ON cu.id = t.created_by_id "
+            + "LEFT JOIN users au ON au.id = t.assigned_to_id";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Present only with app.sharding.enabled; an admin's board then spans all shards
+    @Autowired(required = false)
+    private ShardQueryExecutor shardQueryExecutor;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TaskBoardService(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    // Every column, or with a cursor the next tasks of the column it came from.
+    // Admins see all tasks, users their own.
+    @Transactional(readOnly = true)
+    public TaskBoardResponse getBoard(Integer limit, String cursor) {
+        int pageSize = limit != null ? limit : DEFAULT_LIMIT;
+        if (pageSize < 1 || pageSize > MAX_LIMIT) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        BoardCursor after = cursor != null ? BoardCursor.decode(cursor) : null;
+        List<TaskStatus> statuses = after != null ? List.of(after.status()) : List.of(TaskStatus.values());
+
+        User currentUser = getCurrentUser();
+        Long ownerId = isAdmin(currentUser) ? null : currentUser.getId();
+        List<ShardBoard> boards = ownerId == null && shardQueryExecutor != null
+                ? shardQueryExecutor.collect(() -> List.of(queryBoard(statuses, null, after, pageSize)))
+                : List.of(queryBoard(statuses, ownerId, after, pageSize));
+
+        List<TaskBoardResponse.Column> columns = new ArrayList<>(statuses.size());
+        for (TaskStatus status : statuses) {
+            long total = 0;
+            List<TaskResponse> tasks = new ArrayList<>();
+            for (ShardBoard board : boards) {
+                total += board.totals().getOrDefault(status, 0L);
+                tasks.addAll(board.tasks().getOrDefault(status, List.of()));
+            }
+            tasks.sort(BOARD_ORDER);
+
+            // Every leg read one task more than a page, so a longer list means there are more
+            String nextCursor = null;
+            if (tasks.size() > pageSize) {
+                tasks = new ArrayList<>(tasks.subList(0, pageSize));
+                nextCursor = BoardCursor.after(tasks.get(pageSize - 1)).encode();
+            }
+            columns.add(new TaskBoardResponse.Column(status, total, tasks, nextCursor));
+        }
+        return new TaskBoardResponse(columns);
+    }
+
+    private ShardBoard queryBoard(List<TaskStatus> statuses, Long ownerId, BoardCursor after, int pageSize) {
+        List<String> legs = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        for (TaskStatus status : statuses) {
+            for (Priority priority : PRIORITY_ORDER) {
+                // Priorities above the cursor's were returned on earlier pages
+                if (after != null && PRIORITY_ORDER.indexOf(priority) < PRIORITY_ORDER.indexOf(after.priority())) {
+                    continue;
+                }
+                // Enum names, so they can be inlined
+                StringBuilder where = new StringBuilder(" WHERE t.status = '" + status.name()
+                        + "' AND t.priority = '" + priority.name() + "'");
+                if (ownerId != null) {
+                    where.append(" AND t.created_by_id = ?");
+                    args.add(ownerId);
+                }
+                if (after != null && priority == after.priority()) {
+                    where.append(" AND (t.created_at < ? OR (t.created_at = ? AND t.id < ?))");
+                    Timestamp createdAt = Timestamp.valueOf(after.createdAt());
+                    args.add(createdAt);
+                    args.add(createdAt);
+                    args.add(after.id());
+                }
+                legs.add("(SELECT " + TASK_COLUMNS + " FROM tasks t" + USER_JOINS + where
+                        + " ORDER BY t.created_at DESC, t.id DESC LIMIT ?)");
+                args.add(pageSize + 1);
+            }
+        }
+
+        List<String> countFilters = new ArrayList<>();
+        if (after != null) {
+            countFilters.add("t.status = '" + after.status().name() + "'");
+        }
+        if (ownerId != null) {
+            countFilters.add("t.created_by_id = ?");
+            args.add(ownerId);
+        }
+        legs.add("(SELECT " + COUNT_COLUMNS + " FROM tasks t"
+                + (countFilters.isEmpty() ? "" : " WHERE " + String.join(" AND ", countFilters))
+                + " GROUP BY t.status)");
+
+        Map<TaskStatus, Long> totals = new EnumMap<>(TaskStatus.class);
+        Map<TaskStatus, List<TaskResponse>> tasks = new EnumMap<>(TaskStatus.class);
+        jdbcTemplate.query(String.join(" UNION ALL ", legs), rs -> {
+            TaskStatus status = TaskStatus.valueOf(rs.getString("status"));
+            if ("C".equals(rs.getString("kind"))) {
+                totals.put(status, rs.getLong("id"));
+            } else {
+                tasks.computeIfAbsent(status, key -> new ArrayList<>()).add(toResponse(rs));
+            }
+        }, args.toArray());
+        return new ShardBoard(totals, tasks);
+    }
+
+    private static TaskResponse toResponse(ResultSet rs) throws SQLException {
+        TaskResponse task = new TaskResponse();
+        task.setId(rs.getLong("id"));
+        task.setTitle(rs.getString("title"));
+        task.setDescription(rs.getString("description"));
+        task.setStatus(TaskStatus.valueOf(rs.getString("status")));
+        task.setPriority(Priority.valueOf(rs.getString("priority")));
+        Timestamp dueAt = rs.getTimestamp("due_at");
+        task.setDueAt(dueAt != null ? dueAt.toLocalDateTime() : null);
+        task.setOverdue(rs.getBoolean("overdue"));
+        task.setLabels(LabelSetConverter.fromColumn(rs.getString("labels")));
+        task.setParentId(nullableLong(rs, "parent_id"));
+        task.setCreatedBy(new UserResponse(rs.getLong("created_by_id"), rs.getString("created_by_username"),
+                rs.getString("created_by_email"), rs.getString("created_by_role")));
+        Long assignedToId = nullableLong(rs, "assigned_to_id");
+        if (assignedToId != null) {
+            task.setAssignedTo(new UserResponse(assignedToId, rs.getString("assigned_to_username"),
+                    rs.getString("assigned_to_email"), rs.getString("assigned_to_role")));
+        }
+        task.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        task.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+        task.setVersion(rs.getLong("version"));
+        return task;
+    }
+
+    private static Long nullableLong(ResultSet rs, String column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private User getCurrentUser() {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+    }
+
+    private boolean isAdmin(User user) {
+        return user.getRole() == User.Role.ADMIN;
+    }
+
+    // One shard's share of the board: counts and up to limit + 1 tasks per leg
+    private record ShardBoard(Map<TaskStatus, Long> totals, Map<TaskStatus, List<TaskResponse>> tasks) {
+    }
+
+    // The last task returned in a column, as "status|priority|createdAt|id" in URL-safe
+    // base64. Keyset rather than offset, so later pages cost the same as the first.
+    private record BoardCursor(TaskStatus status, Priority priority, LocalDateTime createdAt, long id) {
+
+        static BoardCursor after(TaskResponse task) {
+            return new BoardCursor(task.getStatus(), task.getPriority(), task.getCreatedAt(), task.getId());
+        }
+
+        String encode() {
+            String value = status + "|" + priority + "|" + createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static BoardCursor decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                if (parts.length != 4) {
+                    throw new IllegalArgumentException("Expected 4 parts");
+                }
+                return new BoardCursor(TaskStatus.valueOf(parts[0]), Priority.valueOf(parts[1]),
+                        LocalDateTime.parse(parts[2]), Long.parseLong(parts[3]));
+            } catch (IllegalArgumentException | DateTimeParseException ex) {
+                throw new BadRequestException("Invalid board cursor");
+            }
+        }
+    }
+}
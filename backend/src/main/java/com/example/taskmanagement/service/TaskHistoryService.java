@@ -0,0 +1,189 @@
+package com.example.taskmanagement.service;
+
+import com.example.taskmanagement.dto.TaskFlowMetricsResponse;
+import com.example.taskmanagement.dto.TaskHistoryResponse;
+import com.example.taskmanagement.entity.TaskHistory;
+import com.example.taskmanagement.entity.User;
+import com.example.taskmanagement.exception.BadRequestException;
+import com.example.taskmanagement.exception.ResourceNotFoundException;
+import com.example.taskmanagement.repository.TaskHistoryRepository;
+import com.example.taskmanagement.repository.UserRepository;
+import com.example.taskmanagement.sharding.ShardQueryExecutor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BinaryOperator;
+import java.util.stream.Collectors;
+
+// Reads task_history (written by TaskHistoryWriter). Flow metrics are aggregated
+// in the database, one row per shard, so they cost the same for any window size.
+@Service
+public class TaskHistoryService {
+
+    // Per task: lead time = created -> first DONE, cycle time = first IN_PROGRESS -> first DONE.
+    // Only tasks whose first DONE falls inside the window are counted.
+    private static final String FLOW_SQL = "SELECT COUNT(*) AS completed, "
+            + "COUNT(lead_seconds) AS lead_count, SUM(lead_seconds) AS lead_sum, "
+            + "MIN(lead_seconds) AS lead_min, MAX(lead_seconds) AS lead_max, "
+            + "COUNT(cycle_seconds) AS cycle_count, SUM(cycle_seconds) AS cycle_sum, "
+            + "MIN(cycle_seconds) AS cycle_min, MAX(cycle_seconds) AS cycle_max "
+            + "FROM (SELECT "
+            + "TIMESTAMPDIFF(SECOND, MIN(CASE WHEN h.event_type = 'CREATED' THEN h.occurred_at END), "
+            + "MIN(CASE WHEN h.status = 'DONE' THEN h.occurred_at END)) AS lead_seconds, "
+            + "TIMESTAMPDIFF(SECOND, MIN(CASE WHEN h.status = 'IN_PROGRESS' THEN h.occurred_at END), "
+            + "MIN(CASE WHEN h.status = 'DONE' THEN h.occurred_at END)) AS cycle_seconds "
+            + "FROM task_history h "
+            + "WHERE h.task_id IN (SELECT d.task_id FROM task_history d "
+            + "WHERE d.status = 'DONE' AND d.occurred_at >= ? AND d.occurred_at < ? %s) "
+            + "GROUP BY h.task_id "
+            + "HAVING MIN(CASE WHEN h.status = 'DONE' THEN h.occurred_at END) >= ?) flow";
+
+    private static final long DEFAULT_WINDOW_DAYS = 30;
+
+    @Autowired
+    private TaskHistoryRepository taskHistoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Present only with app.sharding.enabled; admin queries then span all shards
+    @Autowired(required = false)
+    private ShardQueryExecutor shardQueryExecutor;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TaskHistoryService(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    // Oldest change first. History outlives the task, so deleted tasks can still be looked up.
+    @Transactional(readOnly = true)
+    public List<TaskHistoryResponse> getTaskHistory(Long taskId) {
+        User currentUser = getCurrentUser();
+        boolean admin = isAdmin(currentUser);
+
+        List<TaskHistory> history;
+        if (!admin) {
+            history = taskHistoryRepository.findByTaskIdAndCreatedByIdOrderByOccurredAtAscIdAsc(taskId,
+                    currentUser.getId());
+        } else if (shardQueryExecutor != null) {
+            history = shardQueryExecutor.collect(() -> taskHistoryRepository.findByTaskIdOrderByOccurredAtAscIdAsc(taskId));
+        } else {
+            history = taskHistoryRepository.findByTaskIdOrderByOccurredAtAscIdAsc(taskId);
+        }
+        // Other users' tasks are filtered out by the query and look the same as unknown ones
+        if (history.isEmpty()) {
+            throw new ResourceNotFoundException("No history found for task with id: " + taskId);
+        }
+
+        return history.stream()
+                .sorted(Comparator.comparing(TaskHistory::getOccurredAt).thenComparing(TaskHistory::getId))
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    // Admins get figures over all tasks, users over their own
+    @Transactional(readOnly = true)
+    public TaskFlowMetricsResponse getFlowMetrics(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusDays(DEFAULT_WINDOW_DAYS);
+        if (!start.isBefore(end)) {
+            throw new BadRequestException("'from' must be before 'to'");
+        }
+
+        User currentUser = getCurrentUser();
+        boolean admin = isAdmin(currentUser);
+
+        List<FlowTotals> perShard = admin && shardQueryExecutor != null
+                ? shardQueryExecutor.collect(() -> List.of(queryFlowTotals(start, end, null)))
+                : List.of(queryFlowTotals(start, end, admin ? null : currentUser.getId()));
+
+        FlowTotals total = perShard.stream().reduce(FlowTotals::plus).orElseThrow();
+        return new TaskFlowMetricsResponse(start, end, total.completed(), total.lead().toResponse(),
+                total.cycle().toResponse());
+    }
+
+    private FlowTotals queryFlowTotals(LocalDateTime start, LocalDateTime end, Long ownerId) {
+        List<Object> args = new ArrayList<>(List.of(Timestamp.valueOf(start), Timestamp.valueOf(end)));
+        if (ownerId != null) {
+            args.add(ownerId);
+        }
+        args.add(Timestamp.valueOf(start));
+
+        String sql = String.format(FLOW_SQL, ownerId != null ? "AND d.created_by_id = ?" : "");
+        return jdbcTemplate.queryForObject(sql, (rs, rowNum) -> new FlowTotals(
+                rs.getLong("completed"),
+                new Span(rs.getLong("lead_count"), rs.getLong("lead_sum"),
+                        nullableLong(rs, "lead_min"), nullableLong(rs, "lead_max")),
+                new Span(rs.getLong("cycle_count"), rs.getLong("cycle_sum"),
+                        nullableLong(rs, "cycle_min"), nullableLong(rs, "cycle_max"))
+        ), args.toArray());
+    }
+
+    private static Long nullableLong(ResultSet rs, String column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private TaskHistoryResponse mapToResponse(TaskHistory history) {
+        return new TaskHistoryResponse(
+                history.getId(),
+                history.getTaskId(),
+                history.getEventType(),
+                history.getStatus(),
+                history.getPriority(),
+                history.getAssignedToId(),
+                history.getOccurredAt()
+        );
+    }
+
+    private User getCurrentUser() {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+    }
+
+    private boolean isAdmin(User user) {
+        return user.getRole() == User.Role.ADMIN;
+    }
+
+    // Sums rather than averages, so shards can be combined
+    private record FlowTotals(long completed, Span lead, Span cycle) {
+
+        FlowTotals plus(FlowTotals other) {
+            return new FlowTotals(completed + other.completed, lead.plus(other.lead), cycle.plus(other.cycle));
+        }
+    }
+
+    private record Span(long count, long sumSeconds, Long minSeconds, Long maxSeconds) {
+
+        Span plus(Span other) {
+            return new Span(count + other.count, sumSeconds + other.sumSeconds,
+                    pick(minSeconds, other.minSeconds, Math::min), pick(maxSeconds, other.maxSeconds, Math::max));
+        }
+
+        // A shard without matching tasks reports null
+        private static Long pick(Long a, Long b, BinaryOperator<Long> choose) {
+            if (a == null) {
+                return b;
+            }
+            return b == null ? a : choose.apply(a, b);
+        }
+
+        TaskFlowMetricsResponse.FlowTime toResponse() {
+            return new TaskFlowMetricsResponse.FlowTime(count, count > 0 ? (double) sumSeconds / count : null,
+                    minSeconds, maxSeconds);
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package com.example.taskmanagement.service;
+
+import com.example.taskmanagement.dto.TaskImportEvent;
+import com.example.taskmanagement.dto.TaskImportRow;
+import com.example.taskmanagement.dto.TaskRequest;
+import com.example.taskmanagement.entity.Task.Priority;
+import com.example.taskmanagement.entity.Task.TaskStatus;
+import com.example.taskmanagement.entity.User;
+import com.example.taskmanagement.exception.BadRequestException;
+import com.example.taskmanagement.exception.ResourceNotFoundException;
+import com.example.taskmanagement.importer.TaskImportReader;
+import com.example.taskmanagement.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+// Bulk import of tasks from CSV or NDJSON. Rows are read one at a time, checked
+// against the TaskRequest rules and inserted batch-size rows per transaction, so
+// memory stays flat however large the file is. A bad row is reported and skipped;
+// it never fails the rows around it.
+@Service
+public class TaskImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskImportService.class);
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.import.max-row-length:16384}")
+    private int maxRowLength;
+
+    @Value("${app.import.user-cache-size:10000}")
+    private int userCacheSize;
+
+    // Reads the CSV header up front, so a malformed file fails with 400 before any output
+    public TaskImportReader open(TaskImportReader.Format format, InputStream body) throws IOException {
+        return TaskImportReader.open(format, body, maxRowLength, objectMapper);
+    }
+
+    // Events (per-row errors, progress after every batch) go to the listener as they happen
+    public TaskImportEvent importTasks(TaskImportReader reader, Consumer<TaskImportEvent> listener) throws IOException {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        User creator = userRepository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+        Progress progress = new Progress();
+        UserCache users = new UserCache(Math.max(userCacheSize, batchSize));
+        List<PendingRow> batch = new ArrayList<>(batchSize);
+
+        TaskImportReader.Row row;
+        while ((row = reader.next()) != null) {
+            progress.rowsRead++;
+            if (row.error() != null) {
+                reject(row.line(), row.error(), progress, listener);
+                continue;
+            }
+
+            try {
+                batch.add(toPendingRow(row.line(), row.values()));
+            } catch (BadRequestException ex) {
+                reject(row.line(), ex.getMessage(), progress, listener);
+            }
+
+            if (batch.size() >= batchSize) {
+                insertBatch(creator, batch, users, progress, listener);
+                listener.accept(TaskImportEvent.progress(progress.rowsRead, progress.imported, progress.failed));
+            }
+        }
+        insertBatch(creator, batch, users, progress, listener);
+
+        logger.info("Imported {} of {} rows for {} ({} failed)", progress.imported, progress.rowsRead, email,
+                progress.failed);
+        TaskImportEvent summary = TaskImportEvent.summary(progress.rowsRead, progress.imported, progress.failed,
+                progress.failed == 0 ? "Import complete" : "Import complete with " + progress.failed + " rejected rows");
+        listener.accept(summary);
+        return summary;
+    }
+
+    private PendingRow toPendingRow(long line, TaskImportRow values) {
+        TaskRequest request = new TaskRequest();
+        request.setTitle(trimToNull(values.getTitle()));
+        request.setDescription(trimToNull(values.getDescription()));
+        request.setStatus(parseEnum(TaskStatus.class, "status", values.getStatus()));
+        request.setPriority(parseEnum(Priority.class, "priority", values.getPriority()));
+        request.setAssignedToId(parseId(values.getAssignedToId()));
+        request.setDueAt(parseDateTime(values.getDueAt()));
+        request.setLabels(parseLabels(values.getLabels()));
+
+        Set<ConstraintViolation<TaskRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new BadRequestException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+
+        return new PendingRow(line, request, trimToNull(values.getAssignedToEmail()));
+    }
+
+    private void insertBatch(User creator, List<PendingRow> batch, UserCache users, Progress progress,
+                             Consumer<TaskImportEvent> listener) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        users.load(batch);
+        List<PendingRow> resolved = new ArrayList<>(batch.size());
+        Map<Long, User> assignees = new HashMap<>();
+        for (PendingRow pending : batch) {
+            try {
+                User assignee = users.resolve(pending);
+                if (assignee != null) {
+                    pending.request().setAssignedToId(assignee.getId());
+                    assignees.put(assignee.getId(), assignee);
+                }
+                resolved.add(pending);
+            } catch (BadRequestException ex) {
+                reject(pending.line(), ex.getMessage(), progress, listener);
+            }
+        }
+        batch.clear();
+
+        try {
+            taskService.createTasks(creator, requests(resolved), assignees);
+            progress.imported += resolved.size();
+        } catch (RuntimeException batchFailure) {
+            // Rare (the rows passed validation): retry one by one to find the offending rows
+            logger.warn("Import batch of {} rows failed, retrying row by row: {}", resolved.size(),
+                    batchFailure.getMessage());
+            for (PendingRow pending : resolved) {
+                try {
+                    taskService.createTasks(creator, List.of(pending.request()), assignees);
+                    progress.imported++;
+                } catch (RuntimeException ex) {
+                    reject(pending.line(), "Could not be saved: " + ex.getMessage(), progress, listener);
+                }
+            }
+        }
+    }
+
+    private void reject(long line, String message, Progress progress, Consumer<TaskImportEvent> listener) {
+        progress.failed++;
+        listener.accept(TaskImportEvent.error(line, message));
+    }
+
+    private static List<TaskRequest> requests(List<PendingRow> rows) {
+        List<TaskRequest> requests = new ArrayList<>(rows.size());
+        rows.forEach(row -> requests.add(row.request()));
+        return requests;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String field, String value) {
+        String text = trimToNull(value);
+        if (text == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, text.toUpperCase(Locale.ROOT).replace(' ', '_'));
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Invalid " + field + " '" + text + "', expected one of "
+                    + Arrays.toString(type.getEnumConstants()));
+        }
+    }
+
+    private static Long parseId(String value) {
+        String text = trimToNull(value);
+        if (text == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException ex) {
+            throw new BadRequestException("Invalid assignedToId '" + text + "'");
+        }
+    }
+
+    // ISO local date-time, e.g. 2025-03-31T17:00
+    private static LocalDateTime parseDateTime(String value) {
+        String text = trimToNull(value);
+        if (text == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(text);
+        } catch (DateTimeParseException ex) {
+            throw new BadRequestException("Invalid dueAt '" + text + "', expected e.g. 2025-03-31T17:00");
+        }
+    }
+
+    // e.g. backend;urgent
+    private static Set<String> parseLabels(String value) {
+        String text = trimToNull(value);
+        if (text == null) {
+            return null;
+        }
+        Set<String> labels = new LinkedHashSet<>();
+        for (String label : text.split(";")) {
+            if (!label.isBlank()) {
+                labels.add(label.trim());
+            }
+        }
+        return labels;
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private record PendingRow(long line, TaskRequest request, String assigneeEmail) {
+    }
+
+    private static final class Progress {
+        private long rowsRead;
+        private long imported;
+        private long failed;
+    }
+
+    // Assignees seen so far in this import, looked up in bulk once per batch. Unknown
+    // ids and emails are remembered too (as null), so each costs one lookup per import.
+    // Least recently used entries are dropped, so memory doesn't grow with the file.
+    private final class UserCache {
+
+        private final Map<Long, User> byId;
+        private final Map<String, User> byEmail;
+
+        UserCache(int maxSize) {
+            this.byId = lruMap(maxSize);
+            this.byEmail = lruMap(maxSize);
+        }
+
+        void load(List<PendingRow> rows) {
+            Set<Long> ids = new HashSet<>();
+            Set<String> emails = new HashSet<>();
+            for (PendingRow row : rows) {
+                if (row.assigneeEmail() != null && !byEmail.containsKey(key(row.assigneeEmail()))) {
+                    emails.add(row.assigneeEmail());
+                } else if (row.assigneeEmail() == null && row.request().getAssignedToId() != null
+                        && !byId.containsKey(row.request().getAssignedToId())) {
+                    ids.add(row.request().getAssignedToId());
+                }
+            }
+
+            if (!ids.isEmpty()) {
+                userRepository.findAllById(ids).forEach(user -> byId.put(user.getId(), user));
+                ids.forEach(id -> byId.putIfAbsent(id, null));
+            }
+            if (!emails.isEmpty()) {
+                userRepository.findByEmailIn(emails).forEach(user -> {
+                    byEmail.put(key(user.getEmail()), user);
+                    byId.put(user.getId(), user);
+                });
+                emails.forEach(email -> byEmail.putIfAbsent(key(email), null));
+            }
+        }
+
+        // The email wins when a row names the assignee both ways, as long as they agree
+        User resolve(PendingRow row) {
+            Long id = row.request().getAssignedToId();
+            if (row.assigneeEmail() != null) {
+                User user = byEmail.get(key(row.assigneeEmail()));
+                if (user == null) {
+                    throw new BadRequestException("User not found with email: " + row.assigneeEmail());
+                }
+                if (id != null && !id.equals(user.getId())) {
+                    throw new BadRequestException("assignedToId " + id + " and assignedToEmail "
+                            + row.assigneeEmail() + " name different users");
+                }
+                return user;
+            }
+            if (id == null) {
+                return null;
+            }
+            User user = byId.get(id);
+            if (user == null) {
+                throw new BadRequestException("User not found with id: " + id);
+            }
+            return user;
+        }
+
+        private String key(String email) {
+            return email.toLowerCase(Locale.ROOT);
+        }
+
+        private <K> Map<K, User> lruMap(int maxSize) {
+            return new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, User> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+    }
+}
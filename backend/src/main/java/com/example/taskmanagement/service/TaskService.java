@@ -1,23 +1,64 @@
 package com.example.taskmanagement.service;
 
+import com.example.taskmanagement.datasource.ReadYourWritesTracker;
+import com.example.taskmanagement.dto.TaskProgressResponse;
 import com.example.taskmanagement.dto.TaskRequest;
 import com.example.taskmanagement.dto.TaskResponse;
 import com.example.taskmanagement.dto.UserResponse;
+import com.example.taskmanagement.entity.ArchivedTask;
 import com.example.taskmanagement.entity.Task;
 import com.example.taskmanagement.entity.User;
+import com.example.taskmanagement.event.TaskChangedEvent;
+import com.example.taskmanagement.event.TasksImportedEvent;
+import com.example.taskmanagement.event.TaskEventBroadcaster;
+import com.example.taskmanagement.exception.BadRequestException;
+import com.example.taskmanagement.exception.PreconditionFailedException;
 import com.example.taskmanagement.exception.ResourceNotFoundException;
 import com.example.taskmanagement.exception.UnauthorizedException;
+import com.example.taskmanagement.label.LabelQuery;
+import com.example.taskmanagement.label.TaskLabelIndex;
+import com.example.taskmanagement.profiling.ResponseMappingProfiler;
+import com.example.taskmanagement.readmodel.TaskReadModel;
+import com.example.taskmanagement.repository.ArchivedTaskRepository;
 import com.example.taskmanagement.repository.TaskRepository;
 import com.example.taskmanagement.repository.UserRepository;
+import com.example.taskmanagement.sharding.ShardContext;
+import com.example.taskmanagement.sharding.ShardQueryExecutor;
+import com.example.taskmanagement.sharding.ShardRoutingDataSource;
+import com.example.taskmanagement.sharding.ShardWriteGuard;
+import com.example.taskmanagement.util.SingleFlight;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,6 +70,69 @@ public class TaskService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ArchivedTaskRepository archivedTaskRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TaskEventBroadcaster taskEventBroadcaster;
+
+    // Present only with app.sharding.enabled; admin listings then span all shards
+    @Autowired(required = false)
+    private ShardQueryExecutor shardQueryExecutor;
+
+    @Autowired(required = false)
+    private ShardRoutingDataSource shards;
+
+    @Autowired(required = false)
+    private ShardWriteGuard shardWriteGuard;
+
+    // Present only with app.read-model.enabled; serves listings once it has loaded
+    @Autowired(required = false)
+    private TaskReadModel readModel;
+
+    // Present only with app.labels.index-enabled; otherwise label search is plain SQL
+    @Autowired(required = false)
+    private TaskLabelIndex labelIndex;
+
+    // Present only with app.datasource.routing.enabled; callers that just wrote read from the primary
+    @Autowired(required = false)
+    private ReadYourWritesTracker readYourWrites;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private static final int MAX_BATCH_IDS = 100;
+
+    // Largest subtree returned at once, and room for the ids of all ancestors
+    private static final int MAX_SUBTREE_SIZE = 10_000;
+    private static final int MAX_TREE_PATH_LENGTH = 512;
+
+    // Order in which the work queue hands out tasks
+    private static final List<Task.Priority> CLAIM_ORDER =
+            List.of(Task.Priority.HIGH, Task.Priority.MEDIUM, Task.Priority.LOW);
+
+    // Concurrent getTaskById calls for the same task share one database read
+    private final SingleFlight<TaskReadKey, TaskResponse> taskReads = new SingleFlight<>();
+
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate writeTransaction;
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void initTemplates() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Transactional
     public TaskResponse createTask(TaskRequest request) {
         User currentUser = getCurrentUser();
 
@@ -37,6 +141,8 @@ public class TaskService {
         task.setDescription(request.getDescription());
         task.setStatus(request.getStatus());
         task.setPriority(request.getPriority());
+        task.setDueAt(request.getDueAt());
+        task.setLabels(normaliseLabels(request.getLabels()));
         task.setCreatedBy(currentUser);
 
         // Set assigned user if provided
@@ -46,10 +152,44 @@ public class TaskService {
             task.setAssignedTo(assignedUser);
         }
 
+        if (request.getParentId() != null) {
+            placeUnder(task, findParent(request.getParentId(), currentUser));
+        }
+
         Task savedTask = taskRepository.save(task);
-        return mapToResponse(savedTask);
+        adjustRollups(ancestorIds(savedTask.getTreePath()), 1, doneCount(savedTask));
+        TaskResponse response = mapToResponse(savedTask);
+        publishChange(TaskChangedEvent.Type.CREATED, savedTask, response);
+        return response;
     }
 
+    // Bulk import: one transaction per batch. Assignees were resolved by the caller
+    // (TaskImportService caches them across batches), so this only inserts. The batch
+    // is announced with one TasksImportedEvent rather than an event per row.
+    @Transactional
+    public void createTasks(User creator, List<TaskRequest> requests, Map<Long, User> assignees) {
+        List<TaskResponse> created = new ArrayList<>(requests.size());
+        for (TaskRequest request : requests) {
+            Task task = new Task();
+            task.setTitle(request.getTitle());
+            task.setDescription(request.getDescription());
+            task.setStatus(request.getStatus());
+            task.setPriority(request.getPriority());
+            task.setDueAt(request.getDueAt());
+            task.setLabels(normaliseLabels(request.getLabels()));
+            task.setCreatedBy(creator);
+            if (request.getAssignedToId() != null) {
+                task.setAssignedTo(assignees.get(request.getAssignedToId()));
+            }
+
+            created.add(mapToResponse(taskRepository.save(task)));
+        }
+        if (!created.isEmpty()) {
+            eventPublisher.publishEvent(new TasksImportedEvent(creator.getId(), created, LocalDateTime.now()));
+        }
+    }
+
+    @Transactional(readOnly = true)
     public List<TaskResponse> getAllTasks(Integer page, Integer size, String sortBy) {
         User currentUser = getCurrentUser();
         
@@ -59,10 +199,21 @@ public class TaskService {
                 Sort.by(sortBy != null ? sortBy : "createdAt").descending()
         );
 
+        // The read model is ordered by createdAt only; other sorts still go to SQL
+        if (readModel != null && readModel.isReady() && (sortBy == null || "createdAt".equals(sortBy))) {
+            return isAdmin(currentUser)
+                    ? readModel.findAll(pageable.getPageNumber(), pageable.getPageSize())
+                    : readModel.findByOwner(currentUser.getId(), pageable.getPageNumber(), pageable.getPageSize());
+        }
+
         Page<Task> tasks;
         
         // Admins can see all tasks, users can only see their tasks
-        if (isAdmin(currentUser)) {
+        if (isAdmin(currentUser) && shardQueryExecutor != null) {
+            return shardQueryExecutor.gather(pageable, taskRepository::findAllBy).stream()
+                    .map(this::mapToResponse)
+                    .collect(Collectors.toList());
+        } else if (isAdmin(currentUser)) {
             tasks = taskRepository.findAll(pageable);
         } else {
             tasks = taskRepository.findByCreatedBy(currentUser, pageable);
@@ -73,35 +224,152 @@ public class TaskService {
                 .collect(Collectors.toList());
     }
 
-    public TaskResponse getTaskById(Long id) {
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + id));
+    // Not @Transactional: callers waiting on a coalesced read must not hold a
+    // connection. The shared read runs in its own read-only transaction.
+    public TaskResponse getTaskById(Long id, boolean includeArchived) {
+        User currentUser = getCurrentUser();
+
+        // Only callers that apply the same visibility filter share a read. One that has
+        // just written doesn't: the shared read may go to a replica that hasn't caught up.
+        Long ownerScope = isAdmin(currentUser) ? null : currentUser.getId();
+        Supplier<TaskResponse> read = () -> readOnlyTransaction.execute(status -> findVisibleTask(id, currentUser)
+                .map(this::mapToResponse)
+                .orElse(null));
+        TaskResponse task = readYourWrites != null && readYourWrites.requiresPrimary(currentUser.getEmail())
+                ? read.get()
+                : taskReads.execute(new TaskReadKey(ShardContext.current(), ownerScope, id), read);
+        if (task == null && includeArchived) {
+            return readOnlyTransaction.execute(status -> getArchivedTaskById(id, currentUser));
+        }
+        if (task == null) {
+            throw new ResourceNotFoundException("Task not found with id: " + id);
+        }
+
+        return task;
+    }
+
+    // Tasks the caller may see, in the order requested; missing and hidden ids are left out
+    @Transactional(readOnly = true)
+    public List<TaskResponse> getTasksByIds(List<Long> ids) {
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        if (distinctIds.size() > MAX_BATCH_IDS) {
+            throw new BadRequestException("At most " + MAX_BATCH_IDS + " ids can be requested at once");
+        }
+
+        return findVisibleTasks(distinctIds, getCurrentUser());
+    }
+
+    // Tasks matching a label expression, newest (highest id) first. With the label
+    // index it picks the page of ids and only those rows are read; without it the
+    // expression is matched in SQL.
+    @Transactional(readOnly = true)
+    public List<TaskResponse> getTasksByLabels(String expression, Integer page, Integer size) {
+        LabelQuery query = LabelQuery.parse(expression);
+        Pageable pageable = PageRequest.of(page != null ? page : 0, size != null ? size : 10);
+        if (pageable.getPageSize() > MAX_BATCH_IDS) {
+            throw new BadRequestException("At most " + MAX_BATCH_IDS + " tasks can be requested at once");
+        }
 
         User currentUser = getCurrentUser();
-        
-        // Check if user has permission to view this task
-        if (!isAdmin(currentUser) && !task.getCreatedBy().getId().equals(currentUser.getId())) {
-            throw new UnauthorizedException("You don't have permission to view this task");
+        Long ownerId = isAdmin(currentUser) ? null : currentUser.getId();
+        if (labelIndex == null) {
+            return findVisibleTasks(findIdsByLabels(query, ownerId, pageable), currentUser);
         }
 
-        return mapToResponse(task);
+        long[] ids = labelIndex.find(query, ownerId, pageable.getOffset(), pageable.getPageSize());
+        if (ids.length == 0) {
+            return new ArrayList<>();
+        }
+
+        // A task deleted since the index was read is left out, and so is one whose
+        // labels changed in a way the index hasn't seen (the page comes back short)
+        Set<Long> pageIds = new LinkedHashSet<>();
+        for (long id : ids) {
+            pageIds.add(id);
+        }
+        return findVisibleTasks(pageIds, currentUser).stream()
+                .filter(task -> query.matches(task.getLabels()))
+                .collect(Collectors.toList());
     }
 
-    public TaskResponse updateTask(Long id, TaskRequest request) {
-        Task task = taskRepository.findById(id)
+    // The task and all its subtasks at any depth, in creation (id) order; parentId
+    // links them. One range query on the path index, however deep the tree is.
+    @Transactional(readOnly = true)
+    public List<TaskResponse> getSubtree(Long id) {
+        User currentUser = getCurrentUser();
+        Task root = findVisibleTask(id, currentUser)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + id));
+
+        String prefix = descendantPrefix(root) + "%";
+        Pageable limit = PageRequest.of(0, MAX_SUBTREE_SIZE + 1);
+        List<Task> descendants = isAdmin(currentUser)
+                ? taskRepository.findSubtree(prefix, limit)
+                : taskRepository.findSubtreeByCreatedById(prefix, currentUser.getId(), limit);
+        if (descendants.size() > MAX_SUBTREE_SIZE) {
+            throw new BadRequestException("Task " + id + " has more than " + MAX_SUBTREE_SIZE
+                    + " subtasks; fetch the subtree of one of them instead");
+        }
+
+        List<TaskResponse> responses = new ArrayList<>(descendants.size() + 1);
+        responses.add(mapToResponse(root));
+        descendants.forEach(task -> responses.add(mapToResponse(task)));
+        return responses;
+    }
+
+    // From the root down to the task's parent, read in one query from the ids in its
+    // path; archived ancestors are left out
+    @Transactional(readOnly = true)
+    public List<TaskResponse> getAncestors(Long id) {
+        User currentUser = getCurrentUser();
+        Task task = findVisibleTask(id, currentUser)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + id));
+
+        List<Long> ancestorIds = ancestorIds(task.getTreePath());
+        return ancestorIds.isEmpty() ? new ArrayList<>() : findVisibleTasks(ancestorIds, currentUser);
+    }
+
+    // Read from the task's own rollup columns; no subtask is loaded
+    @Transactional(readOnly = true)
+    public TaskProgressResponse getProgress(Long id) {
+        User currentUser = getCurrentUser();
+        Task task = findVisibleTask(id, currentUser)
                 .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + id));
 
+        int total = 1 + task.getSubtaskCount();
+        int done = doneCount(task) + task.getSubtasksDone();
+        return new TaskProgressResponse(task.getId(), task.getSubtaskCount(), task.getSubtasksDone(),
+                Math.round(done * 1000.0 / total) / 10.0);
+    }
+
+    @Transactional
+    public TaskResponse updateTask(Long id, TaskRequest request, Long expectedVersion) {
         User currentUser = getCurrentUser();
 
-        // Check if user has permission to update this task
-        if (!isAdmin(currentUser) && !task.getCreatedBy().getId().equals(currentUser.getId())) {
-            throw new UnauthorizedException("You don't have permission to update this task");
+        // Owners and admins only; anyone else gets the same 404 as for a missing task
+        Task task = findVisibleTask(id, currentUser)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + id));
+
+        checkVersion(task, expectedVersion);
+
+        // Resolved before any field changes, so these lookups can't flush a half-updated task
+        String oldTreePath = task.getTreePath();
+        int oldDone = doneCount(task);
+        if (!Objects.equals(task.getParentId(), request.getParentId())) {
+            placeUnder(task, request.getParentId() != null ? findParent(request.getParentId(), currentUser) : null);
         }
 
         task.setTitle(request.getTitle());
         task.setDescription(request.getDescription());
         task.setStatus(request.getStatus());
         task.setPriority(request.getPriority());
+        task.setLabels(normaliseLabels(request.getLabels()));
+
+        // A new deadline starts over: no reminder sent, not overdue
+        boolean newDeadline = !Objects.equals(task.getDueAt(), request.getDueAt());
+        if (newDeadline) {
+            task.setDueAt(request.getDueAt());
+            task.setOverdue(false);
+        }
 
         // Update assigned user if provided
         if (request.getAssignedToId() != null) {
@@ -112,33 +380,320 @@ public class TaskService {
             task.setAssignedTo(null);
         }
 
-        Task updatedTask = taskRepository.save(task);
-        return mapToResponse(updatedTask);
+        // Flush now so the response carries the bumped version
+        Task updatedTask = taskRepository.saveAndFlush(task);
+        if (newDeadline) {
+            taskRepository.clearReminderSent(updatedTask.getId());
+        }
+        updateHierarchy(updatedTask, oldTreePath, oldDone);
+        TaskResponse response = mapToResponse(updatedTask);
+        publishChange(TaskChangedEvent.Type.UPDATED, updatedTask, response);
+        return response;
     }
 
-    public void deleteTask(Long id) {
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + id));
+    // Work queue: the oldest unassigned TODO task of the highest priority the caller may
+    // update is assigned to them and moved to IN_PROGRESS. Candidates are locked with
+    // SKIP LOCKED, so concurrent workers take different tasks instead of queueing on one row.
+    // Not @Transactional: with sharding an admin's claim tries each shard in its own transaction.
+    public Optional<TaskResponse> claimNextTask() {
+        User currentUser = getCurrentUser();
+
+        if (!isAdmin(currentUser) || shards == null) {
+            return Optional.ofNullable(writeTransaction.execute(status -> claimOnShard(currentUser, CLAIM_ORDER)));
+        }
 
+        // Priority first, so a HIGH task on any shard goes before a MEDIUM one
+        for (Task.Priority priority : CLAIM_ORDER) {
+            for (int shard = 0; shard < shards.getShardCount(); shard++) {
+                TaskResponse claimed = ShardContext.callOn(shard, () ->
+                        writeTransaction.execute(status -> claimOnShard(currentUser, List.of(priority))));
+                if (claimed != null) {
+                    return Optional.of(claimed);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Transactional
+    public void deleteTask(Long id, Long expectedVersion) {
         User currentUser = getCurrentUser();
 
-        // Only admins can delete tasks
+        // Only admins can delete tasks; checked before the task is loaded
         if (!isAdmin(currentUser)) {
             throw new UnauthorizedException("Only administrators can delete tasks");
         }
 
+        Task task = taskRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + id));
+
+        checkVersion(task, expectedVersion);
+
+        // Its subtasks would be left under a parent that no longer exists. Locked first,
+        // so no subtask can be added under it between the check and the delete
+        taskRepository.lockById(id);
+        if (taskRepository.existsByParentId(id)) {
+            throw new BadRequestException("Task " + id + " has subtasks; move or delete them first");
+        }
+
         taskRepository.delete(task);
+        adjustRollups(ancestorIds(task.getTreePath()), -(1 + task.getSubtaskCount()),
+                -(doneCount(task) + task.getSubtasksDone()));
+        publishChange(TaskChangedEvent.Type.DELETED, task, null);
     }
 
-    public List<TaskResponse> getMyTasks() {
+    @Transactional(readOnly = true)
+    public List<TaskResponse> getMyTasks(boolean includeArchived) {
         User currentUser = getCurrentUser();
-        List<Task> tasks = taskRepository.findByCreatedBy(currentUser);
-        
-        return tasks.stream()
+
+        List<TaskResponse> responses;
+        if (readModel != null && readModel.isReady()) {
+            responses = readModel.findAllByOwner(currentUser.getId());
+        } else {
+            responses = taskRepository.findByCreatedBy(currentUser).stream()
+                    .map(this::mapToResponse)
+                    .collect(Collectors.toList());
+        }
+
+        // Archived tasks are only read when explicitly asked for
+        if (includeArchived) {
+            responses.addAll(mapArchivedToResponses(
+                    archivedTaskRepository.findByCreatedByIdOrderByCreatedAtDesc(currentUser.getId())));
+        }
+        return responses;
+    }
+
+    @Transactional(readOnly = true)
+    public List<TaskResponse> getArchivedTasks(Integer page, Integer size) {
+        User currentUser = getCurrentUser();
+
+        Pageable pageable = PageRequest.of(
+                page != null ? page : 0,
+                size != null ? size : 10,
+                Sort.by("archivedAt").descending()
+        );
+
+        if (isAdmin(currentUser) && shardQueryExecutor != null) {
+            return mapArchivedToResponses(shardQueryExecutor.gather(pageable, archivedTaskRepository::findAllBy));
+        }
+
+        Page<ArchivedTask> archived = isAdmin(currentUser)
+                ? archivedTaskRepository.findAll(pageable)
+                : archivedTaskRepository.findByCreatedById(currentUser.getId(), pageable);
+
+        return mapArchivedToResponses(archived.getContent());
+    }
+
+    // Called by DueDateScheduler, on the task's shard, when a reminder or deadline comes
+    // up. Sends the reminder or makes the overdue transition if either is due, and says
+    // when the task needs looking at again (empty: never). The conditional updates make
+    // this safe to run on every instance; only one of them wins each transition.
+    @Transactional
+    public Optional<LocalDateTime> applyDeadline(Long taskId, Duration remindBefore) {
+        // The transitions are bulk updates, which the shard write guard doesn't see
+        if (shardWriteGuard != null) {
+            Optional<Long> owner = taskRepository.findOwnerIdById(taskId);
+            if (owner.isEmpty()) {
+                return Optional.empty();
+            }
+            shardWriteGuard.check(owner.get());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (taskRepository.markOverdue(taskId, Task.TaskStatus.DONE, now) > 0) {
+            taskRepository.findById(taskId).ifPresent(task ->
+                    publishChange(TaskChangedEvent.Type.OVERDUE, task, mapToResponse(task)));
+            return Optional.empty();
+        }
+
+        boolean reminded = taskRepository.markReminderSent(taskId, Task.TaskStatus.DONE, now.plus(remindBefore)) > 0;
+        Optional<Task> pending = taskRepository.findById(taskId)
+                .filter(task -> task.getDueAt() != null && task.getStatus() != Task.TaskStatus.DONE && !task.getOverdue());
+        if (reminded) {
+            pending.ifPresent(task -> publishChange(TaskChangedEvent.Type.DUE_SOON, task, mapToResponse(task)));
+        }
+        return pending.map(task -> task.getReminderSent() ? task.getDueAt() : task.getDueAt().minus(remindBefore));
+    }
+
+    @Transactional(readOnly = true)
+    public SseEmitter subscribeToChanges() {
+        User currentUser = getCurrentUser();
+        return taskEventBroadcaster.subscribe(currentUser.getId(), isAdmin(currentUser));
+    }
+
+    private TaskResponse claimOnShard(User currentUser, List<Task.Priority> priorities) {
+        Pageable first = PageRequest.of(0, 1);
+        for (Task.Priority priority : priorities) {
+            List<Task> candidates = isAdmin(currentUser)
+                    ? taskRepository.findClaimable(Task.TaskStatus.TODO, priority, first)
+                    : taskRepository.findClaimableByCreatedBy(Task.TaskStatus.TODO, priority, currentUser, first);
+            if (candidates.isEmpty()) {
+                continue;
+            }
+
+            Task task = candidates.get(0);
+            task.setAssignedTo(currentUser);
+            task.setStatus(Task.TaskStatus.IN_PROGRESS);
+
+            // Flush now so the response carries the bumped version
+            Task claimedTask = taskRepository.saveAndFlush(task);
+            TaskResponse response = mapToResponse(claimedTask);
+            publishChange(TaskChangedEvent.Type.UPDATED, claimedTask, response);
+            return response;
+        }
+        return null;
+    }
+
+    // Listeners that need the commit to have happened use @TransactionalEventListener
+    private void publishChange(TaskChangedEvent.Type type, Task task, TaskResponse response) {
+        eventPublisher.publishEvent(new TaskChangedEvent(
+                type,
+                task.getId(),
+                task.getCreatedBy().getId(),
+                response,
+                LocalDateTime.now()
+        ));
+    }
+
+    private TaskResponse getArchivedTaskById(Long id, User currentUser) {
+        Optional<ArchivedTask> archived = isAdmin(currentUser)
+                ? archivedTaskRepository.findById(id)
+                : archivedTaskRepository.findByIdAndCreatedById(id, currentUser.getId());
+
+        return mapArchivedToResponses(List.of(archived
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + id)))).get(0);
+    }
+
+    // Visibility is applied by the query itself: non-admins only ever load their own tasks
+    private Optional<Task> findVisibleTask(Long id, User currentUser) {
+        return isAdmin(currentUser)
+                ? taskRepository.findById(id)
+                : taskRepository.findByIdAndCreatedById(id, currentUser.getId());
+    }
+
+    // Ids of the page of matching tasks, newest first. Admin searches with sharding
+    // take the first offset + size ids of every shard and cut the page from the merge.
+    private List<Long> findIdsByLabels(LabelQuery query, Long ownerId, Pageable pageable) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT id FROM tasks WHERE ").append(query.toSql("labels", params));
+        if (ownerId != null) {
+            sql.append(" AND created_by_id = ?");
+            params.add(ownerId);
+        }
+        sql.append(" ORDER BY id DESC LIMIT ?");
+
+        if (ownerId != null || shardQueryExecutor == null) {
+            sql.append(" OFFSET ?");
+            params.add(pageable.getPageSize());
+            params.add(pageable.getOffset());
+            return jdbcTemplate.queryForList(sql.toString(), Long.class, params.toArray());
+        }
+        params.add(pageable.getOffset() + pageable.getPageSize());
+        return shardQueryExecutor.collect(() -> jdbcTemplate.queryForList(sql.toString(), Long.class, params.toArray()))
+                .stream()
+                .sorted(Comparator.reverseOrder())
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .collect(Collectors.toList());
+    }
+
+    // In the order of ids; missing and hidden ones are left out. A user's own tasks all
+    // live on their home shard; an admin's may be anywhere.
+    private List<TaskResponse> findVisibleTasks(Collection<Long> ids, User currentUser) {
+        List<Task> tasks;
+        if (!isAdmin(currentUser)) {
+            tasks = taskRepository.findByIdInAndCreatedById(ids, currentUser.getId());
+        } else if (shardQueryExecutor != null) {
+            tasks = shardQueryExecutor.collect(() -> taskRepository.findByIdIn(ids));
+        } else {
+            tasks = taskRepository.findByIdIn(ids);
+        }
+
+        Map<Long, Task> visible = tasks.stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        return ids.stream()
+                .map(visible::get)
+                .filter(Objects::nonNull)
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
+    // A parent is looked up like any task the caller could edit, on the current shard,
+    // so a whole tree always lives on one shard. It stays locked until commit: the
+    // archiver and deleteTask lock a task before making sure it has no subtasks, so
+    // neither removes it while a subtask is being added under it.
+    private Task findParent(Long parentId, User currentUser) {
+        taskRepository.lockById(parentId);
+        return findVisibleTask(parentId, currentUser)
+                .orElseThrow(() -> new ResourceNotFoundException("Parent task not found with id: " + parentId));
+    }
+
+    // Sets parentId and treePath for a new parent (null: top-level). For an existing
+    // task, refuses its own subtree as parent and paths its deepest descendant would
+    // outgrow; the descendants themselves are moved by updateHierarchy.
+    private void placeUnder(Task task, Task parent) {
+        String treePath = parent != null ? descendantPrefix(parent) : "/";
+        int deepest = treePath.length();
+        if (task.getId() != null) {
+            if (treePath.startsWith(descendantPrefix(task))) {
+                throw new BadRequestException("Task " + task.getId() + " can't be moved under itself or its subtasks");
+            }
+            Integer longest = taskRepository.findMaxTreePathLength(descendantPrefix(task) + "%");
+            if (longest != null) {
+                deepest = Math.max(deepest, longest - task.getTreePath().length() + treePath.length());
+            }
+        }
+        if (deepest > MAX_TREE_PATH_LENGTH) {
+            throw new BadRequestException("Subtasks can't be nested this deep");
+        }
+
+        task.setParentId(parent != null ? parent.getId() : null);
+        task.setTreePath(treePath);
+    }
+
+    // After a task was saved: brings its ancestors' rollups up to date and, if it
+    // moved, carries its descendants along to the new path
+    private void updateHierarchy(Task task, String oldTreePath, int oldDone) {
+        int done = doneCount(task);
+        if (task.getTreePath().equals(oldTreePath)) {
+            adjustRollups(ancestorIds(oldTreePath), 0, done - oldDone);
+            return;
+        }
+
+        int size = 1 + task.getSubtaskCount();
+        adjustRollups(ancestorIds(oldTreePath), -size, -(oldDone + task.getSubtasksDone()));
+        adjustRollups(ancestorIds(task.getTreePath()), size, done + task.getSubtasksDone());
+        String oldPrefix = oldTreePath + task.getId() + "/";
+        taskRepository.moveSubtree(oldPrefix + "%", descendantPrefix(task), oldPrefix.length() + 1);
+    }
+
+    private void adjustRollups(List<Long> ancestorIds, int count, int done) {
+        if (!ancestorIds.isEmpty() && (count != 0 || done != 0)) {
+            taskRepository.adjustRollups(ancestorIds, count, done);
+        }
+    }
+
+    // Path of the task's children, and prefix of every descendant's path
+    private static String descendantPrefix(Task task) {
+        return task.getTreePath() + task.getId() + "/";
+    }
+
+    // "/1/5/" -> [1, 5]
+    private static List<Long> ancestorIds(String treePath) {
+        List<Long> ids = new ArrayList<>();
+        for (String id : treePath.split("/")) {
+            if (!id.isEmpty()) {
+                ids.add(Long.parseLong(id));
+            }
+        }
+        return ids;
+    }
+
+    private static int doneCount(Task task) {
+        return task.getStatus() == Task.TaskStatus.DONE ? 1 : 0;
+    }
+
     private User getCurrentUser() {
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
         return userRepository.findByEmail(email)
@@ -149,15 +704,42 @@ public class TaskService {
         return user.getRole() == User.Role.ADMIN;
     }
 
+    // expectedVersion comes from If-Match; null means the client sent no precondition
+    private void checkVersion(Task task, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+            throw new PreconditionFailedException("Task " + task.getId() + " has been modified (current version: "
+                    + task.getVersion() + ", expected: " + expectedVersion + ")");
+        }
+    }
+
+    // Stored in lower case and sorted; null (no labels in the request) clears them
+    private static Set<String> normaliseLabels(Set<String> labels) {
+        Set<String> normalised = new TreeSet<>();
+        if (labels != null) {
+            labels.forEach(label -> normalised.add(label.toLowerCase(Locale.ROOT)));
+        }
+        return normalised;
+    }
+
+    // Timed for the JFR events (app.jfr.enabled); lazy user loads show up here
     private TaskResponse mapToResponse(Task task) {
+        return ResponseMappingProfiler.map(task.getId(), () -> toResponse(task));
+    }
+
+    private TaskResponse toResponse(Task task) {
         TaskResponse response = new TaskResponse();
         response.setId(task.getId());
         response.setTitle(task.getTitle());
         response.setDescription(task.getDescription());
         response.setStatus(task.getStatus());
         response.setPriority(task.getPriority());
+        response.setDueAt(task.getDueAt());
+        response.setOverdue(task.getOverdue());
+        response.setLabels(task.getLabels());
+        response.setParentId(task.getParentId());
         response.setCreatedAt(task.getCreatedAt());
         response.setUpdatedAt(task.getUpdatedAt());
+        response.setVersion(task.getVersion());
 
         if (task.getCreatedBy() != null) {
             response.setCreatedBy(mapToUserResponse(task.getCreatedBy()));
@@ -170,6 +752,51 @@ public class TaskService {
         return response;
     }
 
+    // Archived rows keep user ids only; resolve them with one query per batch
+    private List<TaskResponse> mapArchivedToResponses(List<ArchivedTask> archivedTasks) {
+        Set<Long> userIds = new HashSet<>();
+        archivedTasks.forEach(archived -> {
+            userIds.add(archived.getCreatedById());
+            if (archived.getAssignedToId() != null) {
+                userIds.add(archived.getAssignedToId());
+            }
+        });
+        Map<Long, User> users = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<TaskResponse> responses = new ArrayList<>(archivedTasks.size());
+        for (ArchivedTask archived : archivedTasks) {
+            TaskResponse response = new TaskResponse();
+            response.setId(archived.getId());
+            response.setTitle(archived.getTitle());
+            response.setDescription(archived.getDescription());
+            response.setStatus(archived.getStatus());
+            response.setPriority(archived.getPriority());
+            response.setDueAt(archived.getDueAt());
+            response.setOverdue(archived.getOverdue());
+            response.setLabels(archived.getLabels());
+            response.setParentId(archived.getParentId());
+            response.setCreatedAt(archived.getCreatedAt());
+            response.setUpdatedAt(archived.getUpdatedAt());
+            response.setVersion(archived.getVersion());
+
+            User createdBy = users.get(archived.getCreatedById());
+            if (createdBy != null) {
+                response.setCreatedBy(mapToUserResponse(createdBy));
+            }
+            User assignedTo = archived.getAssignedToId() != null ? users.get(archived.getAssignedToId()) : null;
+            if (assignedTo != null) {
+                response.setAssignedTo(mapToUserResponse(assignedTo));
+            }
+            responses.add(response);
+        }
+        return responses;
+    }
+
+    // ownerScope is null for admins, who see every task
+    private record TaskReadKey(int shard, Long ownerScope, Long id) {
+    }
+
     private UserResponse mapToUserResponse(User user) {
         return new UserResponse(
                 user.getId(),
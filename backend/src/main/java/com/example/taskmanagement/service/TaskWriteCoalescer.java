@@ -0,0 +1,170 @@
+package com.example.taskmanagement.service;
+
+import com.example.taskmanagement.dto.TaskRequest;
+import com.example.taskmanagement.dto.TaskResponse;
+import com.example.taskmanagement.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Coalesces bursts of PUTs to one task (drag and drop, inline editing). One update
+// per task and user is written at a time; updates arriving meanwhile (or within
+// window of the first) wait, and the next write applies only the latest of them, in
+// one transaction. A PUT replaces every field, so the latest request is the merged
+// state; everyone in the batch gets the task as it is after that write, as if their
+// update had been followed straight away by the later ones. If the merged write
+// fails, the batch's updates are applied one by one so each caller gets its own
+// result.
+@Service
+@ConditionalOnProperty(prefix = "app.write-coalescing", name = "enabled", havingValue = "true")
+public class TaskWriteCoalescer {
+
+    @Autowired
+    private TaskService taskService;
+
+    // 0: only updates that arrive while a write is in flight are merged
+    @Value("${app.write-coalescing.window:0ms}")
+    private Duration window;
+
+    private final ConcurrentMap<SlotKey, Slot> slots = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+
+    public TaskWriteCoalescer(MeterRegistry meterRegistry) {
+        this.coalesced = Counter.builder("tasks.updates.coalesced")
+                .description("Task updates merged into another request's write")
+                .register(meterRegistry);
+    }
+
+    // Same checks and result as TaskService.updateTask without an expected version
+    public TaskResponse update(Long id, TaskRequest request) {
+        SlotKey key = new SlotKey(id, SecurityContextHolder.getContext().getAuthentication().getName());
+        Slot slot = slots.compute(key, (k, existing) -> {
+            Slot acquired = existing != null ? existing : new Slot();
+            acquired.users++;
+            return acquired;
+        });
+        try {
+            return update(id, request, slot);
+        } finally {
+            slots.computeIfPresent(key, (k, existing) -> --existing.users == 0 ? null : existing);
+        }
+    }
+
+    private TaskResponse update(Long id, TaskRequest request, Slot slot) {
+        Batch batch;
+        int position;
+        synchronized (slot) {
+            if (slot.pending == null) {
+                slot.pending = new Batch();
+            }
+            batch = slot.pending;
+            position = batch.requests.size();
+            batch.requests.add(request);
+            while (!batch.done && slot.writing) {
+                try {
+                    slot.wait();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new ServiceUnavailableException("Interrupted while waiting for an earlier update of task " + id);
+                }
+            }
+            if (batch.done) {
+                return batch.resultFor(position);
+            }
+            // Nobody is writing: this request writes the batch it is in
+            slot.writing = true;
+        }
+
+        try {
+            if (!window.isZero()) {
+                sleep(window);
+            }
+            List<TaskRequest> requests;
+            synchronized (slot) {
+                // Closed: later updates start the next batch
+                if (slot.pending == batch) {
+                    slot.pending = null;
+                }
+                requests = new ArrayList<>(batch.requests);
+            }
+            write(id, requests, batch);
+        } finally {
+            synchronized (slot) {
+                batch.done = true;
+                slot.writing = false;
+                slot.notifyAll();
+            }
+        }
+        return batch.resultFor(position);
+    }
+
+    private void write(Long id, List<TaskRequest> requests, Batch batch) {
+        try {
+            batch.response = taskService.updateTask(id, requests.get(requests.size() - 1), null);
+            coalesced.increment(requests.size() - 1);
+            return;
+        } catch (RuntimeException ex) {
+            if (requests.size() == 1) {
+                batch.failure = ex;
+                return;
+            }
+        }
+
+        // One of them is bad (say, a parentId that would make a cycle): apply them in order
+        batch.responses = new TaskResponse[requests.size()];
+        batch.failures = new RuntimeException[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            try {
+                batch.responses[i] = taskService.updateTask(id, requests.get(i), null);
+            } catch (RuntimeException ex) {
+                batch.failures[i] = ex;
+            }
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis(), duration.toNanosPart() % 1_000_000);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record SlotKey(Long taskId, String user) {
+    }
+
+    // Guarded by its own monitor, except users, which only changes inside slots.compute
+    private static final class Slot {
+        private int users;
+        private boolean writing;
+        private Batch pending;
+    }
+
+    private static final class Batch {
+        private final List<TaskRequest> requests = new ArrayList<>();
+        private boolean done;
+        private TaskResponse response;
+        private RuntimeException failure;
+        // Set instead when the updates had to be applied one by one
+        private TaskResponse[] responses;
+        private RuntimeException[] failures;
+
+        TaskResponse resultFor(int position) {
+            RuntimeException ex = failures != null ? failures[position] : failure;
+            if (ex != null) {
+                throw ex;
+            }
+            return responses != null ? responses[position] : response;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.taskmanagement.service;
+
+import com.example.taskmanagement.dto.MessageResponse;
+import com.example.taskmanagement.entity.RevokedToken;
+import com.example.taskmanagement.entity.User;
+import com.example.taskmanagement.exception.BadRequestException;
+import com.example.taskmanagement.exception.ResourceNotFoundException;
+import com.example.taskmanagement.exception.UnauthorizedException;
+import com.example.taskmanagement.repository.RevokedTokenRepository;
+import com.example.taskmanagement.repository.UserRepository;
+import com.example.taskmanagement.security.JwtUtils;
+import com.example.taskmanagement.security.TokenDenyList;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+@Service
+public class TokenRevocationService {
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private TokenDenyList tokenDenyList;
+
+    // Logout: the caller's own token stops working on every node
+    @Transactional
+    public MessageResponse logout(String token) {
+        if (token == null) {
+            throw new BadRequestException("Send the token to log out in the Authorization header");
+        }
+        revoke(parse(token));
+        return new MessageResponse("Logged out successfully");
+    }
+
+    @Transactional
+    public MessageResponse revokeToken(String token) {
+        requireAdmin();
+        revoke(parse(token));
+        return new MessageResponse("Token revoked successfully");
+    }
+
+    private Claims parse(String token) {
+        Claims claims;
+        try {
+            claims = jwtUtils.extractAllClaims(token);
+        } catch (JwtException | IllegalArgumentException ex) {
+            throw new BadRequestException("Token is invalid or has already expired");
+        }
+        if (claims.getId() == null) {
+            throw new BadRequestException("Token has no id and cannot be revoked; it expires at " + claims.getExpiration());
+        }
+        return claims;
+    }
+
+    private void revoke(Claims claims) {
+        LocalDateTime expiresAt = LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault());
+        if (!revokedTokenRepository.existsByTokenId(claims.getId())) {
+            revokedTokenRepository.save(new RevokedToken(null, claims.getId(), claims.getSubject(), expiresAt,
+                    LocalDateTime.now()));
+        }
+        tokenDenyList.add(claims.getId(), expiresAt);
+    }
+
+    private void requireAdmin() {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        User currentUser = userRepository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        if (currentUser.getRole() != User.Role.ADMIN) {
+            throw new UnauthorizedException("Only administrators can revoke tokens");
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.taskmanagement.service;
+
+import com.example.taskmanagement.dto.WebhookDeadLetterResponse;
+import com.example.taskmanagement.dto.WebhookEndpointRequest;
+import com.example.taskmanagement.dto.WebhookEndpointResponse;
+import com.example.taskmanagement.entity.User;
+import com.example.taskmanagement.entity.WebhookDeadLetter;
+import com.example.taskmanagement.entity.WebhookEndpoint;
+import com.example.taskmanagement.exception.ResourceNotFoundException;
+import com.example.taskmanagement.exception.UnauthorizedException;
+import com.example.taskmanagement.repository.UserRepository;
+import com.example.taskmanagement.repository.WebhookDeadLetterRepository;
+import com.example.taskmanagement.repository.WebhookEndpointRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class WebhookService {
+
+    @Autowired
+    private WebhookEndpointRepository endpointRepository;
+
+    @Autowired
+    private WebhookDeadLetterRepository deadLetterRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Transactional
+    public WebhookEndpointResponse createEndpoint(WebhookEndpointRequest request) {
+        requireAdmin();
+
+        WebhookEndpoint endpoint = new WebhookEndpoint();
+        endpoint.setUrl(request.getUrl());
+        endpoint.setSecret(request.getSecret());
+        endpoint.setActive(true);
+
+        // New endpoints only receive events recorded after they were registered (WebhookDispatcher)
+        return mapToResponse(endpointRepository.save(endpoint));
+    }
+
+    @Transactional(readOnly = true)
+    public List<WebhookEndpointResponse> getEndpoints() {
+        requireAdmin();
+        return endpointRepository.findAll().stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public void deleteEndpoint(Long id) {
+        requireAdmin();
+        WebhookEndpoint endpoint = endpointRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Webhook endpoint not found with id: " + id));
+        endpointRepository.delete(endpoint);
+    }
+
+    @Transactional(readOnly = true)
+    public List<WebhookDeadLetterResponse> getDeadLetters(Long endpointId, Integer page, Integer size) {
+        requireAdmin();
+        return deadLetterRepository.findByEndpointId(endpointId, PageRequest.of(
+                page != null ? page : 0,
+                size != null ? size : 20,
+                Sort.by("id").descending()
+        )).stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    private void requireAdmin() {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        if (user.getRole() != User.Role.ADMIN) {
+            throw new UnauthorizedException("Only administrators can manage webhooks");
+        }
+    }
+
+    private WebhookEndpointResponse mapToResponse(WebhookEndpoint endpoint) {
+        return new WebhookEndpointResponse(
+                endpoint.getId(),
+                endpoint.getUrl(),
+                endpoint.getActive(),
+                endpoint.getFailureCount(),
+                endpoint.getNextAttemptAt(),
+                endpoint.getLastError(),
+                endpoint.getCreatedAt()
+        );
+    }
+
+    private WebhookDeadLetterResponse mapToResponse(WebhookDeadLetter deadLetter) {
+        return new WebhookDeadLetterResponse(
+                deadLetter.getId(),
+                deadLetter.getEndpointId(),
+                deadLetter.getEventId(),
+                deadLetter.getPayload(),
+                deadLetter.getError(),
+                deadLetter.getFailedAt()
+        );
+    }
+}
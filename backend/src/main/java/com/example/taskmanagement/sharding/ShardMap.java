@@ -0,0 +1,230 @@
+package com.example.taskmanagement.sharding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Owner -> bucket -> shard. The bucket table lives on shard 0 and is the source
+// of truth; every node keeps a copy and re-reads it periodically so a bucket
+// moved by the rebalancer on one node is picked up by the others.
+// Every change bumps the map version, and each node records the version it has
+// loaded in shard_map_nodes, so the rebalancer can wait until all running nodes
+// have seen a change before acting on it.
+public class ShardMap {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardMap.class);
+
+    private static final int VERSION_ROW = 1;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int bucketCount;
+    private final int shardCount;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // A node that hasn't reloaded for this long is taken to be gone
+    private final long nodeTimeoutMillis;
+
+    // Replaced wholesale on reload so readers never see a half-updated map
+    private volatile Assignment assignment;
+
+    public ShardMap(DataSource shardZero, int bucketCount, int shardCount, long refreshIntervalMillis) {
+        this.jdbcTemplate = new JdbcTemplate(shardZero);
+        this.bucketCount = bucketCount;
+        this.shardCount = shardCount;
+        this.nodeTimeoutMillis = 3 * refreshIntervalMillis;
+        initialize();
+    }
+
+    public int getBucketCount() {
+        return bucketCount;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int bucketFor(long ownerId) {
+        // Spread sequential ids evenly (splitmix64 finaliser)
+        long z = ownerId + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (int) Math.floorMod(z, (long) bucketCount);
+    }
+
+    public int shardForOwner(long ownerId) {
+        return assignment.shards[bucketFor(ownerId)];
+    }
+
+    public int shardForBucket(int bucket) {
+        return assignment.shards[bucket];
+    }
+
+    // Writes for owners in a moving bucket are refused until the move completes
+    public boolean isMoving(long ownerId) {
+        return assignment.moving[bucketFor(ownerId)];
+    }
+
+    // False while a bucket is moving off the shard or a moved bucket's rows are
+    // still left on it: rows there may not belong to the shard any more
+    public boolean isSettled(int shard) {
+        Assignment current = assignment;
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            if (current.moving[bucket] && current.shards[bucket] == shard) {
+                return false;
+            }
+        }
+        return current.leftovers.stream().noneMatch(leftover -> leftover.shard() == shard);
+    }
+
+    public List<Leftover> leftovers() {
+        return assignment.leftovers;
+    }
+
+    public List<Integer> bucketsOnShard(int shard) {
+        int[] shards = assignment.shards;
+        List<Integer> buckets = new ArrayList<>();
+        for (int bucket = 0; bucket < shards.length; bucket++) {
+            if (shards[bucket] == shard) {
+                buckets.add(bucket);
+            }
+        }
+        return buckets;
+    }
+
+    // Each change returns the map version that carries it
+    public long markMoving(int bucket, boolean moving) {
+        jdbcTemplate.update("UPDATE shard_buckets SET moving = ? WHERE bucket = ?", moving, bucket);
+        return publish();
+    }
+
+    // The bucket's rows stay on its old shard as a leftover until they are deleted.
+    // The version is bumped after the change, and the leftover only gets it then.
+    public long assign(int bucket, int shard) {
+        int previous = shardForBucket(bucket);
+        jdbcTemplate.update("INSERT INTO shard_leftovers (bucket, shard, version) VALUES (?, ?, ?)",
+                bucket, previous, Long.MAX_VALUE);
+        jdbcTemplate.update("UPDATE shard_buckets SET shard = ?, moving = FALSE WHERE bucket = ?", shard, bucket);
+        long version = nextVersion();
+        jdbcTemplate.update("UPDATE shard_leftovers SET version = ? WHERE bucket = ? AND shard = ?",
+                version, bucket, previous);
+        reload();
+        return version;
+    }
+
+    public void clearLeftover(Leftover leftover) {
+        jdbcTemplate.update("DELETE FROM shard_leftovers WHERE bucket = ? AND shard = ?", leftover.bucket(), leftover.shard());
+        reload();
+    }
+
+    // True once every node that is still running has loaded the given version
+    public boolean isAcknowledged(long version) {
+        Integer behind = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM shard_map_nodes WHERE version < ? AND seen_at > ?", Integer.class,
+                version, System.currentTimeMillis() - nodeTimeoutMillis);
+        return behind != null && behind == 0;
+    }
+
+    public boolean awaitAcknowledged(long version, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!isAcknowledged(version)) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            Thread.sleep(Math.min(200, timeoutMillis));
+        }
+        return true;
+    }
+
+    // The version is read before the buckets, so the recorded version never claims
+    // more than this node has actually loaded
+    @Scheduled(fixedDelayString = "${app.sharding.map-refresh-interval:10000}")
+    public void reload() {
+        long version = jdbcTemplate.queryForObject("SELECT version FROM shard_map_version WHERE id = ?", Long.class,
+                VERSION_ROW);
+        int[] shards = new int[bucketCount];
+        boolean[] moving = new boolean[bucketCount];
+        jdbcTemplate.query("SELECT bucket, shard, moving FROM shard_buckets", rs -> {
+            int bucket = rs.getInt("bucket");
+            if (bucket < bucketCount) {
+                shards[bucket] = rs.getInt("shard");
+                moving[bucket] = rs.getBoolean("moving");
+            }
+        });
+        List<Leftover> leftovers = jdbcTemplate.query("SELECT bucket, shard, version FROM shard_leftovers",
+                (rs, row) -> new Leftover(rs.getInt("bucket"), rs.getInt("shard"), rs.getLong("version")));
+        assignment = new Assignment(shards, moving, List.copyOf(leftovers));
+        acknowledge(version);
+    }
+
+    private long publish() {
+        long version = nextVersion();
+        reload();
+        return version;
+    }
+
+    private long nextVersion() {
+        jdbcTemplate.update("UPDATE shard_map_version SET version = version + 1 WHERE id = ?", VERSION_ROW);
+        return jdbcTemplate.queryForObject("SELECT version FROM shard_map_version WHERE id = ?", Long.class, VERSION_ROW);
+    }
+
+    private void acknowledge(long version) {
+        long now = System.currentTimeMillis();
+        int updated = jdbcTemplate.update("UPDATE shard_map_nodes SET version = ?, seen_at = ? WHERE node_id = ?",
+                version, now, nodeId);
+        if (updated == 0) {
+            jdbcTemplate.update("INSERT INTO shard_map_nodes (node_id, version, seen_at) VALUES (?, ?, ?)",
+                    nodeId, version, now);
+        }
+    }
+
+    private void initialize() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS shard_buckets ("
+                + "bucket INT NOT NULL PRIMARY KEY, "
+                + "shard INT NOT NULL, "
+                + "moving BOOLEAN NOT NULL DEFAULT FALSE)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS shard_map_version ("
+                + "id INT NOT NULL PRIMARY KEY, "
+                + "version BIGINT NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS shard_map_nodes ("
+                + "node_id VARCHAR(36) NOT NULL PRIMARY KEY, "
+                + "version BIGINT NOT NULL, "
+                + "seen_at BIGINT NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS shard_leftovers ("
+                + "bucket INT NOT NULL, "
+                + "shard INT NOT NULL, "
+                + "version BIGINT NOT NULL, "
+                + "PRIMARY KEY (bucket, shard))");
+        if (jdbcTemplate.queryForList("SELECT id FROM shard_map_version", Integer.class).isEmpty()) {
+            jdbcTemplate.update("INSERT INTO shard_map_version (id, version) VALUES (?, 0)", VERSION_ROW);
+        }
+
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM shard_buckets", Integer.class);
+        if (existing == null || existing == 0) {
+            List<Object[]> rows = new ArrayList<>();
+            for (int bucket = 0; bucket < bucketCount; bucket++) {
+                rows.add(new Object[]{bucket, bucket % shardCount});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO shard_buckets (bucket, shard) VALUES (?, ?)", rows);
+            logger.info("Initialised {} buckets across {} shards", bucketCount, shardCount);
+        } else if (existing != bucketCount) {
+            throw new IllegalStateException("shard_buckets holds " + existing + " buckets but app.sharding.bucket-count is "
+                    + bucketCount + "; the bucket count cannot change once data is sharded");
+        }
+        reload();
+    }
+
+    // Rows of a moved bucket still on the shard it left; deleted once every node
+    // has loaded the version that moved it
+    public record Leftover(int bucket, int shard, long version) {
+    }
+
+    private record Assignment(int[] shards, boolean[] moving, List<Leftover> leftovers) {
+    }
+}
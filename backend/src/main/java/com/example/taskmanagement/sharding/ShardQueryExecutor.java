@@ -0,0 +1,144 @@
+package com.example.taskmanagement.sharding;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Scatter-gather for listings that span all owners (admin views). Each shard
+// returns its own first page*size+size rows in the requested order and the
+// results are k-way merged, so a page costs one query per shard.
+@Component
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardQueryExecutor {
+
+    private final ShardRoutingDataSource shards;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService executor;
+
+    public ShardQueryExecutor(ShardRoutingDataSource shards, PlatformTransactionManager transactionManager,
+                              ShardingProperties properties) {
+        this.shards = shards;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(properties.getQueryThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "shard-query-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // query runs once per shard, in its own read-only transaction on that shard,
+    // and must return rows already ordered by pageable's sort. Rows are compared
+    // on the sort properties, so return entities with those properties loaded.
+    public <T> List<T> gather(Pageable pageable, Function<Pageable, List<T>> query) {
+        // Ties on the sort key are broken by id on every shard and in the merge
+        Sort sort = pageable.getSort().and(Sort.by(Sort.Direction.DESC, "id"));
+        Pageable perShard = PageRequest.of(0, (int) pageable.getOffset() + pageable.getPageSize(), sort);
+
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>();
+        for (int shard = 0; shard < shards.getShardCount(); shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> ShardContext.callOn(target,
+                    () -> readOnlyTransaction.execute(status -> query.apply(perShard))), executor));
+        }
+
+        List<List<T>> results = futures.stream().map(CompletableFuture::join).toList();
+        return merge(results, comparing(sort), (int) pageable.getOffset(), pageable.getPageSize());
+    }
+
+    // Runs query on every shard (each in its own read-only transaction) and concatenates the results
+    public <T> List<T> collect(Supplier<List<T>> query) {
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>();
+        for (int shard = 0; shard < shards.getShardCount(); shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> ShardContext.callOn(target,
+                    () -> readOnlyTransaction.execute(status -> query.get())), executor));
+        }
+
+        List<T> results = new ArrayList<>();
+        futures.forEach(future -> results.addAll(future.join()));
+        return results;
+    }
+
+    private <T> List<T> merge(List<List<T>> sortedRuns, Comparator<T> order, int offset, int limit) {
+        record Head<T>(T value, int run, int index) {
+        }
+
+        PriorityQueue<Head<T>> heads = new PriorityQueue<>((a, b) -> order.compare(a.value(), b.value()));
+        for (int run = 0; run < sortedRuns.size(); run++) {
+            if (!sortedRuns.get(run).isEmpty()) {
+                heads.add(new Head<>(sortedRuns.get(run).get(0), run, 0));
+            }
+        }
+
+        List<T> page = new ArrayList<>(limit);
+        int skipped = 0;
+        while (!heads.isEmpty() && page.size() < limit) {
+            Head<T> head = heads.poll();
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                page.add(head.value());
+            }
+
+            List<T> run = sortedRuns.get(head.run());
+            int next = head.index() + 1;
+            if (next < run.size()) {
+                heads.add(new Head<>(run.get(next), head.run(), next));
+            }
+        }
+        return page;
+    }
+
+    // Compares rows on the same properties the shards sorted by
+    private <T> Comparator<T> comparing(Sort sort) {
+        Comparator<T> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<T> byProperty = (a, b) -> compareValues(
+                    new BeanWrapperImpl(a).getPropertyValue(order.getProperty()),
+                    new BeanWrapperImpl(b).getPropertyValue(order.getProperty()));
+            comparator = comparator.thenComparing(order.isAscending() ? byProperty : byProperty.reversed());
+        }
+        return comparator;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private int compareValues(Object a, Object b) {
+        // NULL sorts lowest, as in H2 and MySQL
+        if (a == null || b == null) {
+            return a == b ? 0 : (a == null ? -1 : 1);
+        }
+        // Enums are stored by name, so that is the order the shards returned
+        if (a instanceof Enum<?> left && b instanceof Enum<?> right) {
+            return left.name().compareTo(right.name());
+        }
+        if (a instanceof Comparable comparable) {
+            return comparable.compareTo(b);
+        }
+        return 0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
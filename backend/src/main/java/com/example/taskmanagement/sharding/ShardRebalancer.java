@@ -0,0 +1,220 @@
+package com.example.taskmanagement.sharding;
+
+import com.example.taskmanagement.dto.BucketMoveResponse;
+import com.example.taskmanagement.dto.ShardStatusResponse;
+import com.example.taskmanagement.exception.BadRequestException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Moves buckets (and with them every task of their owners) between shards.
+// A move is: mark the bucket moving (writes for it are refused), wait until every
+// node has loaded the mark, copy the rows, point the bucket at the new shard,
+// and once every node has loaded that too, delete the rows from the old one.
+// Until then they are a leftover, which deleteLeftovers keeps retrying. Reads
+// keep working throughout.
+@Component
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardRebalancer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardRebalancer.class);
+
+    // Tables whose rows belong to the owner in created_by_id and move with the bucket
+    private static final List<String> OWNER_TABLES = List.of("tasks", "tasks_archive", "task_history");
+
+    private static final int OWNER_CHUNK = 500;
+
+    private final ShardMap shardMap;
+    private final ShardRoutingDataSource shards;
+    private final ShardingProperties properties;
+
+    public ShardRebalancer(ShardMap shardMap, ShardRoutingDataSource shards, ShardingProperties properties) {
+        this.shardMap = shardMap;
+        this.shards = shards;
+        this.properties = properties;
+    }
+
+    public ShardStatusResponse describe() {
+        List<ShardStatusResponse.Shard> shardStats = new ArrayList<>();
+        for (int shard = 0; shard < shards.getShardCount(); shard++) {
+            Long tasks = new JdbcTemplate(shards.getShard(shard)).queryForObject("SELECT COUNT(*) FROM tasks", Long.class);
+            shardStats.add(new ShardStatusResponse.Shard(shard, shardMap.bucketsOnShard(shard), tasks));
+        }
+        return new ShardStatusResponse(shardMap.getBucketCount(), shardStats);
+    }
+
+    // One mover at a time per node; concurrent moves of the same bucket from
+    // different nodes are not coordinated, so run the tool from one place
+    public synchronized BucketMoveResponse moveBucket(int bucket, int targetShard) {
+        if (bucket < 0 || bucket >= shardMap.getBucketCount()) {
+            throw new BadRequestException("Bucket must be between 0 and " + (shardMap.getBucketCount() - 1));
+        }
+        if (targetShard < 0 || targetShard >= shards.getShardCount()) {
+            throw new BadRequestException("Shard must be between 0 and " + (shards.getShardCount() - 1));
+        }
+
+        // A move back before the old rows are gone would keep their stale copies
+        if (shardMap.leftovers().stream().anyMatch(leftover -> leftover.bucket() == bucket)) {
+            throw new BadRequestException("Bucket " + bucket + " still has rows left on its previous shard; "
+                    + "retry once every node has picked up the last move");
+        }
+
+        int sourceShard = shardMap.shardForBucket(bucket);
+        long moved = 0;
+        if (sourceShard != targetShard) {
+            moved = move(bucket, sourceShard, targetShard);
+        }
+
+        return new BucketMoveResponse(bucket, sourceShard, targetShard, moved);
+    }
+
+    // Greedy plan: repeatedly move the bucket from the busiest shard to the
+    // quietest one that narrows the gap the most, until nothing improves it
+    public synchronized List<BucketMoveResponse> rebalance(int maxMoves) {
+        Map<Integer, Long> bucketLoad = loadPerBucket();
+        long[] shardLoad = new long[shards.getShardCount()];
+        int[] assignment = new int[shardMap.getBucketCount()];
+        for (int bucket = 0; bucket < assignment.length; bucket++) {
+            assignment[bucket] = shardMap.shardForBucket(bucket);
+            shardLoad[assignment[bucket]] += bucketLoad.getOrDefault(bucket, 0L);
+        }
+
+        List<BucketMoveResponse> moves = new ArrayList<>();
+        while (moves.size() < maxMoves) {
+            int busiest = 0;
+            int quietest = 0;
+            for (int shard = 1; shard < shardLoad.length; shard++) {
+                busiest = shardLoad[shard] > shardLoad[busiest] ? shard : busiest;
+                quietest = shardLoad[shard] < shardLoad[quietest] ? shard : quietest;
+            }
+            long gap = shardLoad[busiest] - shardLoad[quietest];
+
+            int candidate = -1;
+            long bestGap = gap;
+            for (int bucket = 0; bucket < assignment.length; bucket++) {
+                long load = bucketLoad.getOrDefault(bucket, 0L);
+                if (assignment[bucket] == busiest && load > 0 && Math.abs(gap - 2 * load) < bestGap) {
+                    bestGap = Math.abs(gap - 2 * load);
+                    candidate = bucket;
+                }
+            }
+            if (candidate < 0) {
+                break;
+            }
+
+            long load = bucketLoad.get(candidate);
+            moves.add(moveBucket(candidate, quietest));
+            assignment[candidate] = quietest;
+            shardLoad[busiest] -= load;
+            shardLoad[quietest] += load;
+        }
+        return moves;
+    }
+
+    private long move(int bucket, int sourceShard, int targetShard) {
+        logger.info("Moving bucket {} from shard {} to shard {}", bucket, sourceShard, targetShard);
+        long marked = shardMap.markMoving(bucket, true);
+        try {
+            // Other nodes pick the mark up on their next map refresh
+            if (!shardMap.awaitAcknowledged(marked, properties.getMoveGracePeriod())) {
+                shardMap.markMoving(bucket, false);
+                throw new IllegalStateException("Not every node picked up the move of bucket " + bucket + " in time");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            shardMap.markMoving(bucket, false);
+            throw new IllegalStateException("Interrupted before moving bucket " + bucket, ex);
+        }
+
+        List<Long> owners = ownersInBucket(bucket);
+        long moved = 0;
+        try {
+            for (List<Long> chunk : chunks(owners)) {
+                String where = "created_by_id IN (" + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")";
+                for (String table : OWNER_TABLES) {
+                    int copied = ShardRowCopier.copy(shards.getShard(sourceShard), shards.getShard(targetShard),
+                            table, where, chunk.toArray()).size();
+                    if ("tasks".equals(table)) {
+                        moved += copied;
+                    }
+                }
+            }
+        } catch (RuntimeException ex) {
+            // The source still holds everything; leave the bucket where it was
+            shardMap.markMoving(bucket, false);
+            throw ex;
+        }
+
+        long assigned = shardMap.assign(bucket, targetShard);
+        try {
+            // Nodes still on the old map read from the old shard until they reload
+            if (shardMap.awaitAcknowledged(assigned, properties.getMoveGracePeriod())) {
+                deleteLeftovers();
+            } else {
+                logger.warn("Rows of bucket {} stay on shard {} until every node has picked up the move",
+                        bucket, sourceShard);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        logger.info("Moved bucket {} ({} owners, {} tasks) to shard {}", bucket, owners.size(), moved, targetShard);
+        return moved;
+    }
+
+    // Deletes the rows moved buckets left on their old shards, once every node has
+    // loaded the map that moved them
+    @Scheduled(fixedDelayString = "${app.sharding.map-refresh-interval:10000}")
+    public synchronized void deleteLeftovers() {
+        for (ShardMap.Leftover leftover : shardMap.leftovers()) {
+            if (!shardMap.isAcknowledged(leftover.version())) {
+                continue;
+            }
+            JdbcTemplate source = new JdbcTemplate(shards.getShard(leftover.shard()));
+            for (List<Long> chunk : chunks(ownersInBucket(leftover.bucket()))) {
+                String where = "created_by_id IN (" + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")";
+                for (String table : OWNER_TABLES) {
+                    source.update("DELETE FROM " + table + " WHERE " + where, chunk.toArray());
+                }
+            }
+            shardMap.clearLeftover(leftover);
+            logger.info("Deleted the rows bucket {} left on shard {}", leftover.bucket(), leftover.shard());
+        }
+    }
+
+    private List<Long> ownersInBucket(int bucket) {
+        return new JdbcTemplate(shards.getShard(ShardContext.DEFAULT_SHARD))
+                .queryForList("SELECT id FROM users", Long.class).stream()
+                .filter(id -> shardMap.bucketFor(id) == bucket)
+                .toList();
+    }
+
+    private Map<Integer, Long> loadPerBucket() {
+        Map<Integer, Long> load = new HashMap<>();
+        for (int shard = 0; shard < shards.getShardCount(); shard++) {
+            new JdbcTemplate(shards.getShard(shard)).query(
+                    "SELECT created_by_id, COUNT(*) AS tasks FROM tasks GROUP BY created_by_id",
+                    rs -> {
+                        load.merge(shardMap.bucketFor(rs.getLong("created_by_id")), rs.getLong("tasks"), Long::sum);
+                    });
+        }
+        return load;
+    }
+
+    private List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int start = 0; start < ids.size(); start += OWNER_CHUNK) {
+            chunks.add(ids.subList(start, Math.min(start + OWNER_CHUNK, ids.size())));
+        }
+        return chunks;
+    }
+}
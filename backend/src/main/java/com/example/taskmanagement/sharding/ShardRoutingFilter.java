@@ -0,0 +1,134 @@
+package com.example.taskmanagement.sharding;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Picks the shard for task requests. Registered as a plain servlet filter, so it
+// runs after the security chain and sees the authenticated caller:
+//  - requests for one task by an admin go to the shard that owns that task
+//  - everything else goes to the caller's home shard (their own tasks live there)
+// Non-task endpoints stay on shard 0.
+@Component
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardRoutingFilter extends OncePerRequestFilter {
+
+    private static final Pattern SINGLE_TASK = Pattern.compile("^/api/v1/tasks/(\\d+)(?:/.*)?$");
+
+    private final ShardMap shardMap;
+    private final ShardRoutingDataSource shards;
+    private final JdbcTemplate users;
+
+    // Emails never change and ids are never reused, so this can be cached for good
+    private final Map<String, Long> userIds = new ConcurrentHashMap<>();
+
+    public ShardRoutingFilter(ShardMap shardMap, ShardRoutingDataSource shards) {
+        this.shardMap = shardMap;
+        this.shards = shards;
+        this.users = new JdbcTemplate(shards.getShard(ShardContext.DEFAULT_SHARD));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/v1/tasks");
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Long userId = resolveUserId(authentication.getName());
+        if (userId == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long owner = userId;
+        Matcher singleTask = SINGLE_TASK.matcher(request.getRequestURI());
+        if (singleTask.matches() && isAdmin(authentication)) {
+            Long taskOwner = findTaskOwner(Long.parseLong(singleTask.group(1)));
+            if (taskOwner != null) {
+                owner = taskOwner;
+            }
+        }
+
+        // The owner's rows are being copied to another shard; writes would be lost.
+        // Requests are turned away here, before any work; ShardWriteGuard checks every
+        // write again, including those of background jobs
+        if (!HttpMethod.GET.matches(request.getMethod()) && shardMap.isMoving(owner)) {
+            response.setHeader("Retry-After", "5");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Tasks are being moved between shards, retry shortly");
+            return;
+        }
+
+        ShardContext.set(shardMap.shardForOwner(owner));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ShardContext.clear();
+        }
+    }
+
+    private Long resolveUserId(String email) {
+        Long cached = userIds.get(email);
+        if (cached != null) {
+            return cached;
+        }
+        List<Long> ids = users.queryForList("SELECT id FROM users WHERE email = ?", Long.class, email);
+        if (ids.isEmpty()) {
+            return null;
+        }
+        userIds.put(email, ids.get(0));
+        return ids.get(0);
+    }
+
+    private boolean isAdmin(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
+
+    // Any shard holding the row knows its owner; the bucket map then says which
+    // shard is authoritative. The shard the id was allocated on is tried first.
+    private Long findTaskOwner(long taskId) {
+        int origin = (int) (taskId / ShardSchemaInitializer.TASK_ID_BLOCK);
+        int count = shards.getShardCount();
+        for (int i = 0; i < count; i++) {
+            int shard = (origin + i) % count;
+            List<Long> owners = new JdbcTemplate(shards.getShard(shard)).queryForList(
+                    "SELECT created_by_id FROM tasks WHERE id = ? "
+                            + "UNION ALL SELECT created_by_id FROM tasks_archive WHERE id = ?",
+                    Long.class, taskId, taskId);
+            if (!owners.isEmpty()) {
+                return owners.get(0);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.taskmanagement.sharding;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Copies rows between shards column-for-column (ids included), reading the
+// column list from the result set so new entity fields are carried along.
+// Rows are streamed from the source and written CHUNK at a time, so neither
+// memory nor the size of the IN list grows with the number of rows.
+public final class ShardRowCopier {
+
+    private static final int CHUNK = 500;
+
+    private ShardRowCopier() {
+    }
+
+    // Returns the ids of the copied rows; rows whose id already exists on the target are skipped
+    public static List<Long> copy(DataSource source, DataSource target, String table, String where, Object... args) {
+        JdbcTemplate from = new JdbcTemplate(source);
+        from.setFetchSize(CHUNK);
+        JdbcTemplate to = new JdbcTemplate(target);
+
+        List<String> columns = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>(CHUNK);
+        List<Long> copied = new ArrayList<>();
+        from.query("SELECT * FROM " + table + " WHERE " + where, rs -> {
+            if (columns.isEmpty()) {
+                ResultSetMetaData meta = rs.getMetaData();
+                for (int i = 1; i <= meta.getColumnCount(); i++) {
+                    columns.add(meta.getColumnName(i).toLowerCase());
+                }
+            }
+            Object[] row = new Object[columns.size()];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = rs.getObject(i + 1);
+            }
+            rows.add(row);
+            if (rows.size() == CHUNK) {
+                copied.addAll(insertMissing(to, table, columns, rows));
+                rows.clear();
+            }
+        }, args);
+
+        if (!rows.isEmpty()) {
+            copied.addAll(insertMissing(to, table, columns, rows));
+        }
+        return copied;
+    }
+
+    private static List<Long> insertMissing(JdbcTemplate to, String table, List<String> columns, List<Object[]> rows) {
+        int idIndex = columns.indexOf("id");
+        List<Long> ids = rows.stream().map(row -> ((Number) row[idIndex]).longValue()).toList();
+        Set<Long> present = new HashSet<>(to.queryForList("SELECT id FROM " + table + " WHERE id IN ("
+                + String.join(",", Collections.nCopies(ids.size(), "?")) + ")", Long.class, ids.toArray()));
+
+        List<Object[]> missing = new ArrayList<>();
+        List<Long> missingIds = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (!present.contains(ids.get(i))) {
+                missing.add(rows.get(i));
+                missingIds.add(ids.get(i));
+            }
+        }
+        if (!missing.isEmpty()) {
+            to.batchUpdate("INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                    + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")", missing);
+        }
+        return missingIds;
+    }
+}
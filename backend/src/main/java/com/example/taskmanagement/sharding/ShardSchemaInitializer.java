@@ -0,0 +1,97 @@
+package com.example.taskmanagement.sharding;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+// Brings shards 1..n in line with shard 0 once Hibernate is up: Hibernate's own
+// schema generation only ever sees the default shard.
+@Component
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardSchemaInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardSchemaInitializer.class);
+
+    // Task ids are allocated from a disjoint range per shard so an id stays
+    // unique (and hints at its shard) after rows move between shards
+    public static final long TASK_ID_BLOCK = 1_000_000_000_000L;
+
+    // Tables that need shard-unique ids: rows that move with their owner, and outbox
+    // events, whose ids webhook consumers use to drop duplicates
+    private static final List<String> ID_RANGE_TABLES = List.of("tasks", "task_history", "task_event_outbox");
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ShardRoutingDataSource shards;
+    private final ShardingProperties properties;
+    private final UserShardReplicator userShardReplicator;
+    private final ShardWriteGuard shardWriteGuard;
+
+    public ShardSchemaInitializer(EntityManagerFactory entityManagerFactory, ShardRoutingDataSource shards,
+                                  ShardingProperties properties, UserShardReplicator userShardReplicator,
+                                  ShardWriteGuard shardWriteGuard) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.shards = shards;
+        this.properties = properties;
+        this.userShardReplicator = userShardReplicator;
+        this.shardWriteGuard = shardWriteGuard;
+    }
+
+    @PostConstruct
+    public void initializeShards() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+
+        for (int shard = 1; shard < shards.getShardCount(); shard++) {
+            if (properties.isInitializeSchemas()) {
+                ShardContext.runOn(shard, () -> sessionFactory.getSchemaManager().exportMappedObjects(true));
+            }
+            for (String table : ID_RANGE_TABLES) {
+                reserveIdRange(shard, table);
+            }
+        }
+
+        EventListenerRegistry listeners = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_COMMIT_INSERT, userShardReplicator);
+        listeners.appendListeners(EventType.PRE_INSERT, shardWriteGuard);
+        listeners.appendListeners(EventType.PRE_UPDATE, shardWriteGuard);
+        listeners.appendListeners(EventType.PRE_DELETE, shardWriteGuard);
+        userShardReplicator.syncAll();
+
+        logger.info("Sharding enabled across {} shards", shards.getShardCount());
+    }
+
+    private void reserveIdRange(int shard, String table) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(shards.getShard(shard));
+        long start = shard * TASK_ID_BLOCK + 1;
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        if (max != null && max >= start) {
+            return;
+        }
+
+        if (isMySql(jdbcTemplate)) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " AUTO_INCREMENT = " + start);
+        } else {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + start);
+        }
+    }
+
+    private boolean isMySql(JdbcTemplate jdbcTemplate) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((Connection connection) -> {
+            try {
+                return connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+            } catch (SQLException ex) {
+                return false;
+            }
+        }));
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.taskmanagement.sharding;
+
+import com.example.taskmanagement.entity.ArchivedTask;
+import com.example.taskmanagement.entity.Task;
+import com.example.taskmanagement.entity.TaskHistory;
+import com.example.taskmanagement.exception.ServiceUnavailableException;
+import org.hibernate.event.spi.PreDeleteEvent;
+import org.hibernate.event.spi.PreDeleteEventListener;
+import org.hibernate.event.spi.PreInsertEvent;
+import org.hibernate.event.spi.PreInsertEventListener;
+import org.hibernate.event.spi.PreUpdateEvent;
+import org.hibernate.event.spi.PreUpdateEventListener;
+
+import java.util.OptionalInt;
+
+// Refuses writes to an owner's rows while their bucket is moving, or on a shard
+// that no longer owns them (rows left behind by a move). Registered with Hibernate,
+// so every entity write is checked whoever makes it: requests, the due-date
+// scheduler, admin claims across shards. Writers that bypass entities (bulk
+// updates, plain JDBC) call it themselves.
+public class ShardWriteGuard implements PreInsertEventListener, PreUpdateEventListener, PreDeleteEventListener {
+
+    private final ShardMap shardMap;
+
+    public ShardWriteGuard(ShardMap shardMap) {
+        this.shardMap = shardMap;
+    }
+
+    public boolean isWritable(long ownerId, int shard) {
+        return !shardMap.isMoving(ownerId) && shardMap.shardForOwner(ownerId) == shard;
+    }
+
+    // The shard an owner's rows are written to now; empty while they are moving
+    public OptionalInt writableShard(long ownerId) {
+        return shardMap.isMoving(ownerId) ? OptionalInt.empty() : OptionalInt.of(shardMap.shardForOwner(ownerId));
+    }
+
+    // For jobs that work on a whole shard at a time
+    public boolean isSettled(int shard) {
+        return shardMap.isSettled(shard);
+    }
+
+    public void check(long ownerId) {
+        if (!isWritable(ownerId, ShardContext.current())) {
+            throw new ServiceUnavailableException("Tasks are being moved between shards, retry shortly");
+        }
+    }
+
+    @Override
+    public boolean onPreInsert(PreInsertEvent event) {
+        checkEntity(event.getEntity());
+        return false;
+    }
+
+    @Override
+    public boolean onPreUpdate(PreUpdateEvent event) {
+        checkEntity(event.getEntity());
+        return false;
+    }
+
+    @Override
+    public boolean onPreDelete(PreDeleteEvent event) {
+        checkEntity(event.getEntity());
+        return false;
+    }
+
+    private void checkEntity(Object entity) {
+        Long owner = null;
+        if (entity instanceof Task task && task.getCreatedBy() != null) {
+            owner = task.getCreatedBy().getId();
+        } else if (entity instanceof ArchivedTask archived) {
+            owner = archived.getCreatedById();
+        } else if (entity instanceof TaskHistory history) {
+            owner = history.getCreatedById();
+        }
+        if (owner != null) {
+            check(owner);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.taskmanagement.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(ShardingProperties properties, Environment environment) {
+        if (environment.getProperty("app.datasource.routing.enabled", Boolean.class, false)) {
+            throw new IllegalStateException("app.sharding and app.datasource.routing cannot be enabled together");
+        }
+        if (properties.getShards().isEmpty()) {
+            throw new IllegalStateException("app.sharding.enabled is true but no app.sharding.shards are configured");
+        }
+
+        List<DataSource> shards = new ArrayList<>();
+        for (ShardingProperties.Shard shard : properties.getShards()) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("shard-" + shards.size());
+            dataSource.setJdbcUrl(shard.getUrl());
+            dataSource.setUsername(shard.getUsername());
+            dataSource.setPassword(shard.getPassword());
+            if (shard.getDriverClassName() != null) {
+                dataSource.setDriverClassName(shard.getDriverClassName());
+            }
+            dataSource.setMaximumPoolSize(shard.getPoolSize());
+            shards.add(dataSource);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    // The shard is chosen when a transaction first touches the database, so the
+    // routing filter / scatter-gather can set ShardContext before that happens
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    @Bean
+    public ShardMap shardMap(ShardRoutingDataSource shardRoutingDataSource, ShardingProperties properties) {
+        return new ShardMap(shardRoutingDataSource.getShard(ShardContext.DEFAULT_SHARD),
+                properties.getBucketCount(), shardRoutingDataSource.getShardCount(), properties.getMapRefreshInterval());
+    }
+
+    @Bean
+    public ShardWriteGuard shardWriteGuard(ShardMap shardMap) {
+        return new ShardWriteGuard(shardMap);
+    }
+
+    @Bean
+    public UserShardReplicator userShardReplicator(ShardRoutingDataSource shardRoutingDataSource) {
+        return new UserShardReplicator(shardRoutingDataSource);
+    }
+}
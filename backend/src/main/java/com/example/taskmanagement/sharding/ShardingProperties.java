@@ -0,0 +1,44 @@
+package com.example.taskmanagement.sharding;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.sharding")
+public class ShardingProperties {
+
+    private boolean enabled = false;
+
+    // Owners hash into virtual buckets; buckets (not owners) are assigned to shards,
+    // so rebalancing moves whole buckets without rehashing everyone
+    private int bucketCount = 64;
+
+    // Create the mapped schema on shards 1..n at startup (local/dev databases)
+    private boolean initializeSchemas = true;
+
+    // Parallelism of admin scatter-gather queries
+    private int queryThreads = 8;
+
+    // How often each node re-reads the bucket map from shard 0 (ms)
+    private long mapRefreshInterval = 10000;
+
+    // Longest wait for every running node to load a map change (ms): the moving mark
+    // before rows are copied, the new shard before the old rows are deleted. Must
+    // exceed map-refresh-interval when several nodes are running
+    private long moveGracePeriod = 15000;
+
+    private List<Shard> shards = new ArrayList<>();
+
+    @Data
+    public static class Shard {
+
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private int poolSize = 10;
+    }
+}
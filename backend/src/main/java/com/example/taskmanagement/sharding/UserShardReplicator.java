@@ -0,0 +1,63 @@
+package com.example.taskmanagement.sharding;
+
+import com.example.taskmanagement.entity.User;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Users are small and read on every request, so every shard keeps a full copy:
+// tasks reference them by foreign key and the entity graphs join them locally.
+// Registered as a Hibernate post-commit listener, so a user is broadcast once
+// the insert on shard 0 has committed.
+public class UserShardReplicator implements PostCommitInsertEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserShardReplicator.class);
+
+    private final ShardRoutingDataSource shards;
+
+    public UserShardReplicator(ShardRoutingDataSource shards) {
+        this.shards = shards;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof User user) {
+            copyUsers("id = ?", user.getId());
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Nothing was committed, nothing to broadcast
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return User.class.equals(persister.getMappedClass());
+    }
+
+    // Catches up shards that missed broadcasts (node restarts, shards added later)
+    public void syncAll() {
+        copyUsers("1 = 1");
+    }
+
+    private void copyUsers(String where, Object... args) {
+        for (int shard = 0; shard < shards.getShardCount(); shard++) {
+            if (shard == ShardContext.DEFAULT_SHARD) {
+                continue;
+            }
+            try {
+                int copied = ShardRowCopier.copy(shards.getShard(ShardContext.DEFAULT_SHARD), shards.getShard(shard),
+                        "users", where, args).size();
+                if (copied > 0) {
+                    logger.debug("Copied {} users to shard {}", copied, shard);
+                }
+            } catch (Exception ex) {
+                // The startup sync repairs the gap; don't fail the registration that already committed
+                logger.error("Failed to copy users to shard {}", shard, ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.taskmanagement.startup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Reports how long a fresh instance takes to serve traffic: JVM start -> ready,
+// and JVM start -> first response written (which includes any lazily created
+// beans on the request path). Published as application.first.request.time
+// next to Boot's application.started.time / application.ready.time.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class FirstRequestTimer extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(FirstRequestTimer.class);
+
+    private final AtomicBoolean firstRequestSeen = new AtomicBoolean();
+    private volatile long listeningMillis = -1;
+    private volatile long readyMillis = -1;
+    private volatile long firstRequestMillis = -1;
+
+    public FirstRequestTimer(MeterRegistry meterRegistry) {
+        TimeGauge.builder("application.first.request.time", this, TimeUnit.MILLISECONDS,
+                        timer -> timer.firstRequestMillis)
+                .description("Time from JVM start until the first HTTP response was complete")
+                .register(meterRegistry);
+    }
+
+    // The port accepts requests from here on, before runners and ApplicationReadyEvent
+    @EventListener(WebServerInitializedEvent.class)
+    public void onListening() {
+        listeningMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        readyMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (firstRequestSeen.get()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (firstRequestSeen.compareAndSet(false, true)) {
+                firstRequestMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+                logger.info("Startup report: listening after {} ms, ready after {}, first request ({} {}) took {} ms, "
+                                + "first response {} ms after JVM start",
+                        listeningMillis, readyMillis >= 0 ? readyMillis + " ms" : "(not yet)",
+                        request.getMethod(), request.getRequestURI(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), firstRequestMillis);
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.taskmanagement.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Hierarchical timing wheel: LEVELS wheels of SLOTS slots each, where a slot on
+// level n spans SLOTS^n ticks. A timeout goes into the slot for the highest digit
+// (base SLOTS) in which its tick differs from the current tick, so scheduling and
+// cancelling are O(1) whatever the number of pending timeouts. When a lower wheel
+// wraps, the next slot of the wheel above is cascaded down. Slots are intrusive
+// doubly linked lists, so a pending timeout costs one small object.
+//
+// Four levels of 256 slots cover 2^32 ticks (136 years at one-second ticks);
+// anything further out waits in an overflow list until the top wheel wraps.
+public final class TimingWheel<T> {
+
+    private static final int BITS = 8;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final Timeout<T>[][] wheels;
+    private final Timeout<T> overflow = Timeout.head();
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.wheels = new Timeout[LEVELS][SLOTS];
+        for (Timeout<T>[] wheel : wheels) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                wheel[slot] = Timeout.head();
+            }
+        }
+    }
+
+    // A deadline that has already passed expires on the next tick
+    public synchronized Timeout<T> schedule(T payload, long deadlineMillis) {
+        long tick = Math.floorDiv(deadlineMillis - startMillis + tickMillis - 1, tickMillis);
+        Timeout<T> timeout = new Timeout<>(payload, tick);
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    public synchronized boolean cancel(Timeout<T> timeout) {
+        if (!timeout.isLinked()) {
+            return false;
+        }
+        timeout.unlink();
+        size--;
+        return true;
+    }
+
+    public synchronized boolean isPending(Timeout<T> timeout) {
+        return timeout.isLinked();
+    }
+
+    // Moves the wheel up to now and returns everything that expired on the way
+    public synchronized List<Timeout<T>> advance(long nowMillis) {
+        long targetTick = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        List<Timeout<T>> expired = new ArrayList<>();
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = 1; level < LEVELS && (currentTick & digitMask(level)) == 0; level++) {
+                cascade(wheels[level][digit(currentTick, level)], expired);
+            }
+            if ((currentTick & digitMask(LEVELS)) == 0) {
+                cascade(overflow, expired);
+            }
+            drain(wheels[0][digit(currentTick, 0)], expired);
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void place(Timeout<T> timeout) {
+        long tick = Math.max(timeout.tick, currentTick + 1);
+        int level = (63 - Long.numberOfLeadingZeros(tick ^ currentTick)) / BITS;
+        Timeout<T> head = level < LEVELS ? wheels[level][digit(tick, level)] : overflow;
+        timeout.linkBefore(head);
+    }
+
+    private void cascade(Timeout<T> head, List<Timeout<T>> expired) {
+        for (Timeout<T> timeout = head.next; timeout != head; ) {
+            Timeout<T> next = timeout.next;
+            timeout.unlink();
+            if (timeout.tick <= currentTick) {
+                expired.add(timeout);
+                size--;
+            } else {
+                place(timeout);
+            }
+            timeout = next;
+        }
+    }
+
+    private void drain(Timeout<T> head, List<Timeout<T>> expired) {
+        for (Timeout<T> timeout = head.next; timeout != head; ) {
+            Timeout<T> next = timeout.next;
+            timeout.unlink();
+            expired.add(timeout);
+            size--;
+            timeout = next;
+        }
+    }
+
+    private static int digit(long tick, int level) {
+        return (int) (tick >>> (BITS * level)) & MASK;
+    }
+
+    // Ticks below this level's digit
+    private static long digitMask(int level) {
+        return (1L << (BITS * level)) - 1;
+    }
+
+    public static final class Timeout<T> {
+
+        private final T payload;
+        private final long tick;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(T payload, long tick) {
+            this.payload = payload;
+            this.tick = tick;
+        }
+
+        // Slot heads are sentinels pointing at themselves
+        private static <T> Timeout<T> head() {
+            Timeout<T> head = new Timeout<>(null, 0);
+            head.prev = head;
+            head.next = head;
+            return head;
+        }
+
+        public T payload() {
+            return payload;
+        }
+
+        private boolean isLinked() {
+            return next != null;
+        }
+
+        private void linkBefore(Timeout<T> head) {
+            prev = head.prev;
+            next = head;
+            head.prev.next = this;
+            head.prev = this;
+        }
+
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.taskmanagement.webhook;
+
+import com.example.taskmanagement.entity.TaskEventOutbox;
+import com.example.taskmanagement.event.TaskChangedEvent;
+import com.example.taskmanagement.event.TasksImportedEvent;
+import com.example.taskmanagement.repository.TaskEventOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Runs synchronously inside the TaskService transaction, so an event is stored
+// if and only if the task change commits (transactional outbox). Every change is
+// written, endpoints or not: which endpoints get it is the dispatcher's business,
+// and events nobody needs are purged after app.webhooks.outbox-retention.
+@Component
+@ConditionalOnProperty(prefix = "app.webhooks", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TaskEventOutboxWriter {
+
+    @Autowired
+    private TaskEventOutboxRepository outboxRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @EventListener
+    public void onTaskChanged(TaskChangedEvent event) throws JsonProcessingException {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("type", event.getType());
+        payload.put("taskId", event.getTaskId());
+        payload.put("task", event.getTask());
+        payload.put("occurredAt", event.getOccurredAt());
+
+        save(event.getType().name(), event.getTaskId(), payload);
+    }
+
+    // One event per import batch rather than one per imported task
+    @EventListener
+    public void onTasksImported(TasksImportedEvent event) throws JsonProcessingException {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("type", "IMPORTED");
+        payload.put("ownerId", event.getOwnerId());
+        payload.put("taskIds", event.getTaskIds());
+        payload.put("occurredAt", event.getOccurredAt());
+        save("IMPORTED", null, payload);
+    }
+
+    private void save(String eventType, Long taskId, Map<String, Object> payload) throws JsonProcessingException {
+        TaskEventOutbox outbox = new TaskEventOutbox();
+        outbox.setEventType(eventType);
+        outbox.setTaskId(taskId);
+        outbox.setPayload(objectMapper.writeValueAsString(payload));
+        outbox.setCreatedAt(LocalDateTime.now());
+        outboxRepository.save(outbox);
+    }
+}
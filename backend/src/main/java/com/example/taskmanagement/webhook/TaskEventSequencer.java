@@ -0,0 +1,74 @@
+package com.example.taskmanagement.webhook;
+
+import com.example.taskmanagement.entity.TaskEventOutbox;
+import com.example.taskmanagement.entity.TaskEventSequence;
+import com.example.taskmanagement.repository.TaskEventOutboxRepository;
+import com.example.taskmanagement.repository.TaskEventSequenceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// Numbers committed outbox events in the order they become visible. Outbox ids are
+// taken at insert, so a transaction that commits late leaves a lower id behind one
+// that was already delivered; a cursor over ids would skip it. Only committed rows
+// are visible here, and sequencing is serialised on the task_event_sequence row, so
+// an event committing late simply gets the next sequence when it shows up.
+@Component
+public class TaskEventSequencer {
+
+    @Autowired
+    private TaskEventOutboxRepository outboxRepository;
+
+    @Autowired
+    private TaskEventSequenceRepository sequenceRepository;
+
+    @Value("${app.webhooks.sequence-batch-size:1000}")
+    private int batchSize;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public TaskEventSequencer(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Sequences every event committed so far on the current shard, a batch per transaction
+    public void sequencePending() {
+        int sequenced;
+        do {
+            sequenced = sequenceBatch();
+        } while (sequenced == batchSize);
+    }
+
+    private int sequenceBatch() {
+        try {
+            Integer sequenced = transactionTemplate.execute(status -> {
+                TaskEventSequence sequence = sequenceRepository.findByIdForUpdate(TaskEventSequence.ID)
+                        .orElseGet(this::createSequence);
+
+                List<TaskEventOutbox> pending = outboxRepository.findByCommitSequenceIsNullOrderByIdAsc(
+                        PageRequest.of(0, batchSize));
+                long next = sequence.getLastValue();
+                for (TaskEventOutbox event : pending) {
+                    event.setCommitSequence(++next);
+                }
+                sequence.setLastValue(next);
+                return pending.size();
+            });
+            return sequenced != null ? sequenced : 0;
+        } catch (DataIntegrityViolationException ex) {
+            // Another node created the sequence row first; it is there next time
+            return 0;
+        }
+    }
+
+    private TaskEventSequence createSequence() {
+        return sequenceRepository.saveAndFlush(
+                new TaskEventSequence(TaskEventSequence.ID, outboxRepository.findMaxCommitSequence()));
+    }
+}
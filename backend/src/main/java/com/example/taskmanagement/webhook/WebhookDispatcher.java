@@ -0,0 +1,302 @@
+package com.example.taskmanagement.webhook;
+
+import com.example.taskmanagement.entity.TaskEventOutbox;
+import com.example.taskmanagement.entity.WebhookCursor;
+import com.example.taskmanagement.entity.WebhookDeadLetter;
+import com.example.taskmanagement.entity.WebhookEndpoint;
+import com.example.taskmanagement.repository.TaskEventOutboxRepository;
+import com.example.taskmanagement.repository.WebhookCursorRepository;
+import com.example.taskmanagement.repository.WebhookDeadLetterRepository;
+import com.example.taskmanagement.repository.WebhookEndpointRepository;
+import com.example.taskmanagement.sharding.ShardContext;
+import com.example.taskmanagement.sharding.ShardRoutingDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Polls the outbox and pushes batches of events to each active endpoint, in the
+// commit order TaskEventSequencer assigns. Each endpoint has a cursor over that
+// order. At most one batch per endpoint is in flight, which keeps per-endpoint
+// order, and a semaphore caps how many endpoints are being called at once.
+// With sharding, events are written to the outbox of the shard that changed, so
+// every shard is drained on its own: sequence, cursors and retries are per shard,
+// while endpoints and dead letters stay on shard 0.
+@Component
+@ConditionalOnProperty(prefix = "app.webhooks", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class WebhookDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebhookDispatcher.class);
+
+    @Autowired
+    private WebhookEndpointRepository endpointRepository;
+
+    @Autowired
+    private TaskEventOutboxRepository outboxRepository;
+
+    @Autowired
+    private WebhookDeadLetterRepository deadLetterRepository;
+
+    @Autowired
+    private WebhookCursorRepository cursorRepository;
+
+    @Autowired
+    private TaskEventSequencer sequencer;
+
+    @Autowired(required = false)
+    private ShardRoutingDataSource shards;
+
+    @Value("${app.webhooks.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.webhooks.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.webhooks.initial-backoff:1000}")
+    private long initialBackoffMillis;
+
+    @Value("${app.webhooks.max-backoff:300000}")
+    private long maxBackoffMillis;
+
+    @Value("${app.webhooks.request-timeout:10000}")
+    private long requestTimeoutMillis;
+
+    @Value("${app.webhooks.outbox-retention:86400000}")
+    private long outboxRetentionMillis;
+
+    private final Set<Delivery> inFlight = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final HttpClient httpClient;
+    private final TransactionTemplate transactionTemplate;
+
+    public WebhookDispatcher(@Value("${app.webhooks.max-concurrent-deliveries:8}") int maxConcurrentDeliveries,
+                             PlatformTransactionManager transactionManager) {
+        this.permits = new Semaphore(maxConcurrentDeliveries);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${app.webhooks.poll-interval:1000}")
+    public void dispatch() {
+        List<WebhookEndpoint> endpoints = endpointRepository.findByActiveTrue();
+        int shardCount = shards != null ? shards.getShardCount() : 1;
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            ShardContext.runOn(target, () -> dispatchShard(target, endpoints));
+        }
+    }
+
+    // Events every active endpoint has moved past are no longer needed; without any
+    // active endpoint, everything sequenced is
+    @Scheduled(fixedDelay = 3600000)
+    public void purgeDeliveredEvents() {
+        List<Long> endpointIds = endpointRepository.findAllIds();
+        List<WebhookEndpoint> active = endpointRepository.findByActiveTrue();
+        LocalDateTime before = LocalDateTime.now().minus(Duration.ofMillis(outboxRetentionMillis));
+        int shardCount = shards != null ? shards.getShardCount() : 1;
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            ShardContext.runOn(target, () -> purgeShard(target, endpointIds, active, before));
+        }
+    }
+
+    private void dispatchShard(int shard, List<WebhookEndpoint> endpoints) {
+        sequencer.sequencePending();
+
+        LocalDateTime now = LocalDateTime.now();
+        for (WebhookEndpoint endpoint : endpoints) {
+            Delivery delivery = new Delivery(endpoint.getId(), shard);
+            if (!inFlight.add(delivery)) {
+                continue;
+            }
+            if (!permits.tryAcquire()) {
+                inFlight.remove(delivery);
+                return;
+            }
+
+            boolean sent = false;
+            try {
+                WebhookCursor cursor = cursorFor(endpoint);
+                if (cursor.getNextAttemptAt() == null || !cursor.getNextAttemptAt().isAfter(now)) {
+                    sent = sendNextBatch(endpoint, delivery, cursor);
+                }
+            } catch (RuntimeException ex) {
+                logger.error("Could not dispatch webhook batch to endpoint {} from shard {}", endpoint.getId(), shard, ex);
+            } finally {
+                if (!sent) {
+                    release(delivery);
+                }
+            }
+        }
+    }
+
+    private void purgeShard(int shard, List<Long> endpointIds, List<WebhookEndpoint> active, LocalDateTime before) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (endpointIds.isEmpty()) {
+                cursorRepository.deleteAllInBatch();
+            } else {
+                cursorRepository.deleteByEndpointIdNotIn(endpointIds);
+            }
+        });
+
+        // Cursors are created on first use; an endpoint without one would not hold anything back
+        active.forEach(this::cursorFor);
+        Long upTo = active.isEmpty() ? outboxRepository.findMaxCommitSequence()
+                : cursorRepository.findMinLastSequence(active.stream().map(WebhookEndpoint::getId).toList());
+        Integer purged = transactionTemplate.execute(status -> outboxRepository.deleteDelivered(upTo, before));
+        if (purged != null && purged > 0) {
+            logger.info("Purged {} delivered task events from the outbox on shard {}", purged, shard);
+        }
+    }
+
+    private boolean sendNextBatch(WebhookEndpoint endpoint, Delivery delivery, WebhookCursor cursor) {
+        List<TaskEventOutbox> batch = outboxRepository.findByCommitSequenceGreaterThanOrderByCommitSequenceAsc(
+                cursor.getLastSequence(), PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return false;
+        }
+
+        String body = toBody(batch);
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(endpoint.getUrl()))
+                .timeout(Duration.ofMillis(requestTimeoutMillis))
+                .header("Content-Type", "application/json")
+                .header("X-Webhook-Batch-Size", String.valueOf(batch.size()))
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (endpoint.getSecret() != null && !endpoint.getSecret().isEmpty()) {
+            request.header("X-Webhook-Signature", "sha256=" + sign(endpoint.getSecret(), body));
+        }
+
+        // The HTTP call runs on the client's executor; nothing here waits for it.
+        // That thread has no shard of its own: cursors are updated on the batch's shard,
+        // the endpoint on shard 0.
+        httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    try {
+                        if (error == null && response.statusCode() / 100 == 2) {
+                            ShardContext.runOn(delivery.shard(),
+                                    () -> cursorRepository.advance(endpoint.getId(), lastSequence(batch)));
+                            endpointRepository.markDelivered(endpoint.getId());
+                        } else {
+                            String reason = error != null ? error.toString() : "HTTP " + response.statusCode();
+                            onFailure(endpoint, delivery, cursor, batch, reason);
+                        }
+                    } catch (RuntimeException ex) {
+                        logger.error("Could not record webhook delivery result for endpoint {}", endpoint.getId(), ex);
+                    } finally {
+                        release(delivery);
+                    }
+                });
+        return true;
+    }
+
+    private void onFailure(WebhookEndpoint endpoint, Delivery delivery, WebhookCursor cursor,
+                           List<TaskEventOutbox> batch, String reason) {
+        int failures = cursor.getFailureCount() + 1;
+        String error = reason.length() > 500 ? reason.substring(0, 500) : reason;
+
+        if (failures >= maxAttempts) {
+            logger.warn("Dead-lettering {} events for webhook endpoint {} after {} attempts: {}",
+                    batch.size(), endpoint.getId(), failures, error);
+            // Dead letters live on shard 0 and the cursor on the batch's shard, so this is
+            // two transactions: dead letters first, at worst a batch is dead-lettered twice
+            transactionTemplate.executeWithoutResult(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                deadLetterRepository.saveAll(batch.stream()
+                        .map(event -> new WebhookDeadLetter(null, endpoint.getId(), event.getId(), event.getPayload(), error, now))
+                        .toList());
+            });
+            ShardContext.runOn(delivery.shard(), () -> cursorRepository.advance(endpoint.getId(), lastSequence(batch)));
+            endpointRepository.markDelivered(endpoint.getId());
+            return;
+        }
+
+        // Exponential backoff with +/-20% jitter so failing endpoints don't retry in lockstep
+        long backoff = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(failures - 1, 30));
+        backoff = (long) (backoff * ThreadLocalRandom.current().nextDouble(0.8, 1.2));
+        LocalDateTime nextAttemptAt = LocalDateTime.now().plus(Duration.ofMillis(backoff));
+        logger.debug("Webhook delivery to endpoint {} failed ({}), retrying in {} ms", endpoint.getId(), error, backoff);
+        ShardContext.runOn(delivery.shard(),
+                () -> cursorRepository.markFailed(endpoint.getId(), failures, nextAttemptAt));
+        endpointRepository.markFailed(endpoint.getId(), failures, nextAttemptAt, error);
+    }
+
+    // A new endpoint starts with the first event recorded after it was registered
+    private WebhookCursor cursorFor(WebhookEndpoint endpoint) {
+        Optional<WebhookCursor> cursor = cursorRepository.findById(endpoint.getId());
+        if (cursor.isPresent()) {
+            return cursor.get();
+        }
+
+        Long first = outboxRepository.findMinCommitSequenceSince(endpoint.getCreatedAt());
+        long start = first != null ? first - 1 : outboxRepository.findMaxCommitSequence();
+        try {
+            return cursorRepository.saveAndFlush(new WebhookCursor(endpoint.getId(), start));
+        } catch (DataIntegrityViolationException ex) {
+            // Another node got there first
+            return cursorRepository.findById(endpoint.getId()).orElseThrow(() -> ex);
+        }
+    }
+
+    private void release(Delivery delivery) {
+        inFlight.remove(delivery);
+        permits.release();
+    }
+
+    private String toBody(List<TaskEventOutbox> batch) {
+        StringBuilder body = new StringBuilder("{\"events\":[");
+        for (int i = 0; i < batch.size(); i++) {
+            TaskEventOutbox event = batch.get(i);
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append("{\"id\":").append(event.getId())
+                    .append(",\"event\":").append(event.getPayload())
+                    .append('}');
+        }
+        return body.append("]}").toString();
+    }
+
+    private Long lastSequence(List<TaskEventOutbox> batch) {
+        return batch.get(batch.size() - 1).getCommitSequence();
+    }
+
+    private String sign(String secret, String body) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal(body.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception ex) {
+            throw new IllegalStateException("Could not sign webhook payload", ex);
+        }
+    }
+
+    // One endpoint's deliveries from one shard's outbox
+    private record Delivery(long endpointId, int shard) {
+    }
+}
@@ -0,0 +1,15 @@
+-- Schema of the H2 replica database (profile "replicas"), run on every connection to it.
+-- Each table is linked read-only to the primary's, as the REPLICA user that may only
+-- SELECT there. Until the primary's schema exists this fails and the replica stays out
+-- of rotation. A new entity needs its table added here.
+CREATE LINKED TABLE IF NOT EXISTS users('org.h2.Driver', 'jdbc:h2:mem:taskdb', 'replica', 'replica', 'USERS') READONLY;
+CREATE LINKED TABLE IF NOT EXISTS tasks('org.h2.Driver', 'jdbc:h2:mem:taskdb', 'replica', 'replica', 'TASKS') READONLY;
+CREATE LINKED TABLE IF NOT EXISTS tasks_archive('org.h2.Driver', 'jdbc:h2:mem:taskdb', 'replica', 'replica', 'TASKS_ARCHIVE') READONLY;
+CREATE LINKED TABLE IF NOT EXISTS task_history('org.h2.Driver', 'jdbc:h2:mem:taskdb', 'replica', 'replica', 'TASK_HISTORY') READONLY;
+CREATE LINKED TABLE IF NOT EXISTS task_event_outbox('org.h2.Driver', 'jdbc:h2:mem:taskdb', 'replica', 'replica', 'TASK_EVENT_OUTBOX') READONLY;
+CREATE LINKED TABLE IF NOT EXISTS task_event_sequence('org.h2.Driver', 'jdbc:h2:mem:taskdb', 'replica', 'replica', 'TASK_EVENT_SEQUENCE') READONLY;
+CREATE LINKED TABLE IF NOT EXISTS revoked_tokens('org.h2.Driver', 'jdbc:h2:mem:taskdb', 'replica', 'replica', 'REVOKED_TOKENS') READONLY;
+CREATE LINKED TABLE IF NOT EXISTS idempotency_keys('org.h2.Driver', 'jdbc:h2:mem:taskdb', 'replica', 'replica', 'IDEMPOTENCY_KEYS') READONLY;
+CREATE LINKED TABLE IF NOT EXISTS webhook_endpoints('org.h2.Driver', 'jdbc:h2:mem:taskdb', 'replica', 'replica', 'WEBHOOK_ENDPOINTS') READONLY;
+CREATE LINKED TABLE IF NOT EXISTS webhook_cursors('org.h2.Driver', 'jdbc:h2:mem:taskdb', 'replica', 'replica', 'WEBHOOK_CURSORS') READONLY;
+CREATE LINKED TABLE IF NOT EXISTS webhook_dead_letters('org.h2.Driver', 'jdbc:h2:mem:taskdb', 'replica', 'replica', 'WEBHOOK_DEAD_LETTERS') READONLY;
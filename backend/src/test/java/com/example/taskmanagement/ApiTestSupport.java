@@ -0,0 +1,52 @@
+package com.example.taskmanagement;
+
+import com.example.taskmanagement.dto.AuthResponse;
+import com.example.taskmanagement.dto.LoginRequest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Logs in as one of the users DataLoader seeds, and waits for background work
+public final class ApiTestSupport {
+
+    public static final String ADMIN_EMAIL = "admin@example.com";
+    public static final String ADMIN_PASSWORD = "Admin@123";
+    public static final String USER_EMAIL = "user@example.com";
+    public static final String USER_PASSWORD = "User@123";
+
+    private ApiTestSupport() {
+    }
+
+    public static HttpHeaders login(TestRestTemplate rest, String email, String password) {
+        ResponseEntity<AuthResponse> response = rest.postForEntity("/api/v1/auth/login",
+                new LoginRequest(email, password), AuthResponse.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(response.getBody().getToken());
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return headers;
+    }
+
+    // Retries the assertion until it passes, for results of scheduled jobs
+    public static void eventually(Duration timeout, Runnable assertion) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (true) {
+            try {
+                assertion.run();
+                return;
+            } catch (AssertionError ex) {
+                if (System.nanoTime() > deadline) {
+                    throw ex;
+                }
+            }
+            Thread.sleep(20);
+        }
+    }
+}
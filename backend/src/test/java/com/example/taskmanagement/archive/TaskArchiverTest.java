@@ -0,0 +1,93 @@
+package com.example.taskmanagement.archive;
+
+import com.example.taskmanagement.ApiTestSupport;
+import com.example.taskmanagement.dto.TaskRequest;
+import com.example.taskmanagement.dto.TaskResponse;
+import com.example.taskmanagement.entity.Task.Priority;
+import com.example.taskmanagement.entity.Task.TaskStatus;
+import com.example.taskmanagement.repository.ArchivedTaskRepository;
+import com.example.taskmanagement.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Every DONE task is old enough to archive; runs are triggered by hand
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.archive.older-than=PT0S",
+        "app.archive.initial-delay=3600000"
+})
+@ActiveProfiles("test")
+class TaskArchiverTest {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private TaskArchiver archiver;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ArchivedTaskRepository archivedTaskRepository;
+
+    private HttpHeaders headers;
+
+    @BeforeEach
+    void login() {
+        headers = ApiTestSupport.login(rest, ApiTestSupport.USER_EMAIL, ApiTestSupport.USER_PASSWORD);
+    }
+
+    @Test
+    void keepsDoneParentWhileSubtasksAreLive() {
+        TaskResponse parent = create("Parent", TaskStatus.DONE, null);
+        TaskResponse child = create("Child", TaskStatus.IN_PROGRESS, parent.getId());
+
+        archiver.archiveCompletedTasks();
+
+        assertThat(taskRepository.existsById(parent.getId())).isTrue();
+        assertThat(taskRepository.existsById(child.getId())).isTrue();
+        assertThat(archivedTaskRepository.existsById(parent.getId())).isFalse();
+    }
+
+    @Test
+    void archivesParentAfterItsSubtasks() {
+        TaskResponse parent = create("Parent", TaskStatus.DONE, null);
+        TaskResponse child = create("Child", TaskStatus.DONE, parent.getId());
+        TaskResponse grandchild = create("Grandchild", TaskStatus.DONE, child.getId());
+
+        // One level per run, leaves first
+        archiver.archiveCompletedTasks();
+        assertThat(archivedTaskRepository.existsById(grandchild.getId())).isTrue();
+        assertThat(taskRepository.existsById(child.getId())).isTrue();
+        assertThat(taskRepository.existsById(parent.getId())).isTrue();
+
+        archiver.archiveCompletedTasks();
+        archiver.archiveCompletedTasks();
+        assertThat(archivedTaskRepository.existsById(child.getId())).isTrue();
+        assertThat(archivedTaskRepository.existsById(parent.getId())).isTrue();
+        assertThat(taskRepository.existsById(parent.getId())).isFalse();
+    }
+
+    private TaskResponse create(String title, TaskStatus status, Long parentId) {
+        TaskRequest request = new TaskRequest();
+        request.setTitle(title);
+        request.setStatus(status);
+        request.setPriority(Priority.LOW);
+        request.setParentId(parentId);
+        ResponseEntity<TaskResponse> response = rest.exchange("/api/v1/tasks", HttpMethod.POST,
+                new HttpEntity<>(request, headers), TaskResponse.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        return response.getBody();
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.taskmanagement.controller;
+
+import com.example.taskmanagement.ApiTestSupport;
+import com.example.taskmanagement.dto.TaskRequest;
+import com.example.taskmanagement.dto.TaskResponse;
+import com.example.taskmanagement.entity.Task.Priority;
+import com.example.taskmanagement.entity.Task.TaskStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Parallel PUTs carrying the same If-Match: exactly one may win, the others must get
+// 412 rather than silently overwrite it. Writers that re-read and retry get every
+// update through.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class TaskConcurrentUpdateTest {
+
+    private static final int WRITERS = 8;
+    private static final int UPDATES_PER_WRITER = 25;
+
+    // Far below what the in-memory database manages even under contention; catches
+    // retries that livelock or updates that serialise on something slow
+    private static final double MIN_UPDATES_PER_SECOND = 20;
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    private HttpHeaders headers;
+
+    @BeforeEach
+    void login() {
+        headers = ApiTestSupport.login(rest, ApiTestSupport.USER_EMAIL, ApiTestSupport.USER_PASSWORD);
+    }
+
+    @Test
+    void parallelUpdatesWithSameIfMatchHaveOneWinner() throws Exception {
+        TaskResponse created = create("Contended task");
+        String etag = "\"" + created.getVersion() + "\"";
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        List<Future<ResponseEntity<String>>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < WRITERS; i++) {
+                String title = "Writer " + i;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return put(created.getId(), title, etag);
+                }));
+            }
+            start.countDown();
+
+            int succeeded = 0;
+            int preconditionFailed = 0;
+            String winner = null;
+            for (int i = 0; i < WRITERS; i++) {
+                ResponseEntity<String> response = results.get(i).get();
+                if (response.getStatusCode() == HttpStatus.OK) {
+                    succeeded++;
+                    winner = "Writer " + i;
+                } else {
+                    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+                    preconditionFailed++;
+                }
+            }
+            assertThat(succeeded).isEqualTo(1);
+            assertThat(preconditionFailed).isEqualTo(WRITERS - 1);
+
+            // No lost update: the stored task is the winner's, one version on
+            TaskResponse stored = get(created.getId());
+            assertThat(stored.getTitle()).isEqualTo(winner);
+            assertThat(stored.getVersion()).isEqualTo(created.getVersion() + 1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Every writer increments a counter kept in the description, re-reading the task
+    // after each 412. The counter ends at the number of updates: none was lost.
+    @Test
+    void retryingWritersKeepEveryUpdate() throws Exception {
+        TaskResponse created = create("Counter");
+        int total = WRITERS * UPDATES_PER_WRITER;
+
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger conflicts = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        List<Future<Void>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < WRITERS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int completed = 0;
+                    while (completed < UPDATES_PER_WRITER) {
+                        TaskResponse current = get(created.getId());
+                        int count = current.getDescription() != null ? Integer.parseInt(current.getDescription()) : 0;
+                        TaskRequest request = request(current.getTitle());
+                        request.setDescription(String.valueOf(count + 1));
+
+                        String etag = "\"" + current.getVersion() + "\"";
+                        ResponseEntity<String> response = put(created.getId(), request, etag);
+                        if (response.getStatusCode() == HttpStatus.OK) {
+                            completed++;
+                        } else {
+                            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+                            conflicts.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            long started = System.nanoTime();
+            start.countDown();
+            for (Future<Void> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+            double seconds = (System.nanoTime() - started) / 1e9;
+
+            TaskResponse stored = get(created.getId());
+            assertThat(stored.getDescription()).isEqualTo(String.valueOf(total));
+            assertThat(stored.getVersion()).isEqualTo(created.getVersion() + total);
+            assertThat(total / seconds)
+                    .as("updates per second, with %d retries after 412", conflicts.get())
+                    .isGreaterThanOrEqualTo(MIN_UPDATES_PER_SECOND);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void weakIfMatchNeverMatches() {
+        TaskResponse created = create("Weak validator");
+
+        ResponseEntity<String> response = put(created.getId(), "Changed", "W/\"" + created.getVersion() + "\"");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        assertThat(get(created.getId()).getTitle()).isEqualTo("Weak validator");
+    }
+
+    private TaskResponse create(String title) {
+        ResponseEntity<TaskResponse> response = rest.exchange("/api/v1/tasks", HttpMethod.POST,
+                new HttpEntity<>(request(title), headers), TaskResponse.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        return response.getBody();
+    }
+
+    private ResponseEntity<String> put(Long id, String title, String ifMatch) {
+        return put(id, request(title), ifMatch);
+    }
+
+    private ResponseEntity<String> put(Long id, TaskRequest request, String ifMatch) {
+        HttpHeaders conditional = new HttpHeaders();
+        conditional.addAll(headers);
+        conditional.setIfMatch(ifMatch);
+        return rest.exchange("/api/v1/tasks/" + id, HttpMethod.PUT,
+                new HttpEntity<>(request, conditional), String.class);
+    }
+
+    private TaskResponse get(Long id) {
+        ResponseEntity<TaskResponse> response = rest.exchange("/api/v1/tasks/" + id, HttpMethod.GET,
+                new HttpEntity<>(headers), TaskResponse.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return response.getBody();
+    }
+
+    private static TaskRequest request(String title) {
+        TaskRequest request = new TaskRequest();
+        request.setTitle(title);
+        request.setStatus(TaskStatus.TODO);
+        request.setPriority(Priority.MEDIUM);
+        return request;
+    }
+}
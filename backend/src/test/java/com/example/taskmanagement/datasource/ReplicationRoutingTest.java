@@ -0,0 +1,71 @@
+package com.example.taskmanagement.datasource;
+
+import com.example.taskmanagement.ApiTestSupport;
+import com.example.taskmanagement.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The replicas profile: primary taskdb, replica taskdb_replica linked to it. Nothing
+// here runs as a user, so read-your-writes never pins a read to the primary.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "replicas"})
+class ReplicationRoutingTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicaHealthMonitor healthMonitor;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void restoreReplicas() {
+        healthMonitor.checkReplicas();
+    }
+
+    @Test
+    void sendsReadOnlyTransactionsToReplica() {
+        assertThat(databaseIn(true)).isEqualToIgnoringCase("taskdb_replica");
+        assertThat(databaseIn(false)).isEqualToIgnoringCase("taskdb");
+
+        // Rows written through the primary are read back through the replica's links
+        assertThat(inTransaction(true, () -> userRepository.findByEmail(ApiTestSupport.ADMIN_EMAIL))).isPresent();
+    }
+
+    @Test
+    void fallsBackToPrimaryWhileReplicaIsDown() {
+        healthMonitor.markDown("replica-1");
+        assertThat(databaseIn(true)).isEqualToIgnoringCase("taskdb");
+
+        // The next health check finds it up again
+        healthMonitor.checkReplicas();
+        assertThat(databaseIn(true)).isEqualToIgnoringCase("taskdb_replica");
+    }
+
+    private String databaseIn(boolean readOnly) {
+        return inTransaction(readOnly,
+                () -> new JdbcTemplate(dataSource).queryForObject("SELECT DATABASE()", String.class));
+    }
+
+    private <T> T inTransaction(boolean readOnly, Supplier<T> work) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> work.get());
+    }
+}
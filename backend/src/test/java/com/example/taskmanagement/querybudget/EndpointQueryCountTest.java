@@ -0,0 +1,137 @@
+package com.example.taskmanagement.querybudget;
+
+import com.example.taskmanagement.ApiTestSupport;
+import com.example.taskmanagement.dto.LoginRequest;
+import com.example.taskmanagement.dto.RegisterRequest;
+import com.example.taskmanagement.dto.TaskRequest;
+import com.example.taskmanagement.dto.TaskResponse;
+import com.example.taskmanagement.entity.Task.Priority;
+import com.example.taskmanagement.entity.Task.TaskStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Exact statement count of every budgeted endpoint, read from X-Query-Count. A change
+// that adds a query fails here even while the endpoint is still within its budget.
+// Authenticated requests start with the token's user lookup, and services look the
+// caller up again.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class EndpointQueryCountTest {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private QueryBudgetProperties properties;
+
+    private HttpHeaders admin;
+    private HttpHeaders user;
+
+    @BeforeEach
+    void login() {
+        admin = ApiTestSupport.login(rest, ApiTestSupport.ADMIN_EMAIL, ApiTestSupport.ADMIN_PASSWORD);
+        user = ApiTestSupport.login(rest, ApiTestSupport.USER_EMAIL, ApiTestSupport.USER_PASSWORD);
+    }
+
+    @Test
+    void authEndpointsIssueExpectedStatements() {
+        String email = "budget-" + UUID.randomUUID() + "@example.com";
+        // Username and email checks, insert
+        assertStatements("POST /api/v1/auth/register", rest.postForEntity("/api/v1/auth/register",
+                new RegisterRequest("budget" + email.hashCode(), email, "Budget@123"), String.class), 3);
+        // Authentication's lookup, then the user for the response
+        assertStatements("POST /api/v1/auth/login", rest.postForEntity("/api/v1/auth/login",
+                new LoginRequest(email, "Budget@123"), String.class), 2);
+        // Token user, deny-list check, insert
+        assertStatements("POST /api/v1/auth/logout", exchange("/api/v1/auth/logout", HttpMethod.POST, user), 3);
+    }
+
+    @Test
+    void taskReadsIssueExpectedStatements() throws InterruptedException {
+        TaskResponse parent = create("Parent", null, Priority.LOW);
+        TaskResponse child = create("Child", parent.getId(), Priority.LOW);
+        String parentPath = "/api/v1/tasks/" + parent.getId();
+        String childPath = "/api/v1/tasks/" + child.getId();
+
+        // A page larger than the user's tasks needs no count query
+        assertStatements("GET /api/v1/tasks", exchange("/api/v1/tasks?size=1000", HttpMethod.GET, user), 3);
+        assertStatements("GET /api/v1/tasks/{id}", exchange(childPath, HttpMethod.GET, user), 3);
+        assertStatements("GET /api/v1/tasks/board", exchange("/api/v1/tasks/board", HttpMethod.GET, user), 3);
+        assertStatements("GET /api/v1/tasks/my-tasks", exchange("/api/v1/tasks/my-tasks", HttpMethod.GET, user), 3);
+        // Nothing archived, so no user lookup for archived rows
+        assertStatements("GET /api/v1/tasks/archived", exchange("/api/v1/tasks/archived", HttpMethod.GET, user), 3);
+        assertStatements("GET /api/v1/tasks/{id}/subtree", exchange(parentPath + "/subtree", HttpMethod.GET, user), 4);
+        assertStatements("GET /api/v1/tasks/{id}/ancestors", exchange(childPath + "/ancestors", HttpMethod.GET, user), 4);
+        assertStatements("GET /api/v1/tasks/{id}/progress", exchange(parentPath + "/progress", HttpMethod.GET, user), 3);
+        assertStatements("GET /api/v1/tasks/history/metrics",
+                exchange("/api/v1/tasks/history/metrics", HttpMethod.GET, user), 3);
+        // History is written in the background
+        ApiTestSupport.eventually(Duration.ofSeconds(5), () -> assertStatements("GET /api/v1/tasks/{id}/history",
+                exchange(childPath + "/history", HttpMethod.GET, user), 3));
+    }
+
+    @Test
+    void taskWritesIssueExpectedStatements() {
+        TaskResponse parent = create("Parent", null, Priority.LOW);
+
+        // Parent lock and lookup, insert, parent rollup, outbox event
+        TaskRequest request = request("Child", parent.getId(), Priority.LOW);
+        ResponseEntity<TaskResponse> created = rest.exchange("/api/v1/tasks", HttpMethod.POST,
+                new HttpEntity<>(request, user), TaskResponse.class);
+        assertStatements("POST /api/v1/tasks", created, 7);
+        String childPath = "/api/v1/tasks/" + created.getBody().getId();
+
+        // Same parent and nothing done, so no rollup: lookup, update, outbox event
+        request.setStatus(TaskStatus.IN_PROGRESS);
+        assertStatements("PUT /api/v1/tasks/{id}", rest.exchange(childPath, HttpMethod.PUT,
+                new HttpEntity<>(request, user), String.class), 5);
+
+        // HIGH is tried first, and there is one now. The claimed task's owner is loaded
+        // in the claim's own transaction.
+        create("Claimable", null, Priority.HIGH);
+        assertStatements("POST /api/v1/tasks/claim", exchange("/api/v1/tasks/claim", HttpMethod.POST, user), 6);
+
+        // Lookup, lock, subtask check, delete, parent rollup, outbox event
+        assertStatements("DELETE /api/v1/tasks/{id}", exchange(childPath, HttpMethod.DELETE, admin), 8);
+    }
+
+    private void assertStatements(String endpoint, ResponseEntity<?> response, int expected) {
+        assertThat(response.getStatusCode().is2xxSuccessful()).as(endpoint + " status").isTrue();
+        String count = response.getHeaders().getFirst("X-Query-Count");
+        assertThat(count).as(endpoint + " X-Query-Count").isNotNull();
+        assertThat(Integer.parseInt(count)).as(endpoint + " statements").isEqualTo(expected);
+        assertThat(expected).as(endpoint + " budget")
+                .isLessThanOrEqualTo(properties.getEndpoints().get(endpoint).getMaxStatements());
+    }
+
+    private ResponseEntity<String> exchange(String path, HttpMethod method, HttpHeaders headers) {
+        return rest.exchange(path, method, new HttpEntity<>(headers), String.class);
+    }
+
+    private TaskResponse create(String title, Long parentId, Priority priority) {
+        return rest.exchange("/api/v1/tasks", HttpMethod.POST,
+                new HttpEntity<>(request(title, parentId, priority), user), TaskResponse.class).getBody();
+    }
+
+    private static TaskRequest request(String title, Long parentId, Priority priority) {
+        TaskRequest request = new TaskRequest();
+        request.setTitle(title);
+        request.setStatus(TaskStatus.TODO);
+        request.setPriority(priority);
+        request.setParentId(parentId);
+        return request;
+    }
+}
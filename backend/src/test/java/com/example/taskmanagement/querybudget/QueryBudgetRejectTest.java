@@ -0,0 +1,57 @@
+package com.example.taskmanagement.querybudget;
+
+import com.example.taskmanagement.ApiTestSupport;
+import com.example.taskmanagement.dto.WebhookEndpointRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Endpoints without their own budget may issue a single statement; login keeps its budget of 2
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.query-budget.mode=REJECT",
+        "app.query-budget.defaults.max-statements=1"
+})
+@ActiveProfiles("test")
+class QueryBudgetRejectTest {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Test
+    void answersReadOverBudgetWithQueryBudgetError() {
+        // Within budget: passes through untouched
+        HttpHeaders admin = ApiTestSupport.login(rest, ApiTestSupport.ADMIN_EMAIL, ApiTestSupport.ADMIN_PASSWORD);
+
+        // The token's user lookup and the listing make two
+        ResponseEntity<JsonNode> response = rest.exchange("/api/v1/webhooks", HttpMethod.GET,
+                new HttpEntity<>(admin), JsonNode.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(response.getBody().get("error").asText()).isEqualTo("Query Budget Exceeded");
+        assertThat(response.getBody().get("message").asText()).startsWith("GET /api/v1/webhooks exceeded its query budget");
+        assertThat(response.getBody().get("path").asText()).isEqualTo("/api/v1/webhooks");
+        assertThat(Integer.parseInt(response.getHeaders().getFirst("X-Query-Count"))).isGreaterThan(1);
+    }
+
+    // The write has committed by the time the budget is checked, so it keeps its response
+    @Test
+    void onlyLogsWriteOverBudget() {
+        HttpHeaders admin = ApiTestSupport.login(rest, ApiTestSupport.ADMIN_EMAIL, ApiTestSupport.ADMIN_PASSWORD);
+
+        ResponseEntity<JsonNode> response = rest.exchange("/api/v1/webhooks", HttpMethod.POST,
+                new HttpEntity<>(new WebhookEndpointRequest("http://localhost:1/hook", null), admin), JsonNode.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(Integer.parseInt(response.getHeaders().getFirst("X-Query-Count"))).isGreaterThan(1);
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.taskmanagement.service;
+
+import com.example.taskmanagement.ApiTestSupport;
+import com.example.taskmanagement.dto.TaskRequest;
+import com.example.taskmanagement.dto.TaskResponse;
+import com.example.taskmanagement.entity.IdempotencyRecord;
+import com.example.taskmanagement.entity.Task.Priority;
+import com.example.taskmanagement.entity.Task.TaskStatus;
+import com.example.taskmanagement.repository.IdempotencyRecordRepository;
+import com.example.taskmanagement.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+
+// POST /api/v1/tasks with an Idempotency-Key. The key repository is spied on to let
+// a key appear at a chosen moment, as if inserted by another instance.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class IdempotencyServiceTest {
+
+    private static final String OPERATION = "POST /api/v1/tasks";
+    private static final int DUPLICATES = 16;
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @SpyBean
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private HttpHeaders headers;
+
+    @BeforeEach
+    void login() {
+        headers = ApiTestSupport.login(rest, ApiTestSupport.USER_EMAIL, ApiTestSupport.USER_PASSWORD);
+    }
+
+    @Test
+    void replaysResponseOfRetry() {
+        String key = UUID.randomUUID().toString();
+        TaskRequest request = request("Retried " + key);
+
+        ResponseEntity<TaskResponse> first = post(key, request, TaskResponse.class);
+        ResponseEntity<TaskResponse> retry = post(key, request, TaskResponse.class);
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(first.getHeaders().getFirst("Idempotent-Replayed")).isNull();
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getHeaders().getFirst("Idempotent-Replayed")).isEqualTo("true");
+        assertThat(retry.getHeaders().getETag()).isEqualTo(first.getHeaders().getETag());
+        assertThat(retry.getBody().getId()).isEqualTo(first.getBody().getId());
+        assertThat(tasksTitled(request.getTitle())).isEqualTo(1);
+    }
+
+    @Test
+    void refusesKeyReusedForDifferentRequest() {
+        String key = UUID.randomUUID().toString();
+        assertThat(post(key, request("Original " + key), TaskResponse.class).getStatusCode())
+                .isEqualTo(HttpStatus.CREATED);
+
+        ResponseEntity<String> reused = post(key, request("Different " + key), String.class);
+
+        assertThat(reused.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(reused.getBody()).contains("already used for a different request");
+        assertThat(tasksTitled("Different " + key)).isZero();
+    }
+
+    // Duplicates on one instance share the first one's execution
+    @Test
+    void runsConcurrentDuplicatesOnce() throws Exception {
+        String key = UUID.randomUUID().toString();
+        TaskRequest request = request("Duplicated " + key);
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(DUPLICATES);
+        List<Future<ResponseEntity<TaskResponse>>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < DUPLICATES; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return post(key, request, TaskResponse.class);
+                }));
+            }
+            start.countDown();
+
+            Long id = null;
+            int replayed = 0;
+            for (Future<ResponseEntity<TaskResponse>> future : futures) {
+                ResponseEntity<TaskResponse> response = future.get(30, TimeUnit.SECONDS);
+                assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+                if (id == null) {
+                    id = response.getBody().getId();
+                }
+                assertThat(response.getBody().getId()).isEqualTo(id);
+                if ("true".equals(response.getHeaders().getFirst("Idempotent-Replayed"))) {
+                    replayed++;
+                }
+            }
+            assertThat(replayed).isEqualTo(DUPLICATES - 1);
+            assertThat(tasksTitled(request.getTitle())).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Another instance commits the key between this request's lookup and its insert:
+    // the insert fails on the unique key and the committed response is replayed
+    @Test
+    void replaysKeyCommittedBetweenLookupAndInsert() {
+        String key = UUID.randomUUID().toString();
+        TaskRequest request = request("Elsewhere " + key);
+        String requestHash = ReflectionTestUtils.invokeMethod(idempotencyService, "hash", OPERATION, request);
+
+        AtomicBoolean inserted = new AtomicBoolean();
+        TransactionTemplate otherInstance = new TransactionTemplate(transactionManager);
+        otherInstance.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        doAnswer(invocation -> {
+            Object found = invocation.callRealMethod();
+            if (key.equals(invocation.getArgument(1)) && inserted.compareAndSet(false, true)) {
+                LocalDateTime now = LocalDateTime.now();
+                otherInstance.executeWithoutResult(status -> idempotencyRecordRepository.saveAndFlush(
+                        new IdempotencyRecord(null, ApiTestSupport.USER_EMAIL, key, requestHash, 201, "\"0\"",
+                                "{\"id\":-1,\"title\":\"" + request.getTitle() + "\"}", now, now.plusHours(1))));
+            }
+            return found;
+        }).when(idempotencyRecordRepository).findByOwnerAndIdempotencyKey(anyString(), anyString());
+
+        ResponseEntity<TaskResponse> response = post(key, request, TaskResponse.class);
+
+        assertThat(inserted).isTrue();
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(response.getHeaders().getFirst("Idempotent-Replayed")).isEqualTo("true");
+        assertThat(response.getBody().getId()).isEqualTo(-1L);
+        assertThat(tasksTitled(request.getTitle())).isZero();
+    }
+
+    private <T> ResponseEntity<T> post(String key, TaskRequest request, Class<T> type) {
+        HttpHeaders keyed = new HttpHeaders();
+        keyed.addAll(headers);
+        keyed.set("Idempotency-Key", key);
+        return rest.exchange("/api/v1/tasks", HttpMethod.POST, new HttpEntity<>(request, keyed), type);
+    }
+
+    private long tasksTitled(String title) {
+        return taskRepository.findAll().stream()
+                .filter(task -> title.equals(task.getTitle()))
+                .count();
+    }
+
+    private static TaskRequest request(String title) {
+        TaskRequest request = new TaskRequest();
+        request.setTitle(title);
+        request.setStatus(TaskStatus.TODO);
+        request.setPriority(Priority.LOW);
+        return request;
+    }
+}
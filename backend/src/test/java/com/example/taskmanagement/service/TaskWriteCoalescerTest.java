@@ -0,0 +1,175 @@
+package com.example.taskmanagement.service;
+
+import com.example.taskmanagement.ApiTestSupport;
+import com.example.taskmanagement.dto.TaskRequest;
+import com.example.taskmanagement.dto.TaskResponse;
+import com.example.taskmanagement.entity.Task.Priority;
+import com.example.taskmanagement.entity.Task.TaskStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 32 PUTs to one task at once, without If-Match, so they all go through the
+// coalescer. The window keeps a write open long enough for the others to queue up.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.write-coalescing.enabled=true",
+        "app.write-coalescing.window=20ms"
+})
+@ActiveProfiles("test")
+class TaskWriteCoalescerTest {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private TaskWriteCoalescer coalescer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private HttpHeaders headers;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        headers = ApiTestSupport.login(rest, ApiTestSupport.USER_EMAIL, ApiTestSupport.USER_PASSWORD);
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    // Each coalesced update saves one write: versions and the counter add up to the requests
+    @Test
+    void mergesConcurrentUpdatesIntoFewerWrites() throws Exception {
+        TaskResponse created = create("Burst");
+        double coalescedBefore = coalesced();
+
+        List<ResponseEntity<String>> responses = putAll(created.getId(), i -> request("Update " + i, null));
+
+        for (ResponseEntity<String> response : responses) {
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(Long.parseLong(response.getHeaders().getETag().replace("\"", "")))
+                    .isGreaterThan(created.getVersion());
+        }
+        int merged = (int) (coalesced() - coalescedBefore);
+        assertThat(merged).isPositive();
+
+        TaskResponse stored = get(created.getId());
+        assertThat(stored.getVersion()).isEqualTo(created.getVersion() + THREADS - merged);
+        assertThat(stored.getTitle()).startsWith("Update ");
+        assertSlotsReleased();
+    }
+
+    // A request that can't be applied (the task as its own parent) fails only its own
+    // caller: if it ends a batch, the merged write fails and the batch is applied one by one
+    @Test
+    void appliesBatchOneByOneWhenMergedWriteFails() throws Exception {
+        TaskResponse created = create("Mixed");
+
+        List<ResponseEntity<String>> responses = putAll(created.getId(),
+                i -> i % 4 == 0 ? request("Cycle " + i, created.getId()) : request("Update " + i, null));
+
+        for (int i = 0; i < THREADS; i++) {
+            HttpStatus status = HttpStatus.valueOf(responses.get(i).getStatusCode().value());
+            if (i % 4 == 0) {
+                // Or merged into a later valid update, which replaces it entirely
+                assertThat(status).isIn(HttpStatus.BAD_REQUEST, HttpStatus.OK);
+            } else {
+                assertThat(status).isEqualTo(HttpStatus.OK);
+            }
+        }
+        TaskResponse stored = get(created.getId());
+        assertThat(stored.getTitle()).startsWith("Update ");
+        assertThat(stored.getParentId()).isNull();
+
+        // Nothing valid to merge into: every caller gets its own failure, nothing is written
+        List<ResponseEntity<String>> failed = putAll(created.getId(),
+                i -> request("Cycle " + i, created.getId()));
+
+        assertThat(failed).allSatisfy(response ->
+                assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        assertThat(get(created.getId()).getVersion()).isEqualTo(stored.getVersion());
+        assertSlotsReleased();
+    }
+
+    // The slot of a task goes away with its last caller, so the map doesn't grow with every task ever updated
+    private void assertSlotsReleased() {
+        Map<?, ?> slots = (Map<?, ?>) ReflectionTestUtils.getField(coalescer, "slots");
+        assertThat(slots).isEmpty();
+    }
+
+    private List<ResponseEntity<String>> putAll(Long id, IntFunction<TaskRequest> requests) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ResponseEntity<String>>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            TaskRequest request = requests.apply(i);
+            futures.add(executor.submit(() -> {
+                start.await();
+                return rest.exchange("/api/v1/tasks/" + id, HttpMethod.PUT, new HttpEntity<>(request, headers),
+                        String.class);
+            }));
+        }
+        start.countDown();
+
+        List<ResponseEntity<String>> responses = new ArrayList<>();
+        for (Future<ResponseEntity<String>> future : futures) {
+            responses.add(future.get(30, TimeUnit.SECONDS));
+        }
+        return responses;
+    }
+
+    private double coalesced() {
+        return meterRegistry.counter("tasks.updates.coalesced").count();
+    }
+
+    private TaskResponse create(String title) {
+        ResponseEntity<TaskResponse> response = rest.exchange("/api/v1/tasks", HttpMethod.POST,
+                new HttpEntity<>(request(title, null), headers), TaskResponse.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        return response.getBody();
+    }
+
+    private TaskResponse get(Long id) {
+        ResponseEntity<TaskResponse> response = rest.exchange("/api/v1/tasks/" + id, HttpMethod.GET,
+                new HttpEntity<>(headers), TaskResponse.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return response.getBody();
+    }
+
+    private static TaskRequest request(String title, Long parentId) {
+        TaskRequest request = new TaskRequest();
+        request.setTitle(title);
+        request.setStatus(TaskStatus.TODO);
+        request.setPriority(Priority.MEDIUM);
+        request.setParentId(parentId);
+        return request;
+    }
+}
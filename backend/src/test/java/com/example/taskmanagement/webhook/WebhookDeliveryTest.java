@@ -0,0 +1,228 @@
+package com.example.taskmanagement.webhook;
+
+import com.example.taskmanagement.ApiTestSupport;
+import com.example.taskmanagement.dto.TaskRequest;
+import com.example.taskmanagement.dto.TaskResponse;
+import com.example.taskmanagement.dto.WebhookEndpointRequest;
+import com.example.taskmanagement.dto.WebhookEndpointResponse;
+import com.example.taskmanagement.entity.Task.Priority;
+import com.example.taskmanagement.entity.Task.TaskStatus;
+import com.example.taskmanagement.entity.TaskEventOutbox;
+import com.example.taskmanagement.repository.TaskEventOutboxRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntUnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Delivery against a local HTTP stub, with fast polling and backoff
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.webhooks.poll-interval=50",
+        "app.webhooks.initial-backoff=20",
+        "app.webhooks.max-backoff=50",
+        "app.webhooks.max-attempts=3"
+})
+@ActiveProfiles("test")
+class WebhookDeliveryTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private TaskEventOutboxRepository outboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private HttpHeaders admin;
+    private HttpHeaders user;
+    private final List<StubEndpoint> stubs = new ArrayList<>();
+
+    @BeforeEach
+    void login() {
+        admin = ApiTestSupport.login(rest, ApiTestSupport.ADMIN_EMAIL, ApiTestSupport.ADMIN_PASSWORD);
+        user = ApiTestSupport.login(rest, ApiTestSupport.USER_EMAIL, ApiTestSupport.USER_PASSWORD);
+    }
+
+    @AfterEach
+    void stopStubs() {
+        stubs.forEach(StubEndpoint::close);
+    }
+
+    @Test
+    void deliversTaskEvents() throws Exception {
+        StubEndpoint stub = stub(attempt -> 200);
+        register(stub);
+
+        TaskResponse task = createTask("Delivered");
+
+        String marker = "\"taskId\":" + task.getId();
+        ApiTestSupport.eventually(TIMEOUT, () -> assertThat(stub.requestsContaining(marker)).isEqualTo(1));
+        assertThat(stub.bodies).filteredOn(body -> body.contains(marker))
+                .singleElement().asString().contains("\"type\":\"CREATED\"");
+    }
+
+    @Test
+    void retriesFailedDeliveries() throws Exception {
+        StubEndpoint stub = stub(attempt -> attempt <= 2 ? 503 : 200);
+        Long endpointId = register(stub);
+
+        TaskResponse task = createTask("Retried");
+
+        // Two failures, then delivered by the third attempt and never again
+        String marker = "\"taskId\":" + task.getId();
+        ApiTestSupport.eventually(TIMEOUT, () -> assertThat(stub.requestsContaining(marker)).isEqualTo(3));
+        Thread.sleep(300);
+        assertThat(stub.requestsContaining(marker)).isEqualTo(3);
+        assertThat(deadLetters(endpointId)).isEmpty();
+    }
+
+    @Test
+    void deadLettersAfterMaxAttempts() throws Exception {
+        StubEndpoint stub = stub(attempt -> 500);
+        Long endpointId = register(stub);
+
+        TaskResponse task = createTask("Dead-lettered");
+
+        ApiTestSupport.eventually(TIMEOUT, () -> assertThat(deadLetters(endpointId)).hasSize(1));
+        JsonNode deadLetter = deadLetters(endpointId).get(0);
+        assertThat(deadLetter.get("event").get("taskId").asLong()).isEqualTo(task.getId());
+        assertThat(deadLetter.get("error").asText()).isEqualTo("HTTP 500");
+        assertThat(stub.requestsContaining("\"taskId\":" + task.getId())).isEqualTo(3);
+    }
+
+    // The outbox id is taken at insert: an event committed after a later one must not be skipped
+    @Test
+    void deliversEventsCommittedOutOfIdOrder() throws Exception {
+        StubEndpoint stub = stub(attempt -> 200);
+        register(stub);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        String early = "early-" + UUID.randomUUID();
+        String late = "late-" + UUID.randomUUID();
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Long> slow = CompletableFuture.supplyAsync(() -> transaction.execute(status -> {
+            Long id = outboxRepository.save(testEvent(early)).getId();
+            inserted.countDown();
+            await(commit);
+            return id;
+        }));
+        assertThat(inserted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Long lateId = transaction.execute(status -> outboxRepository.save(testEvent(late)).getId());
+        ApiTestSupport.eventually(TIMEOUT, () -> assertThat(stub.requestsContaining(late)).isEqualTo(1));
+
+        commit.countDown();
+        assertThat(slow.get(5, TimeUnit.SECONDS)).isLessThan(lateId);
+        ApiTestSupport.eventually(TIMEOUT, () -> assertThat(stub.requestsContaining(early)).isEqualTo(1));
+    }
+
+    private StubEndpoint stub(IntUnaryOperator statusForAttempt) throws IOException {
+        StubEndpoint stub = new StubEndpoint(statusForAttempt);
+        stubs.add(stub);
+        return stub;
+    }
+
+    private Long register(StubEndpoint stub) {
+        ResponseEntity<WebhookEndpointResponse> response = rest.exchange("/api/v1/webhooks", HttpMethod.POST,
+                new HttpEntity<>(new WebhookEndpointRequest(stub.url(), null), admin), WebhookEndpointResponse.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        return response.getBody().getId();
+    }
+
+    private TaskResponse createTask(String title) {
+        TaskRequest request = new TaskRequest();
+        request.setTitle(title);
+        request.setStatus(TaskStatus.TODO);
+        request.setPriority(Priority.LOW);
+        ResponseEntity<TaskResponse> response = rest.exchange("/api/v1/tasks", HttpMethod.POST,
+                new HttpEntity<>(request, user), TaskResponse.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        return response.getBody();
+    }
+
+    private List<JsonNode> deadLetters(Long endpointId) {
+        ResponseEntity<JsonNode> response = rest.exchange("/api/v1/webhooks/" + endpointId + "/dead-letters",
+                HttpMethod.GET, new HttpEntity<>(admin), JsonNode.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        List<JsonNode> deadLetters = new ArrayList<>();
+        response.getBody().forEach(deadLetters::add);
+        return deadLetters;
+    }
+
+    private static TaskEventOutbox testEvent(String marker) {
+        TaskEventOutbox event = new TaskEventOutbox();
+        event.setEventType("TEST");
+        event.setPayload("{\"type\":\"TEST\",\"marker\":\"" + marker + "\"}");
+        event.setCreatedAt(LocalDateTime.now());
+        return event;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Answers each POST with the status statusForAttempt gives for its (1-based) number
+    private static final class StubEndpoint implements AutoCloseable {
+
+        private final HttpServer server;
+        private final List<String> bodies = new CopyOnWriteArrayList<>();
+
+        private StubEndpoint(IntUnaryOperator statusForAttempt) throws IOException {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/hook", exchange -> {
+                bodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+                exchange.sendResponseHeaders(statusForAttempt.applyAsInt(bodies.size()), -1);
+                exchange.close();
+            });
+            server.start();
+        }
+
+        private String url() {
+            return "http://localhost:" + server.getAddress().getPort() + "/hook";
+        }
+
+        private long requestsContaining(String text) {
+            return bodies.stream().filter(body -> body.contains(text)).count();
+        }
+
+        @Override
+        public void close() {
+            server.stop(0);
+        }
+    }
+}
@@ -18,6 +18,19 @@ const Tasks = () => {
         fetchTasks();
     }, []);
 
+    // Apply changes made in other tabs or by other users without refetching the list
+    useEffect(() => {
+        return taskService.subscribeToChanges((event) => {
+            if (event.type === 'DELETED') {
+                setTasks((current) => current.filter((task) => task.id !== event.taskId));
+            } else if (event.task) {
+                setTasks((current) => current.some((task) => task.id === event.taskId)
+                    ? current.map((task) => (task.id === event.taskId ? event.task : task))
+                    : [event.task, ...current]);
+            }
+        });
+    }, []);
+
     const fetchTasks = async () => {
         try {
             setLoading(true);
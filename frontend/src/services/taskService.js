@@ -1,5 +1,7 @@
 import api from './api';
 
+const API_URL = 'http://localhost:8080/api/v1';
+
 export const taskService = {
     getAllTasks: async (page = 0, size = 10, sortBy = 'createdAt') => {
         const response = await api.get(`/tasks?page=${page}&size=${size}&sortBy=${sortBy}`);
@@ -30,6 +32,47 @@ export const taskService = {
         const response = await api.delete(`/tasks/${id}`);
         return response.data;
     },
+
+    // Server-Sent Events over fetch (EventSource can't send the Authorization header).
+    // Returns a function that closes the stream.
+    subscribeToChanges: (onEvent) => {
+        const controller = new AbortController();
+
+        const connect = async () => {
+            const response = await fetch(`${API_URL}/tasks/stream`, {
+                headers: { Authorization: `Bearer ${localStorage.getItem('token')}` },
+                signal: controller.signal,
+            });
+            const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+            let buffer = '';
+
+            while (true) {
+                const { value, done } = await reader.read();
+                if (done) break;
+                buffer += value;
+
+                const frames = buffer.split('\n\n');
+                buffer = frames.pop();
+                frames.forEach((frame) => {
+                    const data = frame.split('\n')
+                        .filter((line) => line.startsWith('data:'))
+                        .map((line) => line.slice(5))
+                        .join('\n');
+                    if (data) onEvent(JSON.parse(data));
+                });
+            }
+        };
+
+        const run = () => connect()
+            .catch(() => {})
+            .finally(() => {
+                // Reconnect after the server closes the stream (timeout or slow-consumer drop)
+                if (!controller.signal.aborted) setTimeout(run, 3000);
+            });
+        run();
+
+        return () => controller.abort();
+    },
 };
 
 export default taskService;